@@ -0,0 +1,77 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.BibliotecaApplication;
+import com.biblioteca.busca.IndiceAutocompletar;
+import com.biblioteca.busca.IndiceInvertido;
+import com.biblioteca.cache.FiltroIdsExistentes;
+import com.biblioteca.config.ReconstrucaoInicial;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Aplicação Spring de verdade (sem Tomcat) com o H2 populado, para os benchmarks.
+ *
+ * Mesmos beans e mesmas configurações da aplicação (service, repository,
+ * cache, índice de busca, migrações), só que:
+ * - Sem servidor web (WebApplicationType.NONE)
+ * - Sem log de SQL (show-sql distorce as medições)
+ * - Banco em memória próprio para cada quantidade de linhas
+ *
+ * Popularidade (total_emprestimos) espalhada entre 0 e 999, para o
+ * ranking do autocompletar ter trabalho de verdade.
+ *
+ * As linhas são inseridas com um único INSERT ... SELECT no próprio H2
+ * (1 milhão de livros em poucos segundos), e a sequence é avançada para
+ * depois delas, então cadastros feitos pelo benchmark não colidem.
+ */
+final class ContextoBenchmark {
+
+    /** Autores distintos na massa de dados (cada um com linhas/AUTORES livros) */
+    static final int AUTORES = 1000;
+
+    private ContextoBenchmark() {}
+
+    static ConfigurableApplicationContext iniciar(int linhas) {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BibliotecaApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark_" + linhas + ";LAZY_QUERY_EXECUTION=1",
+                     "--spring.jpa.show-sql=false",
+                     "--spring.jpa.properties.hibernate.format_sql=false",
+                     "--spring.main.banner-mode=off",
+                     "--logging.level.root=WARN");
+
+        // Os índices (e o filtro de IDs) são montados em segundo plano na inicialização,
+        // com a tabela ainda vazia: espera terminarem antes de popular e remontar
+        contexto.getBean(ReconstrucaoInicial.class).aguardar();
+        popular(contexto.getBean(JdbcTemplate.class), linhas);
+
+        contexto.getBean(IndiceInvertido.class).reconstruir();
+        contexto.getBean(IndiceAutocompletar.class).reconstruir();
+        contexto.getBean(FiltroIdsExistentes.class).reconstruir();
+        return contexto;
+    }
+
+    private static void popular(JdbcTemplate jdbc, int linhas) {
+        jdbc.update("""
+                INSERT INTO livros (id, titulo, autor, ano, editora, disponivel, data_cadastro, versao,
+                                    total_emprestimos)
+                SELECT X,
+                       'Livro ' || X,
+                       'Autor ' || MOD(X, ?),
+                       1900 + MOD(X, 120),
+                       'Editora ' || MOD(X, 50),
+                       TRUE,
+                       CURRENT_TIMESTAMP,
+                       0,
+                       MOD(X * 7919, 1000)
+                FROM SYSTEM_RANGE(1, ?)
+                """, AUTORES, linhas);
+
+        // Otimizador "pooled" (allocationSize 50): o próximo bloco de ids começa
+        // em (valor da sequence - 49), então o valor precisa passar das linhas + 50
+        jdbc.execute("ALTER SEQUENCE livros_seq RESTART WITH " + (linhas + 100));
+    }
+}
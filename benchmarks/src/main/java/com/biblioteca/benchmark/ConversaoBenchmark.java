@@ -0,0 +1,45 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.model.Livro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão Entity → DTO (LivroResponse.fromEntity).
+ *
+ * Roda uma vez por livro em toda resposta que ainda parte da entidade
+ * (cadastrar, atualizar); as leituras usam projeção direto no DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConversaoBenchmark {
+
+    private Livro livro;
+
+    @Setup
+    public void preparar() {
+        livro = new Livro(1L, "Dom Casmurro", "Machado de Assis", 1899, "Companhia das Letras",
+                true, LocalDateTime.now(), 0L, 0L);
+    }
+
+    @Benchmark
+    public LivroResponse fromEntity() {
+        return LivroResponse.fromEntity(livro);
+    }
+}
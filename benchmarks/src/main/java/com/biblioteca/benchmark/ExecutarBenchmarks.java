@@ -0,0 +1,49 @@
+package com.biblioteca.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do benchmarks.jar.
+ *
+ * Igual ao org.openjdk.jmh.Main (aceita as mesmas opções), mas o
+ * resultado sai sempre em JSON, para comparar entre versões:
+ *
+ *   java -jar target/benchmarks.jar                         → target/jmh-result.json
+ *   java -jar target/benchmarks.jar Serializacao            → só um benchmark
+ *   java -jar target/benchmarks.jar -p linhas=10000         → só 10 mil linhas
+ *   java -jar target/benchmarks.jar -rff resultados/1.0.json → outro arquivo
+ *
+ * O JSON pode ser aberto em https://jmh.morethan.io para comparar duas execuções.
+ */
+public final class ExecutarBenchmarks {
+
+    private static final String ARQUIVO_PADRAO = "target/jmh-result.json";
+
+    private ExecutarBenchmarks() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+        if (linhaDeComando.shouldHelp()) {
+            linhaDeComando.showHelp();
+            return;
+        }
+        if (linhaDeComando.shouldList()) {
+            new Runner(linhaDeComando).list();
+            return;
+        }
+
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linhaDeComando);
+        if (!linhaDeComando.getResultFormat().hasValue()) {
+            opcoes.resultFormat(ResultFormatType.JSON);
+        }
+        if (!linhaDeComando.getResult().hasValue()) {
+            opcoes.result(ARQUIVO_PADRAO);
+        }
+
+        new Runner(opcoes.build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dto.LivroResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON x CBOR para listas de livros: tamanho do corpo e tempo para
+ * gerar (servidor) e ler (cliente).
+ *
+ * - codificarJson: ObjectWriter tipado, o caminho do Jackson na API
+ * - codificarCbor: o mesmo ObjectWriter tipado sobre um CBORMapper, como o
+ *   conversor de application/cbor da API (ver CborConfig)
+ * - decodificarJson: readValue(bytes, Object.class), estrutura genérica
+ * - decodificarCbor: CBORMapper.readValue(bytes, Object.class), a mesma estrutura
+ *
+ * Os tamanhos (com e sem gzip) são impressos no @Setup, uma vez por
+ * quantidade de livros. Títulos e autores com acentos, como no catálogo real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FormatoBinarioBenchmark {
+
+    @Param({"500", "10000"})
+    public int tamanho;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writerTipado;
+    private CBORMapper cborMapper;
+    private ObjectWriter cborWriterTipado;
+    private List<LivroResponse> livros;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writerTipado = objectMapper.writerFor(new TypeReference<List<LivroResponse>>() {});
+        cborMapper = CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborWriterTipado = cborMapper.writerFor(new TypeReference<List<LivroResponse>>() {});
+
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        livros = new ArrayList<>(tamanho);
+        for (long i = 1; i <= tamanho; i++) {
+            livros.add(new LivroResponse(i, "Memórias do Livro " + i, "Autor José " + (i % 1000),
+                    1900 + (int) (i % 120), "Editora " + (i % 50), i % 3 != 0, agora.minusMinutes(i), i % 7));
+        }
+
+        json = codificarJson();
+        cbor = codificarCbor();
+        if (!objectMapper.readValue(json, Object.class).equals(cborMapper.readValue(cbor, Object.class))) {
+            throw new IllegalStateException("JSON e CBOR com conteúdo diferente");
+        }
+        System.out.printf("%n%d livros: JSON %,d bytes (gzip %,d) | CBOR %,d bytes (gzip %,d) | CBOR = %.0f%% do JSON%n",
+                tamanho, json.length, gzip(json), cbor.length, gzip(cbor), 100.0 * cbor.length / json.length);
+    }
+
+    private static int gzip(byte[] dados) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream compactado = new GZIPOutputStream(saida)) {
+            compactado.write(dados);
+        }
+        return saida.size();
+    }
+
+    @Benchmark
+    public byte[] codificarJson() throws IOException {
+        return writerTipado.writeValueAsBytes(livros);
+    }
+
+    @Benchmark
+    public byte[] codificarCbor() throws IOException {
+        return cborWriterTipado.writeValueAsBytes(livros);
+    }
+
+    @Benchmark
+    public Object decodificarJson() throws IOException {
+        return objectMapper.readValue(json, Object.class);
+    }
+
+    @Benchmark
+    public Object decodificarCbor() throws IOException {
+        return cborMapper.readValue(cbor, Object.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dto.ImportacaoResponse;
+import com.biblioteca.dto.LivroRequest;
+import com.biblioteca.service.ImportacaoService;
+import com.biblioteca.service.LivroService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão da importação em massa (livros por segundo).
+ *
+ * Compara os dois jeitos de gravar os mesmos 1000 livros:
+ * - importarEmLote: ImportacaoService (INSERTs em lotes JDBC, um bloco por transação)
+ * - cadastrarLinhaALinha: LivroService.cadastrar() para cada livro
+ *   (uma transação e um INSERT por ida ao banco)
+ *
+ * @OperationsPerInvocation(LIVROS): o resultado sai em livros/s, não em
+ * chamadas/s. Os dois caminhos publicam os mesmos eventos (índice de busca,
+ * filtro de IDs, estatísticas), então a diferença é só a gravação.
+ *
+ * A tabela cresce durante a medição (a partir de 10 mil livros).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ImportacaoBenchmark.LIVROS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ImportacaoBenchmark {
+
+    static final int LIVROS = 1000;
+
+    private ConfigurableApplicationContext contexto;
+    private ImportacaoService importacaoService;
+    private LivroService livroService;
+
+    /** Os mesmos livros nos dois formatos: NDJSON para a importação, requests para o cadastrar() */
+    private byte[] ndjson;
+    private List<LivroRequest> requests;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(10_000);
+        importacaoService = contexto.getBean(ImportacaoService.class);
+        livroService = contexto.getBean(LivroService.class);
+
+        StringBuilder texto = new StringBuilder();
+        requests = new ArrayList<>(LIVROS);
+        for (int i = 0; i < LIVROS; i++) {
+            String autor = "Autor " + (i % ContextoBenchmark.AUTORES);
+            texto.append("{\"titulo\":\"Importado ").append(i)
+                 .append("\",\"autor\":\"").append(autor)
+                 .append("\",\"ano\":2024,\"editora\":\"Editora\"}\n");
+            requests.add(new LivroRequest("Importado " + i, autor, 2024, "Editora", true));
+        }
+        ndjson = texto.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ImportacaoResponse importarEmLote() throws IOException {
+        return importacaoService.importar("ndjson", new ByteArrayInputStream(ndjson));
+    }
+
+    @Benchmark
+    public void cadastrarLinhaALinha(Blackhole blackhole) {
+        for (LivroRequest request : requests) {
+            blackhole.consume(livroService.cadastrar(request));
+        }
+    }
+}
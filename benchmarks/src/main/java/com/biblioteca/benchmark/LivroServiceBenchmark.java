@@ -0,0 +1,155 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dto.LivroRequest;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.PaginaResponse;
+import com.biblioteca.dto.SugestaoResponse;
+import com.biblioteca.exception.ResourceNotFoundException;
+import com.biblioteca.repository.LivroRepository;
+import com.biblioteca.service.LivroService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras e escritas do LivroService contra o H2 com 10 mil, 100 mil e 1 milhão de livros.
+ *
+ * Cada quantidade de linhas roda em um fork (JVM) próprio, com a
+ * aplicação inteira de pé: proxies @Transactional, cache, índice de
+ * busca e eventos entram na medição, como numa requisição real
+ * (só falta o HTTP e o JSON; ver SerializacaoBenchmark).
+ *
+ * IDs sorteados entre todos os livros: com 1 milhão de linhas quase
+ * todo buscarPorId é falha de cache; repositoryBuscarPorId mede só a
+ * consulta ao banco, sem cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LivroServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private LivroService service;
+    private LivroRepository repository;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(linhas);
+        service = contexto.getBean(LivroService.class);
+        repository = contexto.getBean(LivroRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, linhas + 1);
+    }
+
+    // ===== Leituras =====
+
+    @Benchmark
+    public LivroResponse buscarPorId() {
+        return service.buscarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public Object repositoryBuscarPorId() {
+        return repository.buscarResponsePorId(idAleatorio());
+    }
+
+    /**
+     * ID que não existe: o filtro de IDs responde sem ir ao banco.
+     */
+    @Benchmark
+    public Object buscarPorIdInexistente() {
+        try {
+            return service.buscarPorId(Integer.MAX_VALUE - idAleatorio());
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public PaginaResponse<LivroResponse> primeiraPagina() {
+        return service.listarPaginado(null, 20, "titulo", "asc");
+    }
+
+    @Benchmark
+    public List<LivroResponse> buscarPorAutor() {
+        return service.buscarPorAutor("Autor " + ThreadLocalRandom.current().nextInt(ContextoBenchmark.AUTORES));
+    }
+
+    @Benchmark
+    public List<LivroResponse> buscaTextual() {
+        return service.buscar("livro " + idAleatorio(), 20);
+    }
+
+    /**
+     * Pior caso do autocompletar: todos os títulos começam com "livro",
+     * então o prefixo casa com a tabela inteira.
+     */
+    @Benchmark
+    public List<SugestaoResponse> autocompletarPrefixoComum() {
+        return service.autocompletar("liv", 10);
+    }
+
+    /**
+     * Caso típico: o usuário já digitou boa parte do título.
+     */
+    @Benchmark
+    public List<SugestaoResponse> autocompletarPrefixoLongo() {
+        return service.autocompletar("livro " + ThreadLocalRandom.current().nextInt(1, 100), 10);
+    }
+
+    // ===== Escritas =====
+
+    /**
+     * Empresta e devolve o mesmo livro: a tabela volta ao estado inicial
+     * a cada chamada, então as iterações são comparáveis entre si.
+     */
+    @Benchmark
+    public LivroResponse emprestarEDevolver() {
+        long id = idAleatorio();
+        service.emprestar(id);
+        return service.devolver(id);
+    }
+
+    @Benchmark
+    public LivroResponse atualizar() {
+        long id = idAleatorio();
+        return service.atualizar(id, new LivroRequest(
+                "Livro " + id, "Autor " + (id % ContextoBenchmark.AUTORES), 2000, "Editora atualizada", true));
+    }
+
+    /**
+     * Cada chamada insere um livro novo (a tabela cresce durante a medição).
+     */
+    @Benchmark
+    public LivroResponse cadastrar() {
+        return service.cadastrar(new LivroRequest("Livro de benchmark", "Autor benchmark", 2024, "Editora", true));
+    }
+}
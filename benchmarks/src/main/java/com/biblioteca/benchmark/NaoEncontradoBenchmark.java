@@ -0,0 +1,74 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.exception.GlobalExceptionHandler;
+import com.biblioteca.exception.GlobalExceptionHandler.ErrorResponse;
+import com.biblioteca.exception.ResourceNotFoundException;
+import com.biblioteca.service.LivroService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho do 404: livro inexistente → ResourceNotFoundException → GlobalExceptionHandler.
+ *
+ * - criarExcecaoETratar: só a exceção (com o stack trace) e o handler
+ * - servicoETratar: buscarPorId de um ID que não existe, passando pelo
+ *   proxy @Transactional e pela consulta ao banco, como na requisição real
+ *
+ * IDs inexistentes são comuns (links antigos, robôs), então esse
+ * caminho precisa ser barato também.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NaoEncontradoBenchmark {
+
+    private static final long ID_INEXISTENTE = -1L;
+
+    private ConfigurableApplicationContext contexto;
+    private LivroService service;
+    private GlobalExceptionHandler handler;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(10_000);
+        service = contexto.getBean(LivroService.class);
+        handler = contexto.getBean(GlobalExceptionHandler.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> criarExcecaoETratar() {
+        return handler.handleResourceNotFound(new ResourceNotFoundException("Livro", "id", ID_INEXISTENTE));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> servicoETratar() {
+        try {
+            service.buscarPorId(ID_INEXISTENTE);
+            throw new IllegalStateException("O livro " + ID_INEXISTENTE + " não deveria existir");
+        } catch (ResourceNotFoundException e) {
+            return handler.handleResourceNotFound(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.model.Livro;
+import com.biblioteca.repository.LivroRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura como entidade + fromEntity() × projeção direto no LivroResponse.
+ *
+ * As mesmas consultas (mesmo WHERE, mesmo ORDER BY, mesma transação
+ * readOnly); muda só o SELECT:
+ * - entidades*: SELECT l FROM Livro l ... e LivroResponse.fromEntity() em cada uma
+ *   (entidade no persistence context + cópia para o dirty checking + DTO)
+ * - projecao*:  LivroRepository.PROJECAO_RESPONSE (o DTO sai direto da linha)
+ *
+ * Alocação por chamada: rodar com o profiler de GC do JMH
+ *   java -jar target/benchmarks.jar Projecao -prof gc
+ * (coluna gc.alloc.rate.norm, em bytes por operação)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProjecaoBenchmark {
+
+    /** Livros por chamada na listagem (uma página grande) */
+    private static final int PAGINA = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private EntityManager entityManager;
+    private TransactionTemplate leitura;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(linhas);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                contexto.getBean(EntityManagerFactory.class));
+        leitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        leitura.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private String autorAleatorio() {
+        return "Autor " + ThreadLocalRandom.current().nextInt(ContextoBenchmark.AUTORES);
+    }
+
+    // ===== Por autor (linhas / 1000 livros por chamada) =====
+
+    @Benchmark
+    public List<LivroResponse> entidadesPorAutor() {
+        String autor = autorAleatorio();
+        return leitura.execute(status -> entityManager
+                .createQuery("SELECT l FROM Livro l WHERE l.autor = :autor ORDER BY l.id", Livro.class)
+                .setParameter("autor", autor)
+                .getResultStream()
+                .map(LivroResponse::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public List<LivroResponse> projecaoPorAutor() {
+        String autor = autorAleatorio();
+        return leitura.execute(status -> entityManager
+                .createQuery(LivroRepository.PROJECAO_RESPONSE + "WHERE l.autor = :autor ORDER BY l.id",
+                        LivroResponse.class)
+                .setParameter("autor", autor)
+                .getResultList());
+    }
+
+    // ===== Página de 1000 livros =====
+
+    @Benchmark
+    public List<LivroResponse> entidadesPagina() {
+        return leitura.execute(status -> entityManager
+                .createQuery("SELECT l FROM Livro l ORDER BY l.id", Livro.class)
+                .setMaxResults(PAGINA)
+                .getResultStream()
+                .map(LivroResponse::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public List<LivroResponse> projecaoPagina() {
+        return leitura.execute(status -> entityManager
+                .createQuery(LivroRepository.PROJECAO_RESPONSE + "ORDER BY l.id", LivroResponse.class)
+                .setMaxResults(PAGINA)
+                .getResultList());
+    }
+}
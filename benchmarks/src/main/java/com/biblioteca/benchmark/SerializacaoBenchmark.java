@@ -0,0 +1,96 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.cache.LivroJsonCache;
+import com.biblioteca.dto.LivroResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização de List<LivroResponse> para JSON, como nas respostas de listagem.
+ *
+ * O ObjectMapper é montado pelo Jackson2ObjectMapperBuilder, o mesmo
+ * caminho que o Spring Boot usa, com datas em texto ISO-8601 como na API.
+ *
+ * - serializarLista: writeValueAsBytes(lista), como faz o conversor HTTP
+ * - serializarComWriterTipado: ObjectWriter criado uma vez para o tipo da lista
+ * - concatenarFragmentos: LivroJsonCache com todos os livros já no cache,
+ *   como nas listagens da API (o caso comum: o catálogo muda pouco)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializacaoBenchmark {
+
+    @Param({"1", "20", "500", "10000"})
+    public int tamanho;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writerTipado;
+    private List<LivroResponse> livros;
+    private LivroJsonCache jsonCache;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writerTipado = objectMapper.writerFor(new TypeReference<List<LivroResponse>>() {});
+
+        LocalDateTime agora = LocalDateTime.now();
+        livros = new ArrayList<>(tamanho);
+        for (long i = 1; i <= tamanho; i++) {
+            livros.add(new LivroResponse(i, "Livro " + i, "Autor " + (i % 1000), 1900 + (int) (i % 120),
+                    "Editora " + (i % 50), i % 3 != 0, agora, 0L));
+        }
+
+        jsonCache = new LivroJsonCache(objectMapper, Math.max(tamanho, 1), Duration.ofHours(1));
+        try {
+            jsonCache.escreverLista(livros, new ByteArrayOutputStream());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(livros);
+    }
+
+    @Benchmark
+    public byte[] serializarComWriterTipado() throws JsonProcessingException {
+        return writerTipado.writeValueAsBytes(livros);
+    }
+
+    @Benchmark
+    public byte[] concatenarFragmentos() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        jsonCache.escreverLista(livros, saida);
+        return saida.toByteArray();
+    }
+}
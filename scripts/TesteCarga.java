@@ -0,0 +1,180 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga da API de livros (sem dependências, Java 17+).
+ *
+ * Simula o balcão de empréstimos: N clientes ao mesmo tempo, cada um
+ * repetindo uma mistura de leituras e empréstimos/devoluções durante
+ * um tempo fixo. No fim mostra vazão (req/s) e latências p50/p90/p99.
+ *
+ * Uso (com a aplicação rodando):
+ *
+ *   java scripts/TesteCarga.java [url] [clientes] [segundos] [livros]
+ *   java scripts/TesteCarga.java http://localhost:8080 400 30 1000
+ *
+ * Para comparar os modos, rode o mesmo comando contra:
+ *   1. java -jar biblioteca-api.jar                                  (plataforma)
+ *   2. java -jar biblioteca-api.jar --spring.profiles.active=virtual (Java 21+)
+ *
+ * O teste cadastra os livros que faltarem (até o número pedido) antes
+ * de medir. Respostas 409 (livro já emprestado) e 503 (bulkhead cheio)
+ * são esperadas sob carga e aparecem separadas na contagem de status.
+ */
+public class TesteCarga {
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int livros = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        List<Long> ids = prepararLivros(url, livros);
+        System.out.printf("Carga: %d clientes, %ds, %d livros, %s%n", clientes, segundos, ids.size(), url);
+
+        // Aquecimento (JIT, caches, pool de conexões) fora da medição
+        executar(url, ids, clientes, Math.min(5, segundos), new Resultado());
+
+        Resultado resultado = new Resultado();
+        long inicio = System.nanoTime();
+        executar(url, ids, clientes, segundos, resultado);
+        double decorrido = (System.nanoTime() - inicio) / 1e9;
+
+        resultado.imprimir(decorrido);
+    }
+
+    private static void executar(String url, List<Long> ids, int clientes, int segundos,
+                                 Resultado resultado) throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        ExecutorService pool = Executors.newFixedThreadPool(clientes);
+        for (int i = 0; i < clientes; i++) {
+            pool.execute(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (System.nanoTime() < fim) {
+                    Long id = ids.get(aleatorio.nextInt(ids.size()));
+                    HttpRequest requisicao = sortearRequisicao(url, id, aleatorio.nextInt(100));
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = HTTP.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    resultado.registrar(status, System.nanoTime() - t0);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(segundos + 60L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 70% buscar por ID, 10% disponíveis (uma página), 10% emprestar, 10% devolver.
+     */
+    private static HttpRequest sortearRequisicao(String url, Long id, int sorteio) {
+        HttpRequest.Builder b = HttpRequest.newBuilder().timeout(Duration.ofSeconds(60));
+        if (sorteio < 70) {
+            return b.uri(URI.create(url + "/api/livros/" + id)).GET().build();
+        }
+        if (sorteio < 80) {
+            return b.uri(URI.create(url + "/api/livros/pagina?tamanho=20")).GET().build();
+        }
+        String acao = sorteio < 90 ? "emprestar" : "devolver";
+        return b.uri(URI.create(url + "/api/livros/" + id + "/" + acao))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static List<Long> prepararLivros(String url, int quantidade) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String lista = HTTP.send(HttpRequest.newBuilder(URI.create(url + "/api/livros")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        // Extração simples dos ids sem biblioteca de JSON: "id":123
+        for (String parte : lista.split("\"id\":")) {
+            int fim = 0;
+            while (fim < parte.length() && Character.isDigit(parte.charAt(fim))) {
+                fim++;
+            }
+            if (fim > 0) {
+                ids.add(Long.parseLong(parte.substring(0, fim)));
+            }
+        }
+        if (ids.size() < quantidade) {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = ids.size(); i < quantidade; i++) {
+                ndjson.append("{\"titulo\":\"Livro de carga ").append(i)
+                      .append("\",\"autor\":\"Autor ").append(i % 50)
+                      .append("\",\"ano\":").append(1900 + i % 120)
+                      .append(",\"editora\":\"Carga\"}\n");
+            }
+            HttpResponse<String> r = HTTP.send(HttpRequest.newBuilder(URI.create(url + "/api/livros/importar?formato=ndjson"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (r.statusCode() != 200) {
+                throw new IllegalStateException("Falha ao cadastrar livros de carga: " + r.body());
+            }
+            return prepararLivros(url, 0);
+        }
+        return quantidade > 0 ? ids.subList(0, quantidade) : ids;
+    }
+
+    /**
+     * Latências em um histograma de buckets de 0,1ms (até 60s), sem guardar cada amostra.
+     */
+    private static class Resultado {
+        private static final long BUCKET_NANOS = 100_000;
+        private final LongAdder[] buckets = new LongAdder[600_001];
+        private final Map<Integer, LongAdder> status = new ConcurrentHashMap<>();
+        private final LongAdder total = new LongAdder();
+
+        Resultado() {
+            Arrays.setAll(buckets, i -> new LongAdder());
+        }
+
+        void registrar(int codigo, long nanos) {
+            buckets[(int) Math.min(nanos / BUCKET_NANOS, buckets.length - 1)].increment();
+            status.computeIfAbsent(codigo, c -> new LongAdder()).increment();
+            total.increment();
+        }
+
+        double percentil(double p) {
+            long alvo = (long) Math.ceil(total.sum() * p);
+            long acumulado = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                acumulado += buckets[i].sum();
+                if (acumulado >= alvo) {
+                    return (i + 1) * BUCKET_NANOS / 1e6;
+                }
+            }
+            return Double.NaN;
+        }
+
+        void imprimir(double segundos) {
+            Map<Integer, Long> porStatus = new TreeMap<>();
+            status.forEach((c, n) -> porStatus.put(c, n.sum()));
+            System.out.printf("Requisições: %d em %.1fs → %.0f req/s%n", total.sum(), segundos, total.sum() / segundos);
+            System.out.printf("Latência (ms): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f%n",
+                    percentil(0.50), percentil(0.90), percentil(0.99), percentil(0.999));
+            System.out.println("Status: " + porStatus + " (-1 = erro de conexão/timeout)");
+        }
+    }
+}
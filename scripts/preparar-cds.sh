@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# Prepara a subida rápida com CDS (Class Data Sharing) a partir do JAR da aplicação.
+#
+# O CDS guarda num arquivo (.jsa) as classes já lidas, verificadas e
+# preparadas pela JVM. Nas próximas subidas a JVM mapeia esse arquivo em vez
+# de ler e verificar milhares de classes de novo (Spring, Hibernate, Tomcat...).
+#
+# O CDS não lê classes de dentro do JAR executável do Spring Boot (JARs
+# aninhados em BOOT-INF/lib). Por isso o script:
+#   1. Extrai o JAR: biblioteca-api.jar (classes da aplicação) + lib/ (dependências)
+#   2. Faz uma subida de treino que para logo depois de montar o contexto
+#      (spring.context.exit=onRefresh, sem abrir a porta HTTP) e grava o .jsa
+#
+# Uso:
+#   mvn clean package -Paot                    (ou sem -Paot, só CDS)
+#   scripts/preparar-cds.sh [jar] [destino]
+#   java -XX:SharedArchiveFile=target/cds/biblioteca-api.jsa -Dspring.aot.enabled=true \
+#        -jar target/cds/biblioteca-api.jar --spring.profiles.active=producao
+#
+# Perfis da subida de treino: PERFIS=producao (padrão). O banco do treino é
+# temporário; o de produção não é tocado.
+#
+# Regere o .jsa sempre que o JAR ou a versão do Java mudarem: com um arquivo
+# de outra versão a JVM só avisa e sobe sem CDS (devagar, mas funciona).
+
+set -euo pipefail
+
+JAR="${1:-target/biblioteca-api-1.0.0.jar}"
+DESTINO="${2:-target/cds}"
+PERFIS="${PERFIS:-producao}"
+
+if [[ ! -f "$JAR" ]]; then
+    echo "JAR não encontrado: $JAR (rode mvn clean package antes)" >&2
+    exit 1
+fi
+JAR="$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")"
+
+TEMP="$(mktemp -d)"
+trap 'rm -rf "$TEMP"' EXIT
+
+rm -rf "$DESTINO"
+mkdir -p "$DESTINO/lib"
+(cd "$TEMP" && jar -xf "$JAR")
+
+# Dependências na mesma ordem do JAR executável (BOOT-INF/classpath.idx)
+CLASSPATH_JAR=()
+while IFS= read -r linha; do
+    dependencia="${linha#- \"BOOT-INF/lib/}"
+    dependencia="${dependencia%\"}"
+    cp "$TEMP/BOOT-INF/lib/$dependencia" "$DESTINO/lib/"
+    CLASSPATH_JAR+=("lib/$dependencia")
+done < "$TEMP/BOOT-INF/classpath.idx"
+
+# Classes da aplicação num JAR comum, com as dependências no Class-Path do
+# manifesto: "java -jar" funciona e o classpath é sempre o mesmo (o CDS exige)
+{
+    echo "Main-Class: $(sed -n 's/^Start-Class: *//p' "$TEMP/META-INF/MANIFEST.MF" | tr -d '\r')"
+    echo "Class-Path: ${CLASSPATH_JAR[0]}"
+    for dependencia in "${CLASSPATH_JAR[@]:1}"; do
+        echo "  $dependencia"
+    done
+} > "$TEMP/MANIFEST.MF"
+jar --create --file "$DESTINO/biblioteca-api.jar" --manifest "$TEMP/MANIFEST.MF" -C "$TEMP/BOOT-INF/classes" .
+
+# JAR gerado com -Paot: o treino também usa o código gerado no build
+OPCOES_AOT=()
+if [[ -n "$(find "$TEMP/BOOT-INF/classes" -name '*__ApplicationContextInitializer.class' -print -quit)" ]]; then
+    OPCOES_AOT=(-Dspring.aot.enabled=true)
+fi
+
+echo "Subida de treino (perfis: $PERFIS${OPCOES_AOT:+, AOT})..."
+java -XX:ArchiveClassesAtExit="$DESTINO/biblioteca-api.jsa" \
+     -Dspring.context.exit=onRefresh \
+     "${OPCOES_AOT[@]}" \
+     -jar "$DESTINO/biblioteca-api.jar" \
+     --spring.profiles.active="$PERFIS" \
+     --biblioteca.dados.diretorio="$TEMP/dados" \
+     --biblioteca.backup.diretorio="$TEMP/dados/backups" \
+     > "$DESTINO/treino.log" 2>&1 || {
+    echo "Falha na subida de treino, veja $DESTINO/treino.log" >&2
+    exit 1
+}
+
+echo
+echo "Pronto: $DESTINO/biblioteca-api.jsa ($(du -h "$DESTINO/biblioteca-api.jsa" | cut -f1))"
+echo "Para subir:"
+echo "  java -XX:SharedArchiveFile=$DESTINO/biblioteca-api.jsa ${OPCOES_AOT[*]:+${OPCOES_AOT[*]} }-jar $DESTINO/biblioteca-api.jar --spring.profiles.active=$PERFIS"
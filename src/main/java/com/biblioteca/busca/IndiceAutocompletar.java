@@ -0,0 +1,713 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.SugestaoResponse;
+import com.biblioteca.dto.SugestaoResponse.Tipo;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.repository.LivroRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice de prefixos em memória para o autocompletar (títulos e autores).
+ *
+ * Cada título/autor distinto vira uma "entrada", com a popularidade
+ * (soma dos empréstimos dos seus livros). A entrada pode ser encontrada
+ * pelo começo de qualquer palavra que não seja stopword:
+ *   "Dom Casmurro" → chaves "dom casmurro" e "casmurro"
+ *
+ * Estrutura (compacta: sem um objeto por letra, como numa trie comum):
+ * - Base: as chaves ordenadas em dois arrays (entrada, posição do início).
+ *   Todas as chaves com o prefixo digitado ficam num intervalo contínuo,
+ *   achado com duas buscas binárias
+ * - Árvore de segmentos sobre a base: para qualquer intervalo, diz em
+ *   O(log n) qual chave tem a maior popularidade. As N melhores saem
+ *   dividindo o intervalo em volta da melhor, com um heap
+ * - Novas: entradas criadas depois da última montagem da base, num
+ *   TreeMap pequeno. Quando crescem demais, a base é remontada em
+ *   segundo plano (a ordenação roda fora do lock)
+ *
+ * Custo por tecla: O(log n + N log N), independente de quantos livros
+ * começam com o prefixo.
+ *
+ * Mantido pelos eventos do LivroService (só depois do commit):
+ * cadastro, renomeação e remoção mudam as entradas; empréstimo soma 1
+ * na popularidade. Reconstruído a partir do banco na inicialização
+ * (ver ReconstrucaoInicial).
+ */
+@Slf4j
+@Component
+public class IndiceAutocompletar {
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Mínimo de entradas novas antes de remontar a base
+     * (ou 1/8 da base, o que for maior).
+     */
+    private static final int NOVAS_PARA_REMONTAR = 4096;
+
+    /**
+     * Um título ou autor distinto (já normalizado).
+     */
+    private static final class Entrada {
+        final Tipo tipo;
+        final String texto;
+        final String normalizado;
+        long popularidade;
+        int livros;
+        /** Posições das chaves desta entrada na base (null: só nas novas). */
+        int[] posicoes;
+
+        Entrada(Tipo tipo, String texto, String normalizado) {
+            this.tipo = tipo;
+            this.texto = texto;
+            this.normalizado = normalizado;
+        }
+
+        boolean viva() {
+            return livros > 0;
+        }
+    }
+
+    /**
+     * O que o índice sabe de cada livro (para renomear, remover e emprestar).
+     */
+    private static final class LivroIndexado {
+        Entrada titulo;
+        Entrada autor;
+        long emprestimos;
+    }
+
+    private final Map<Tipo, Map<String, Entrada>> entradas = new EnumMap<>(Tipo.class);
+    private final Map<Long, LivroIndexado> livros = new HashMap<>();
+
+    /**
+     * Base: chave i = chaveEntrada[i].normalizado a partir de chaveInicio[i].
+     */
+    private Entrada[] chaveEntrada = new Entrada[0];
+    private int[] chaveInicio = new int[0];
+
+    /**
+     * Árvore de segmentos: nó → posição da chave mais popular do trecho (-1 = nenhuma).
+     * Folhas em [folhas, 2 * folhas).
+     */
+    private int[] arvore = {-1, -1};
+    private int folhas = 1;
+
+    /**
+     * Chaves das entradas criadas depois da última montagem da base.
+     */
+    private final TreeMap<String, List<Entrada>> novas = new TreeMap<>();
+    private int quantidadeNovas;
+    private boolean remontando;
+
+    /**
+     * Livros alterados enquanto a reconstrução está lendo o banco.
+     */
+    private Set<Long> alteradosDuranteReconstrucao;
+
+    /**
+     * Dos alterados, os que o evento indexou antes de a reconstrução ler a
+     * linha deles: entraram com popularidade 0 e recebem a do banco quando
+     * a linha chegar.
+     */
+    private Set<Long> semPopularidadeDuranteReconstrucao;
+
+    private volatile boolean pronto;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LivroRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+
+    public IndiceAutocompletar(LivroRepository repository, PlatformTransactionManager transactionManager,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor executor) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+        for (Tipo tipo : Tipo.values()) {
+            entradas.put(tipo, new HashMap<>());
+        }
+    }
+
+    /**
+     * Reconstrói o índice lendo todos os livros do banco.
+     *
+     * Chamado pela ReconstrucaoInicial, em segundo plano, quando a aplicação termina de subir.
+     * Enquanto não termina, sugerir() devolve Optional.empty().
+     */
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pronto = false;
+            alteradosDuranteReconstrucao = new HashSet<>();
+            semPopularidadeDuranteReconstrucao = new HashSet<>();
+            livros.clear();
+            entradas.values().forEach(Map::clear);
+            novas.clear();
+            quantidadeNovas = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> linhas = repository.streamParaAutocompletar()) {
+                linhas.forEach(linha -> {
+                    Long id = (Long) linha[0];
+                    lock.writeLock().lock();
+                    try {
+                        if (!alteradosDuranteReconstrucao.contains(id)) {
+                            adicionar(id, (String) linha[1], (String) linha[2], (Long) linha[3]);
+                        } else if (semPopularidadeDuranteReconstrucao.remove(id)) {
+                            completarPopularidade(id, (Long) linha[3]);
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+
+        // Daqui em diante, entradas criadas por eventos vão para as novas
+        lock.writeLock().lock();
+        try {
+            alteradosDuranteReconstrucao = null;
+            semPopularidadeDuranteReconstrucao = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Tudo o que foi lido vai direto para a base
+        Montagem montagem = montar(entradasVivas());
+
+        lock.writeLock().lock();
+        try {
+            aplicar(montagem);
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice do autocompletar reconstruído: {} livros, {} chaves em {} ms",
+                livros.size(), chaveEntrada.length, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Mantém o índice igual ao banco depois de cada escrita confirmada.
+     *
+     * Cadastro ou alteração durante a reconstrução marca o livro: a linha
+     * lida do banco depois disso não sobrescreve título e autor, só completa
+     * a popularidade se o livro ainda não tinha sido lido. Empréstimos não
+     * marcam: no pior caso a popularidade fica 1 abaixo, até o próximo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            switch (evento.tipo()) {
+                case CRIADO, ATUALIZADO -> {
+                    marcarAlterado(evento.id());
+                    LivroResponse livro = evento.livro();
+                    LivroIndexado anterior = livros.get(evento.id());
+                    long emprestimos = anterior != null ? anterior.emprestimos : 0;
+                    if (anterior == null && alteradosDuranteReconstrucao != null) {
+                        semPopularidadeDuranteReconstrucao.add(evento.id());
+                    }
+                    remover(evento.id());
+                    adicionar(livro.getId(), livro.getTitulo(), livro.getAutor(), emprestimos);
+                }
+                case REMOVIDO -> {
+                    marcarAlterado(evento.id());
+                    if (semPopularidadeDuranteReconstrucao != null) {
+                        semPopularidadeDuranteReconstrucao.remove(evento.id());
+                    }
+                    remover(evento.id());
+                }
+                case EMPRESTADO -> {
+                    LivroIndexado livro = livros.get(evento.id());
+                    if (livro != null) {
+                        livro.emprestimos++;
+                        alterarPopularidade(livro.titulo, 1);
+                        alterarPopularidade(livro.autor, 1);
+                    }
+                }
+                default -> {
+                    // Devolução não muda a popularidade
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        remontarSeNecessario();
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * As sugestões mais populares que começam com o texto digitado.
+     *
+     * O texto casa com o começo do título/autor ou de qualquer palavra dele
+     * ("casm" → "Dom Casmurro"), ignorando acentos e maiúsculas.
+     * Empate na popularidade: ordem alfabética.
+     *
+     * @return sugestões, ou Optional.empty() enquanto o índice reconstrói
+     */
+    public Optional<List<SugestaoResponse>> sugerir(String prefixo, int limite) {
+        if (!pronto) {
+            return Optional.empty();
+        }
+        String chave = normalizarPrefixo(prefixo);
+        if (chave.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Entrada> candidatas = melhoresDaBase(chave, limite);
+            for (List<Entrada> lista : novas.subMap(chave, true, chave + Character.MAX_VALUE, false).values()) {
+                for (Entrada entrada : lista) {
+                    if (entrada.viva() && !candidatas.contains(entrada)) {
+                        candidatas.add(entrada);
+                    }
+                }
+            }
+
+            return Optional.of(candidatas.stream()
+                    .sorted(Comparator.comparingLong((Entrada e) -> e.popularidade).reversed()
+                            .thenComparing(e -> e.normalizado))
+                    .limit(limite)
+                    .map(e -> new SugestaoResponse(e.texto, e.tipo, e.popularidade, e.livros))
+                    .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * As "limite" entradas mais populares da base com chave começando pelo prefixo.
+     *
+     * Heap de trechos [inicio, fim) ordenado pela melhor chave de cada um:
+     * tira o melhor trecho, usa a chave e devolve ao heap as duas metades
+     * em volta dela. Uma entrada com duas chaves no intervalo aparece uma vez só.
+     */
+    private List<Entrada> melhoresDaBase(String prefixo, int limite) {
+        List<Entrada> resultado = new ArrayList<>();
+        int inicio = primeiraChave(prefixo, false);
+        int fim = primeiraChave(prefixo, true);
+        if (inicio >= fim) {
+            return resultado;
+        }
+
+        Set<Entrada> vistas = Collections.newSetFromMap(new IdentityHashMap<>());
+        PriorityQueue<int[]> trechos = new PriorityQueue<>((a, b) -> comparar(a[2], b[2]));
+        adicionarTrecho(trechos, inicio, fim);
+
+        while (!trechos.isEmpty() && resultado.size() < limite) {
+            int[] trecho = trechos.poll();
+            int melhor = trecho[2];
+            Entrada entrada = chaveEntrada[melhor];
+            if (!entrada.viva()) {
+                break;  // O melhor trecho só tem entradas removidas
+            }
+            if (vistas.add(entrada)) {
+                resultado.add(entrada);
+            }
+            adicionarTrecho(trechos, trecho[0], melhor);
+            adicionarTrecho(trechos, melhor + 1, trecho[1]);
+        }
+        return resultado;
+    }
+
+    private void adicionarTrecho(PriorityQueue<int[]> trechos, int inicio, int fim) {
+        if (inicio < fim) {
+            trechos.add(new int[] {inicio, fim, maisPopular(inicio, fim)});
+        }
+    }
+
+    /**
+     * Posição da chave mais popular em [inicio, fim), pela árvore de segmentos.
+     */
+    private int maisPopular(int inicio, int fim) {
+        int melhor = -1;
+        for (int esquerda = inicio + folhas, direita = fim + folhas; esquerda < direita;
+             esquerda >>= 1, direita >>= 1) {
+            if ((esquerda & 1) == 1) {
+                melhor = melhorEntre(melhor, arvore[esquerda++]);
+            }
+            if ((direita & 1) == 1) {
+                melhor = melhorEntre(melhor, arvore[--direita]);
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Negativo se a chave a vem antes de b no ranking (mais popular; empate: menor posição).
+     */
+    private int comparar(int a, int b) {
+        int porPopularidade = Long.compare(pontuacao(b), pontuacao(a));
+        return porPopularidade != 0 ? porPopularidade : Integer.compare(a, b);
+    }
+
+    private int melhorEntre(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return comparar(a, b) <= 0 ? a : b;
+    }
+
+    private long pontuacao(int posicao) {
+        Entrada entrada = chaveEntrada[posicao];
+        return entrada.viva() ? entrada.popularidade : -1;
+    }
+
+    /**
+     * Primeira chave da base >= prefixo (depois = false)
+     * ou a primeira depois de todas as que começam com ele (depois = true).
+     */
+    private int primeiraChave(String prefixo, boolean depois) {
+        int baixo = 0;
+        int alto = chaveEntrada.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            int comparacao = compararComPrefixo(meio, prefixo);
+            if (comparacao < 0 || (depois && comparacao == 0)) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Compara a chave com o prefixo só até o tamanho do prefixo
+     * (0 = a chave começa com o prefixo), sem criar Strings.
+     */
+    private int compararComPrefixo(int posicao, String prefixo) {
+        String texto = chaveEntrada[posicao].normalizado;
+        int inicio = chaveInicio[posicao];
+        int tamanho = Math.min(texto.length() - inicio, prefixo.length());
+        for (int i = 0; i < tamanho; i++) {
+            int diferenca = texto.charAt(inicio + i) - prefixo.charAt(i);
+            if (diferenca != 0) {
+                return diferenca;
+            }
+        }
+        return texto.length() - inicio < prefixo.length() ? -1 : 0;
+    }
+
+    /**
+     * Adiciona um livro às entradas do título e do autor. Chamar com o write lock.
+     */
+    private void adicionar(Long id, String titulo, String autor, long emprestimos) {
+        LivroIndexado livro = new LivroIndexado();
+        livro.emprestimos = emprestimos;
+        livro.titulo = entrada(Tipo.TITULO, titulo);
+        livro.autor = entrada(Tipo.AUTOR, autor);
+        for (Entrada entrada : List.of(livro.titulo, livro.autor)) {
+            entrada.livros++;
+            entrada.popularidade += emprestimos;
+            atualizarArvore(entrada);
+        }
+        livros.put(id, livro);
+    }
+
+    /**
+     * Tira o livro das entradas; entrada sem livros sai do índice. Chamar com o write lock.
+     */
+    private void remover(Long id) {
+        LivroIndexado livro = livros.remove(id);
+        if (livro == null) {
+            return;
+        }
+        for (Entrada entrada : List.of(livro.titulo, livro.autor)) {
+            entrada.livros--;
+            entrada.popularidade -= livro.emprestimos;
+            if (!entrada.viva()) {
+                entradas.get(entrada.tipo).remove(entrada.normalizado);
+                if (entrada.posicoes == null) {
+                    removerDasNovas(entrada);
+                }
+            }
+            atualizarArvore(entrada);
+        }
+    }
+
+    /**
+     * Popularidade lida do banco para um livro que o evento indexou com 0.
+     * Empréstimos contados pelos eventos desde então podem já estar na
+     * linha: fica o maior dos dois. Chamar com o write lock.
+     */
+    private void completarPopularidade(Long id, long emprestimosBanco) {
+        LivroIndexado livro = livros.get(id);
+        if (livro == null || emprestimosBanco <= livro.emprestimos) {
+            return;
+        }
+        long diferenca = emprestimosBanco - livro.emprestimos;
+        livro.emprestimos = emprestimosBanco;
+        alterarPopularidade(livro.titulo, diferenca);
+        alterarPopularidade(livro.autor, diferenca);
+    }
+
+    private void alterarPopularidade(Entrada entrada, long diferenca) {
+        entrada.popularidade += diferenca;
+        atualizarArvore(entrada);
+    }
+
+    /**
+     * Entrada do título/autor, criada (nas novas) se ainda não existir.
+     */
+    private Entrada entrada(Tipo tipo, String texto) {
+        String normalizado = normalizarTexto(texto);
+        Entrada entrada = entradas.get(tipo).get(normalizado);
+        if (entrada == null) {
+            entrada = new Entrada(tipo, texto, normalizado);
+            entradas.get(tipo).put(normalizado, entrada);
+            // Na reconstrução tudo vai para a base de uma vez
+            if (alteradosDuranteReconstrucao == null) {
+                for (int inicio : iniciosDasPalavras(normalizado)) {
+                    novas.computeIfAbsent(normalizado.substring(inicio), c -> new ArrayList<>(1)).add(entrada);
+                    quantidadeNovas++;
+                }
+            }
+        }
+        return entrada;
+    }
+
+    private void removerDasNovas(Entrada entrada) {
+        for (int inicio : iniciosDasPalavras(entrada.normalizado)) {
+            String chave = entrada.normalizado.substring(inicio);
+            List<Entrada> lista = novas.get(chave);
+            if (lista != null && lista.remove(entrada)) {
+                quantidadeNovas--;
+                if (lista.isEmpty()) {
+                    novas.remove(chave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recalcula o caminho das folhas da entrada até a raiz. Chamar com o write lock.
+     */
+    private void atualizarArvore(Entrada entrada) {
+        if (entrada.posicoes == null) {
+            return;
+        }
+        for (int posicao : entrada.posicoes) {
+            for (int no = (posicao + folhas) >> 1; no >= 1; no >>= 1) {
+                arvore[no] = melhorEntre(arvore[2 * no], arvore[2 * no + 1]);
+            }
+        }
+    }
+
+    private void marcarAlterado(Long id) {
+        if (alteradosDuranteReconstrucao != null) {
+            alteradosDuranteReconstrucao.add(id);
+        }
+    }
+
+    /**
+     * Muitas entradas novas: remonta a base em segundo plano.
+     */
+    private void remontarSeNecessario() {
+        lock.writeLock().lock();
+        try {
+            if (!pronto || remontando
+                    || quantidadeNovas < Math.max(NOVAS_PARA_REMONTAR, chaveEntrada.length / 8)) {
+                return;
+            }
+            remontando = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        executor.execute(this::remontar);
+    }
+
+    private void remontar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            Montagem montagem = montar(entradasVivas());
+            lock.writeLock().lock();
+            try {
+                aplicar(montagem);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Base do autocompletar remontada: {} chaves em {} ms",
+                    montagem.entradas().length, System.currentTimeMillis() - inicio);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                remontando = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private List<Entrada> entradasVivas() {
+        lock.readLock().lock();
+        try {
+            List<Entrada> vivas = new ArrayList<>();
+            entradas.values().forEach(porTexto -> vivas.addAll(porTexto.values()));
+            return vivas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chaves ordenadas da nova base e a posição das chaves de cada entrada.
+     */
+    private record Montagem(Entrada[] entradas, int[] inicios, Map<Entrada, int[]> posicoes) {}
+
+    /**
+     * Monta a base nova. Roda sem lock: só lê campos que não mudam (normalizado).
+     */
+    private Montagem montar(List<Entrada> vivas) {
+        record Chave(Entrada entrada, int inicio) {}
+
+        List<Chave> chaves = new ArrayList<>(vivas.size() * 2);
+        for (Entrada entrada : vivas) {
+            for (int inicio : iniciosDasPalavras(entrada.normalizado)) {
+                chaves.add(new Chave(entrada, inicio));
+            }
+        }
+        chaves.sort((a, b) -> compararTrechos(a.entrada().normalizado, a.inicio(),
+                b.entrada().normalizado, b.inicio()));
+
+        Entrada[] entradasOrdenadas = new Entrada[chaves.size()];
+        int[] inicios = new int[chaves.size()];
+        Map<Entrada, int[]> posicoes = new IdentityHashMap<>(vivas.size());
+        Map<Entrada, Integer> preenchidas = new IdentityHashMap<>(vivas.size());
+        for (int i = 0; i < chaves.size(); i++) {
+            Entrada entrada = chaves.get(i).entrada();
+            entradasOrdenadas[i] = entrada;
+            inicios[i] = chaves.get(i).inicio();
+            int[] lista = posicoes.computeIfAbsent(entrada,
+                    e -> new int[iniciosDasPalavras(e.normalizado).length]);
+            lista[preenchidas.merge(entrada, 1, Integer::sum) - 1] = i;
+        }
+        return new Montagem(entradasOrdenadas, inicios, posicoes);
+    }
+
+    private static int compararTrechos(String a, int inicioA, String b, int inicioB) {
+        int tamanho = Math.min(a.length() - inicioA, b.length() - inicioB);
+        for (int i = 0; i < tamanho; i++) {
+            int diferenca = a.charAt(inicioA + i) - b.charAt(inicioB + i);
+            if (diferenca != 0) {
+                return diferenca;
+            }
+        }
+        return (a.length() - inicioA) - (b.length() - inicioB);
+    }
+
+    /**
+     * Troca a base pela montagem nova. Chamar com o write lock.
+     *
+     * Popularidades que mudaram durante a montagem já valem: a árvore é
+     * calculada aqui, lendo os valores atuais das entradas.
+     */
+    private void aplicar(Montagem montagem) {
+        Entrada[] novasEntradas = montagem.entradas();
+
+        for (Entrada antiga : chaveEntrada) {
+            antiga.posicoes = null;
+        }
+        montagem.posicoes().forEach((entrada, lista) -> entrada.posicoes = lista);
+
+        chaveEntrada = novasEntradas;
+        chaveInicio = montagem.inicios();
+        folhas = Integer.highestOneBit(Math.max(1, novasEntradas.length - 1)) << 1;
+        arvore = new int[2 * folhas];
+        for (int i = 0; i < folhas; i++) {
+            arvore[folhas + i] = i < novasEntradas.length ? i : -1;
+        }
+        for (int no = folhas - 1; no >= 1; no--) {
+            arvore[no] = melhorEntre(arvore[2 * no], arvore[2 * no + 1]);
+        }
+
+        // Só ficam nas novas as entradas criadas durante a montagem
+        novas.values().removeIf(lista -> {
+            lista.removeIf(entrada -> entrada.posicoes != null);
+            return lista.isEmpty();
+        });
+        quantidadeNovas = novas.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * "Memórias Póstumas de Brás Cubas" → "memorias postumas de bras cubas"
+     */
+    private static String normalizarTexto(String texto) {
+        return SEPARADORES.matcher(NormalizadorTexto.normalizar(texto)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Igual ao normalizarTexto(), mas mantém um espaço no fim:
+     * "dom " não deve sugerir "Domador".
+     */
+    private static String normalizarPrefixo(String prefixo) {
+        if (prefixo == null) {
+            return "";
+        }
+        return SEPARADORES.matcher(NormalizadorTexto.normalizar(prefixo)).replaceAll(" ").stripLeading();
+    }
+
+    /**
+     * Onde começa cada chave do texto: o início e cada palavra que não é stopword.
+     */
+    private static int[] iniciosDasPalavras(String normalizado) {
+        int[] inicios = new int[8];
+        int quantidade = 0;
+        int inicio = 0;
+        while (inicio < normalizado.length()) {
+            int fim = normalizado.indexOf(' ', inicio);
+            if (fim < 0) {
+                fim = normalizado.length();
+            }
+            if (inicio == 0 || !NormalizadorTexto.isStopword(normalizado.substring(inicio, fim))) {
+                if (quantidade == inicios.length) {
+                    inicios = Arrays.copyOf(inicios, quantidade * 2);
+                }
+                inicios[quantidade++] = inicio;
+            }
+            inicio = fim + 1;
+        }
+        return quantidade == 0 ? new int[] {0} : Arrays.copyOf(inicios, quantidade);
+    }
+}
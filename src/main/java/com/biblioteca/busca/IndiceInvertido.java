@@ -0,0 +1,309 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.repository.LivroRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido em memória sobre título e autor dos livros.
+ * 
+ * O que é um índice invertido?
+ * - Para cada termo, guarda a lista de livros que o contêm
+ *   "casmurro" → {1}, "machado" → {1, 4, 6}
+ * - Buscar "machado casmurro" é cruzar duas listas pequenas,
+ *   em vez de varrer a tabela inteira com LIKE '%...%'
+ * 
+ * Ranking (estilo TF-IDF):
+ * - Termo raro vale mais que termo comum (idf = log(1 + N / df))
+ * - Termo no título vale o dobro do termo no autor
+ * - Todos os termos da consulta precisam aparecer (E lógico)
+ * - O último termo é tratado como prefixo ("dom casm" encontra "Dom Casmurro")
+ * 
+ * Mantido atualizado pelos eventos do LivroService (só depois do commit)
+ * e reconstruído a partir do banco na inicialização (ver ReconstrucaoInicial).
+ */
+@Slf4j
+@Component
+public class IndiceInvertido {
+    
+    /**
+     * Campos indexados e seu peso no ranking.
+     */
+    public enum Campo {
+        TITULO(2.0),
+        AUTOR(1.0);
+        
+        private final double peso;
+        
+        Campo(double peso) {
+            this.peso = peso;
+        }
+    }
+    
+    /**
+     * Prefixos menores que isso só casam com o termo exato
+     * (evita que "a" expanda para metade do vocabulário).
+     */
+    private static final int TAMANHO_MINIMO_PREFIXO = 3;
+    
+    /**
+     * termo → (id do livro → quantas vezes o termo aparece), um mapa por campo.
+     * TreeMap: mantém os termos ordenados, permitindo a busca por prefixo.
+     */
+    private final Map<Campo, NavigableMap<String, Map<Long, Integer>>> postings = new EnumMap<>(Campo.class);
+    
+    /**
+     * id → termos indexados do livro (necessário para remover/atualizar).
+     */
+    private final Map<Long, Map<Campo, List<String>>> documentos = new HashMap<>();
+    
+    /**
+     * Um escritor por vez, vários leitores em paralelo.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * Livros alterados enquanto a reconstrução está lendo o banco.
+     * A reconstrução não sobrescreve esses (o evento é mais novo que a leitura).
+     */
+    private Set<Long> alteradosDuranteReconstrucao;
+    
+    private volatile boolean pronto;
+    
+    private final LivroRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public IndiceInvertido(LivroRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        for (Campo campo : Campo.values()) {
+            postings.put(campo, new TreeMap<>());
+        }
+    }
+    
+    /**
+     * Reconstrói o índice lendo todos os livros do banco.
+     * 
+     * Chamado pela ReconstrucaoInicial, em segundo plano, quando a aplicação termina de subir.
+     * Enquanto não termina, isPronto() = false e o LivroService usa o banco.
+     */
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        
+        lock.writeLock().lock();
+        try {
+            pronto = false;
+            alteradosDuranteReconstrucao = new HashSet<>();
+            documentos.clear();
+            postings.values().forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<LivroResponse> livros = repository.streamTodos()) {
+                livros.forEach(livro -> {
+                    lock.writeLock().lock();
+                    try {
+                        if (!alteradosDuranteReconstrucao.contains(livro.getId())) {
+                            indexar(livro.getId(), livro.getTitulo(), livro.getAutor());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+        
+        lock.writeLock().lock();
+        try {
+            alteradosDuranteReconstrucao = null;
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de busca reconstruído: {} livros, {} termos em {} ms",
+                documentos.size(), postings.get(Campo.TITULO).size() + postings.get(Campo.AUTOR).size(),
+                System.currentTimeMillis() - inicio);
+    }
+    
+    /**
+     * Mantém o índice igual ao banco depois de cada escrita confirmada.
+     * 
+     * fallbackExecution = true - Também reage a eventos publicados fora de transação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            if (alteradosDuranteReconstrucao != null) {
+                alteradosDuranteReconstrucao.add(evento.id());
+            }
+            switch (evento.tipo()) {
+                case CRIADO, ATUALIZADO -> {
+                    LivroResponse livro = evento.livro();
+                    remover(evento.id());
+                    indexar(livro.getId(), livro.getTitulo(), livro.getAutor());
+                }
+                case REMOVIDO -> remover(evento.id());
+                default -> {
+                    // Empréstimo e devolução não mudam título nem autor
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isPronto() {
+        return pronto;
+    }
+    
+    /**
+     * Busca livros cujos campos contenham todos os termos da consulta.
+     * 
+     * @param consulta texto digitado pelo usuário
+     * @param limite   quantidade máxima de resultados
+     * @param campos   onde procurar
+     * @return IDs ordenados por relevância, ou Optional.empty() quando o índice
+     *         não pode responder (ainda reconstruindo, ou consulta só com stopwords)
+     */
+    public Optional<List<Long>> buscar(String consulta, int limite, Campo... campos) {
+        List<String> termos = NormalizadorTexto.tokenizar(consulta);
+        if (!pronto || termos.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        lock.readLock().lock();
+        try {
+            int totalDocumentos = Math.max(1, documentos.size());
+            Map<Long, Double> pontuacao = null;
+            
+            for (int i = 0; i < termos.size(); i++) {
+                boolean prefixo = i == termos.size() - 1 && termos.get(i).length() >= TAMANHO_MINIMO_PREFIXO;
+                Map<Long, Double> doTermo = pontuarTermo(termos.get(i), prefixo, totalDocumentos, campos);
+                
+                if (pontuacao == null) {
+                    pontuacao = doTermo;
+                } else {
+                    // E lógico: mantém só quem também tem este termo
+                    Map<Long, Double> intersecao = new HashMap<>();
+                    Map<Long, Double> menor = pontuacao.size() <= doTermo.size() ? pontuacao : doTermo;
+                    Map<Long, Double> maior = menor == pontuacao ? doTermo : pontuacao;
+                    menor.forEach((id, valor) -> {
+                        Double outro = maior.get(id);
+                        if (outro != null) {
+                            intersecao.put(id, valor + outro);
+                        }
+                    });
+                    pontuacao = intersecao;
+                }
+                if (pontuacao.isEmpty()) {
+                    return Optional.of(List.of());
+                }
+            }
+            
+            return Optional.of(melhores(pontuacao, limite));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Pontuação de cada livro que contém o termo (ou um termo com esse prefixo).
+     */
+    private Map<Long, Double> pontuarTermo(String termo, boolean prefixo, int totalDocumentos, Campo... campos) {
+        Map<Long, Double> pontuacao = new HashMap<>();
+        for (Campo campo : campos) {
+            NavigableMap<String, Map<Long, Integer>> indice = postings.get(campo);
+            Map<String, Map<Long, Integer>> encontrados = prefixo
+                    ? indice.subMap(termo, true, termo + Character.MAX_VALUE, false)
+                    : Optional.ofNullable(indice.get(termo)).map(p -> Map.of(termo, p)).orElse(Map.of());
+            
+            encontrados.values().forEach(livros -> {
+                double idf = Math.log(1.0 + (double) totalDocumentos / livros.size());
+                livros.forEach((id, frequencia) ->
+                        pontuacao.merge(id, frequencia * idf * campo.peso, Double::sum));
+            });
+        }
+        return pontuacao;
+    }
+    
+    /**
+     * Os "limite" livros de maior pontuação (empate: menor ID primeiro).
+     */
+    private static List<Long> melhores(Map<Long, Double> pontuacao, int limite) {
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        
+        // Heap com os "limite" melhores: o pior fica no topo para ser descartado
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Double> entrada : pontuacao.entrySet()) {
+            heap.offer(entrada);
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        }
+        
+        List<Map.Entry<Long, Double>> ordenados = new ArrayList<>(heap);
+        ordenados.sort(ranking);
+        return ordenados.stream().map(Map.Entry::getKey).toList();
+    }
+    
+    /**
+     * Adiciona os termos do livro ao índice. Chamar com o write lock.
+     */
+    private void indexar(Long id, String titulo, String autor) {
+        Map<Campo, List<String>> termos = new EnumMap<>(Campo.class);
+        termos.put(Campo.TITULO, NormalizadorTexto.tokenizar(titulo));
+        termos.put(Campo.AUTOR, NormalizadorTexto.tokenizar(autor));
+        
+        termos.forEach((campo, lista) -> lista.forEach(termo ->
+                postings.get(campo)
+                        .computeIfAbsent(termo, t -> new HashMap<>())
+                        .merge(id, 1, Integer::sum)));
+        documentos.put(id, termos);
+    }
+    
+    /**
+     * Remove os termos do livro do índice. Chamar com o write lock.
+     */
+    private void remover(Long id) {
+        Map<Campo, List<String>> termos = documentos.remove(id);
+        if (termos == null) {
+            return;
+        }
+        termos.forEach((campo, lista) -> lista.forEach(termo -> {
+            Map<Long, Integer> livros = postings.get(campo).get(termo);
+            if (livros != null) {
+                livros.remove(id);
+                if (livros.isEmpty()) {
+                    postings.get(campo).remove(termo);  // Não deixa termos órfãos
+                }
+            }
+        }));
+    }
+}
@@ -0,0 +1,73 @@
+package com.biblioteca.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador de textos em português para a busca.
+ * 
+ * Etapas:
+ * 1. Remove acentos ("Cortiço" → "Cortico", "Brás" → "Bras")
+ * 2. Converte para minúsculas
+ * 3. Quebra em palavras (tudo que não é letra ou número separa)
+ * 4. Remove stopwords ("de", "o", "a", "dos"...), que aparecem em
+ *    quase todo título e não ajudam a encontrar nada
+ * 
+ * Exemplo: "Memórias Póstumas de Brás Cubas" → [memorias, postumas, bras, cubas]
+ */
+public final class NormalizadorTexto {
+    
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    /**
+     * Palavras muito comuns em português (artigos, preposições, conjunções).
+     */
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas",
+            "de", "da", "do", "das", "dos",
+            "em", "na", "no", "nas", "nos", "num", "numa",
+            "ao", "aos",
+            "por", "pela", "pelo", "pelas", "pelos", "para", "pra",
+            "com", "sem", "sob", "sobre", "entre",
+            "e", "ou", "que", "se"
+    );
+    
+    private NormalizadorTexto() {
+    }
+    
+    /**
+     * Remove acentos e converte para minúsculas.
+     */
+    public static String normalizar(String texto) {
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Palavra (já normalizada) que não ajuda a encontrar nada ("de", "o"...).
+     */
+    static boolean isStopword(String palavra) {
+        return STOPWORDS.contains(palavra);
+    }
+    
+    /**
+     * Quebra o texto em termos de busca (normalizados e sem stopwords).
+     */
+    public static List<String> tokenizar(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null) {
+            return termos;
+        }
+        for (String palavra : SEPARADORES.split(normalizar(texto))) {
+            if (!palavra.isEmpty() && !isStopword(palavra)) {
+                termos.add(palavra);
+            }
+        }
+        return termos;
+    }
+}
@@ -0,0 +1,264 @@
+package com.biblioteca.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache em memória com tamanho máximo e tempo de vida (TTL).
+ * 
+ * Remoção (eviction):
+ * - Por tamanho: ao passar do limite, sai a entrada usada há mais tempo (LRU)
+ * - Por tempo: entradas mais velhas que o TTL são descartadas ao serem lidas
+ * 
+ * LinkedHashMap em ordem de inserção, usada como ordem de uso: cada acerto
+ * tira a entrada e a coloca de novo no fim, e a mais antiga fica no começo.
+ * (Com accessOrder = true todo get() mexeria na ordem, inclusive o
+ * espiar(), que precisa ler sem contar como uso.)
+ * 
+ * Contadores (acertos, falhas, remoções) ajudam a dimensionar o cache em produção.
+ * 
+ * @param <K> tipo da chave
+ * @param <V> tipo do valor
+ */
+public class CacheLimitado<K, V> {
+    
+    private final String nome;
+    private final int tamanhoMaximo;
+    private final long ttlNanos;
+    
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    
+    /**
+     * Incrementada a cada invalidação. Uma carga que começou antes de uma
+     * invalidação não grava o valor (ele pode ser anterior à escrita).
+     */
+    private long geracao;
+    
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+    
+    public CacheLimitado(String nome, int tamanhoMaximo, Duration ttl) {
+        this.nome = nome;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                boolean remover = size() > CacheLimitado.this.tamanhoMaximo;
+                if (remover) {
+                    remocoes.increment();
+                }
+                return remover;
+            }
+        };
+    }
+    
+    /**
+     * Valor guardado para a chave, ou null (ausente ou expirado).
+     */
+    public V obter(K chave) {
+        synchronized (this) {
+            V valor = valorValido(chave, true);
+            if (valor != null) {
+                acertos.increment();
+            } else {
+                falhas.increment();
+            }
+            return valor;
+        }
+    }
+    
+    /**
+     * Valor guardado para a chave, ou null, sem efeito colateral: não conta
+     * acerto nem falha e não muda a ordem de uso (LRU).
+     *
+     * Para quem só consulta o cache em nome de outra leitura (ex: o ETag de
+     * um GET condicional), que não deve inflar a taxa de acerto nem manter
+     * vivas entradas que ninguém lê de verdade.
+     */
+    public synchronized V espiar(K chave) {
+        return valorValido(chave, false);
+    }
+    
+    /**
+     * A chave está no cache (e no prazo)? Não conta como acerto nem falha.
+     */
+    public synchronized boolean contem(K chave) {
+        return valorValido(chave, false) != null;
+    }
+    
+    /**
+     * Read-through: devolve o valor do cache ou carrega com o carregador e guarda.
+     * 
+     * O carregador roda FORA do lock (pode ser uma consulta ao banco).
+     * Valores null não são guardados.
+     */
+    public V obterOuCarregar(K chave, Function<K, V> carregador) {
+        long geracaoInicial;
+        synchronized (this) {
+            V valor = valorValido(chave, true);
+            if (valor != null) {
+                acertos.increment();
+                return valor;
+            }
+            falhas.increment();
+            geracaoInicial = geracao;
+        }
+        
+        V carregado = carregador.apply(chave);
+        
+        if (carregado != null) {
+            synchronized (this) {
+                // Houve escrita durante a carga: o valor lido pode estar velho
+                if (geracao == geracaoInicial) {
+                    colocarNoFim(chave, new Entrada<>(carregado, System.nanoTime()));
+                }
+            }
+        }
+        return carregado;
+    }
+    
+    /**
+     * Read-through de várias chaves: as que faltam são carregadas de uma vez.
+     * 
+     * Mesma regra do obterOuCarregar(): o carregador roda fora do lock e
+     * o resultado só é guardado se não houve invalidação no meio.
+     * 
+     * @param carregador recebe as chaves ausentes e devolve as encontradas
+     * @return chave → valor das chaves que existem (as outras ficam de fora)
+     */
+    public Map<K, V> obterOuCarregarVarios(Collection<K> chaves, Function<List<K>, Map<K, V>> carregador) {
+        Map<K, V> valores = new HashMap<>();
+        List<K> ausentes = new ArrayList<>();
+        long geracaoInicial;
+        synchronized (this) {
+            for (K chave : chaves) {
+                V valor = valorValido(chave, true);
+                if (valor != null) {
+                    valores.put(chave, valor);
+                } else {
+                    ausentes.add(chave);
+                }
+            }
+            acertos.add(valores.size());
+            falhas.add(ausentes.size());
+            geracaoInicial = geracao;
+        }
+        if (ausentes.isEmpty()) {
+            return valores;
+        }
+        
+        Map<K, V> carregados = carregador.apply(ausentes);
+        
+        synchronized (this) {
+            if (geracao == geracaoInicial) {
+                long agora = System.nanoTime();
+                carregados.forEach((chave, valor) -> colocarNoFim(chave, new Entrada<>(valor, agora)));
+            }
+        }
+        valores.putAll(carregados);
+        return valores;
+    }
+    
+    /**
+     * Guarda um valor (substitui o anterior).
+     */
+    public synchronized void guardar(K chave, V valor) {
+        colocarNoFim(chave, new Entrada<>(valor, System.nanoTime()));
+    }
+    
+    /**
+     * Remove a chave (chamado depois de escritas no banco).
+     */
+    public synchronized void invalidar(K chave) {
+        entradas.remove(chave);
+        geracao++;
+        invalidacoes.increment();
+    }
+    
+    /**
+     * Esvazia o cache inteiro.
+     */
+    public synchronized void limpar() {
+        entradas.clear();
+        geracao++;
+        invalidacoes.increment();
+    }
+    
+    public synchronized Estatisticas estatisticas() {
+        removerExpiradas();
+        return new Estatisticas(nome, entradas.size(), tamanhoMaximo,
+                acertos.sum(), falhas.sum(), remocoes.sum(), invalidacoes.sum());
+    }
+    
+    /**
+     * Valor da chave se ainda estiver no prazo. Chamar dentro do synchronized.
+     *
+     * @param usar true = conta como uso (a entrada vai para o fim da ordem LRU)
+     */
+    private V valorValido(K chave, boolean usar) {
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (System.nanoTime() - entrada.criadaEm() > ttlNanos) {
+            entradas.remove(chave);
+            remocoes.increment();
+            return null;
+        }
+        if (usar) {
+            colocarNoFim(chave, entrada);
+        }
+        return entrada.valor();
+    }
+    
+    /**
+     * Em ordem de inserção, put() de uma chave que já existe não muda a
+     * posição: tira antes para a entrada ir para o fim (a mais usada).
+     */
+    private void colocarNoFim(K chave, Entrada<V> entrada) {
+        entradas.remove(chave);
+        entradas.put(chave, entrada);
+    }
+    
+    /**
+     * Descarta as entradas vencidas (as mais antigas ficam no começo da lista de uso,
+     * mas uma entrada antiga pode ter sido lida há pouco, então percorre tudo).
+     */
+    private void removerExpiradas() {
+        long agora = System.nanoTime();
+        Iterator<Entrada<V>> iterator = entradas.values().iterator();
+        while (iterator.hasNext()) {
+            if (agora - iterator.next().criadaEm() > ttlNanos) {
+                iterator.remove();
+                remocoes.increment();
+            }
+        }
+    }
+    
+    private record Entrada<V>(V valor, long criadaEm) {}
+    
+    /**
+     * Retrato dos contadores do cache.
+     * 
+     * taxaAcerto - acertos / (acertos + falhas), entre 0 e 1
+     */
+    public record Estatisticas(String nome, int tamanho, int tamanhoMaximo,
+                               long acertos, long falhas, long remocoes, long invalidacoes) {
+        
+        public double getTaxaAcerto() {
+            long total = acertos + falhas;
+            return total == 0 ? 0.0 : (double) acertos / total;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dto.EstatisticasResponse;
+import com.biblioteca.dto.EstatisticasResponse.Contagem;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.replicacao.ConsistenciaLeitura;
+import com.biblioteca.repository.LivroRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Estatísticas do catálogo em memória: total, disponíveis x emprestados,
+ * livros por ano, por autor e por editora.
+ *
+ * Por que?
+ * Os painéis baixavam GET /api/livros inteiro só para contar. Aqui os
+ * números ficam prontos: GET /api/livros/estatisticas não consulta o banco.
+ *
+ * Como funciona:
+ * - Total e disponíveis em LongAdder: cada thread soma na sua própria célula
+ *   (striping), sem disputar um único contador; a leitura soma as células
+ * - Por ano/autor/editora: ConcurrentHashMap com merge(), atômico por chave.
+ *   A soma que zera uma chave já a remove do mapa (senão ele só cresceria),
+ *   sem a corrida de "remover a chave enquanto outra thread soma nela"
+ * - Mantidos pelos eventos do LivroService, depois do commit: cadastro e
+ *   remoção somam/subtraem o livro inteiro; alteração tira o estado anterior
+ *   e soma o novo; empréstimo/devolução só mudam os disponíveis
+ * - Retrato: a resposta (com os N maiores autores/editoras já escolhidos) é
+ *   montada uma vez e reaproveitada até a próxima alteração, no máximo uma
+ *   vez por biblioteca.estatisticas.validade-retrato. Leitura = O(1)
+ *
+ * Conferência com o banco (GROUP BY, em segundo plano):
+ * - A primeira na subida (ver ReconstrucaoInicial); até lá as estatísticas
+ *   vêm direto do banco, como a busca sem índice
+ * - Depois, a cada biblioteca.estatisticas.conferencia: corrige o que o banco
+ *   recebeu por fora da aplicação ou se perdeu no caminho
+ * - Soma a diferença (banco - memória) em vez de substituir os contadores:
+ *   alterações que chegam durante a conferência não se perdem
+ * - Só corrige com a memória e o banco no mesmo ponto. Uma transação já
+ *   confirmada no banco pode ainda não ter passado pelo aoAlterarLivro
+ *   (roda depois do commit): o GROUP BY já a conta, a memória não, e a
+ *   correção somaria o livro duas vezes. Por isso toda transação que publica
+ *   alterações conta em "pendentes" do primeiro evento até terminar. Se
+ *   houver pendentes, ou alguma alteração chegar durante a consulta, ela é
+ *   refeita (até 3 vezes); se não estabilizar, aquela contagem fica sem
+ *   correção e a conferência é repetida em alguns segundos
+ * - Sempre no primário (com réplicas de leitura)
+ */
+@Slf4j
+@Component
+public class EstatisticasCatalogo {
+
+    /**
+     * Chave de autor/editora vazios (o ConcurrentHashMap não aceita null).
+     */
+    private static final String SEM_NOME = "";
+
+    private static final int TENTATIVAS_CONFERENCIA = 3;
+
+    /** Pausa entre tentativas, para as transações pendentes terminarem */
+    private static final long PAUSA_TENTATIVA_MS = 50;
+
+    /** Conferência que não estabilizou é repetida depois deste intervalo */
+    private static final long NOVA_CONFERENCIA_MS = 5_000;
+
+    /** Contagem que não pôde ser conferida (ver corrigir) */
+    private static final long INSTAVEL = -1;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder disponiveis = new LongAdder();
+    private final Map<Integer, Long> porAno = new ConcurrentHashMap<>();
+    private final Map<String, Long> porAutor = new ConcurrentHashMap<>();
+    private final Map<String, Long> porEditora = new ConcurrentHashMap<>();
+
+    /**
+     * Transações que publicaram alterações e ainda não terminaram
+     * (commit + aoAlterarLivro, ou rollback).
+     */
+    private final LongAdder pendentes = new LongAdder();
+
+    /**
+     * Alterações aplicadas (invalida o retrato e detecta escritas durante a conferência).
+     */
+    private final LongAdder alteracoes = new LongAdder();
+
+    /**
+     * Diferenças encontradas pelas conferências (depois da primeira).
+     */
+    private final LongAdder divergencias = new LongAdder();
+
+    private final LivroRepository repository;
+    private final int topMaximo;
+    private final long validadeRetratoMs;
+    private final Duration intervaloConferencia;
+    private final ScheduledExecutorService conferencia;
+
+    private volatile Retrato retrato;
+
+    /**
+     * Última conferência com o banco (null = ainda não conferido).
+     */
+    private volatile LocalDateTime conferidoEm;
+
+    public EstatisticasCatalogo(LivroRepository repository,
+                                @Value("${biblioteca.estatisticas.top-maximo:100}") int topMaximo,
+                                @Value("${biblioteca.estatisticas.validade-retrato:1s}") Duration validadeRetrato,
+                                @Value("${biblioteca.estatisticas.conferencia:10m}") Duration intervaloConferencia) {
+        this.repository = repository;
+        this.topMaximo = topMaximo;
+        this.validadeRetratoMs = validadeRetrato.toMillis();
+        this.intervaloConferencia = intervaloConferencia;
+        this.conferencia = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "estatisticas-conferencia");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Agenda as conferências periódicas (a primeira é da ReconstrucaoInicial).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void agendarConferencias() {
+        long intervalo = intervaloConferencia.toMillis();
+        conferencia.scheduleWithFixedDelay(this::conferirAgendada, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Marca a transação como pendente no primeiro evento dela (ainda antes
+     * do commit) e desmarca quando ela termina.
+     *
+     * afterCompletion roda depois de todos os afterCommit: quando a marca
+     * sai, o aoAlterarLivro da transação já rodou. Fora de transação o
+     * evento é aplicado na hora e não há o que marcar.
+     */
+    @EventListener
+    public void aoPublicar(LivroAlteradoEvent evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        pendentes.increment();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EstatisticasCatalogo.this);
+                pendentes.decrement();
+            }
+        });
+    }
+
+    /**
+     * Atualiza os contadores depois de cada escrita confirmada.
+     *
+     * fallbackExecution = true - Também reage a eventos publicados fora de transação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        switch (evento.tipo()) {
+            case CRIADO -> contar(evento.livro(), 1);
+            case REMOVIDO -> contar(evento.anterior(), -1);
+            case ATUALIZADO -> {
+                contar(evento.anterior(), -1);
+                contar(evento.livro(), 1);
+            }
+            case EMPRESTADO -> disponiveis.decrement();
+            case DEVOLVIDO -> disponiveis.increment();
+        }
+        alteracoes.increment();
+    }
+
+    private void contar(LivroResponse livro, long sinal) {
+        if (livro == null) {
+            return;
+        }
+        total.add(sinal);
+        if (Boolean.TRUE.equals(livro.getDisponivel())) {
+            disponiveis.add(sinal);
+        }
+        if (livro.getAno() != null) {
+            somar(porAno, livro.getAno(), sinal);
+        }
+        somar(porAutor, nome(livro.getAutor()), sinal);
+        somar(porEditora, nome(livro.getEditora()), sinal);
+    }
+
+    /**
+     * merge() é atômico por chave: quando a soma dá zero, a chave sai do mapa
+     * na mesma operação (nenhuma outra thread soma numa chave já removida).
+     */
+    private static <K> void somar(Map<K, Long> contadores, K chave, long quantidade) {
+        contadores.merge(chave, quantidade, (atual, soma) -> atual + soma == 0 ? null : atual + soma);
+    }
+
+    private static String nome(Object valor) {
+        return valor == null ? SEM_NOME : valor.toString();
+    }
+
+    /**
+     * Estatísticas atuais com os N autores e editoras com mais livros.
+     */
+    public EstatisticasResponse estatisticas(int top) {
+        Retrato atual = conferidoEm != null ? retratoAtual() : doBanco();
+        return new EstatisticasResponse(
+                atual.total(),
+                atual.disponiveis(),
+                atual.total() - atual.disponiveis(),
+                atual.porAno(),
+                atual.autores().subList(0, Math.min(top, atual.autores().size())),
+                atual.autoresDistintos(),
+                atual.editoras().subList(0, Math.min(top, atual.editoras().size())),
+                atual.editorasDistintas(),
+                atual.conferidoEm());
+    }
+
+    private Retrato retratoAtual() {
+        long versao = alteracoes.sum();
+        Retrato atual = retrato;
+        if (atual == null || (atual.versao() != versao
+                && System.currentTimeMillis() - atual.montadoEm() >= validadeRetratoMs)) {
+            atual = montar(versao, total.sum(), disponiveis.sum(),
+                    new HashMap<>(porAno), new HashMap<>(porAutor), new HashMap<>(porEditora), conferidoEm);
+            retrato = atual;
+        }
+        return atual;
+    }
+
+    /**
+     * Antes da primeira conferência: as mesmas contagens, direto do banco.
+     */
+    private Retrato doBanco() {
+        return ConsistenciaLeitura.noPrimario(() -> montar(-1,
+                repository.count(),
+                repository.countByDisponivel(true),
+                agrupar(repository.contarPorAno(), valor -> (Integer) valor),
+                agrupar(repository.contarPorAutor(), EstatisticasCatalogo::nome),
+                agrupar(repository.contarPorEditora(), EstatisticasCatalogo::nome),
+                null));
+    }
+
+    private Retrato montar(long versao, long total, long disponiveis, Map<Integer, Long> anos,
+                           Map<String, Long> autores, Map<String, Long> editoras, LocalDateTime conferidoEm) {
+        Map<Integer, Long> porAno = new TreeMap<>();
+        anos.forEach((ano, livros) -> {
+            if (livros > 0) {
+                porAno.put(ano, livros);
+            }
+        });
+        return new Retrato(versao, System.currentTimeMillis(), total, disponiveis, porAno,
+                maiores(autores), distintos(autores), maiores(editoras), distintos(editoras), conferidoEm);
+    }
+
+    /**
+     * Os topMaximo com mais livros: heap de tamanho fixo, sem ordenar todos.
+     */
+    private List<Contagem> maiores(Map<String, Long> contagens) {
+        Comparator<Map.Entry<String, Long>> ordem = Map.Entry.<String, Long>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<String, Long>> menoresPrimeiro = new PriorityQueue<>(ordem);
+        for (Map.Entry<String, Long> contagem : contagens.entrySet()) {
+            if (contagem.getValue() <= 0) {
+                continue;
+            }
+            menoresPrimeiro.add(contagem);
+            if (menoresPrimeiro.size() > topMaximo) {
+                menoresPrimeiro.poll();
+            }
+        }
+        List<Contagem> maiores = new ArrayList<>(menoresPrimeiro.size());
+        while (!menoresPrimeiro.isEmpty()) {
+            Map.Entry<String, Long> contagem = menoresPrimeiro.poll();
+            maiores.add(0, new Contagem(contagem.getKey().isEmpty() ? null : contagem.getKey(), contagem.getValue()));
+        }
+        return maiores;
+    }
+
+    private static long distintos(Map<String, Long> contagens) {
+        return contagens.values().stream().filter(livros -> livros > 0).count();
+    }
+
+    private static <K> Map<K, Long> agrupar(List<Object[]> linhas, Function<Object, K> chave) {
+        Map<K, Long> contagens = new HashMap<>();
+        for (Object[] linha : linhas) {
+            contagens.merge(chave.apply(linha[0]), (Long) linha[1], Long::sum);
+        }
+        return contagens;
+    }
+
+    /**
+     * Confere os contadores com o banco e corrige as diferenças.
+     *
+     * synchronized: a subida, a periódica e a repetição não conferem ao
+     * mesmo tempo (duas somariam a mesma diferença).
+     */
+    public synchronized void conferir() {
+        long inicio = System.currentTimeMillis();
+        long[] resultados = ConsistenciaLeitura.noPrimario(() -> new long[] {
+                corrigir(total, repository::count),
+                corrigir(disponiveis, () -> repository.countByDisponivel(true)),
+                corrigir(porAno, repository::contarPorAno, valor -> (Integer) valor),
+                corrigir(porAutor, repository::contarPorAutor, EstatisticasCatalogo::nome),
+                corrigir(porEditora, repository::contarPorEditora, EstatisticasCatalogo::nome)});
+        alteracoes.increment();
+
+        long corrigidas = 0;
+        boolean estavel = true;
+        for (long resultado : resultados) {
+            if (resultado == INSTAVEL) {
+                estavel = false;
+            } else {
+                corrigidas += resultado;
+            }
+        }
+        if (!estavel) {
+            // Antes da primeira conferência completa as estatísticas continuam vindo do banco
+            log.info("Estatísticas do catálogo: escritas em andamento, nova conferência em {} ms", NOVA_CONFERENCIA_MS);
+            conferencia.schedule(this::conferirAgendada, NOVA_CONFERENCIA_MS, TimeUnit.MILLISECONDS);
+        }
+
+        if (conferidoEm == null) {
+            if (!estavel) {
+                return;
+            }
+            log.info("Estatísticas do catálogo montadas: {} livros em {} ms",
+                    total.sum(), System.currentTimeMillis() - inicio);
+        } else if (corrigidas > 0) {
+            divergencias.add(corrigidas);
+            log.warn("Estatísticas do catálogo: {} diferenças com o banco corrigidas", corrigidas);
+        }
+        conferidoEm = LocalDateTime.now();
+    }
+
+    private void conferirAgendada() {
+        try {
+            conferir();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao conferir as estatísticas com o banco: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A memória e o banco estão no mesmo ponto desde que "versao" foi lida?
+     * Nenhuma alteração aplicada no meio e nenhuma transação pendente
+     * (confirmada no banco, mas ainda fora da memória).
+     */
+    private boolean estavel(long versao) {
+        return alteracoes.sum() == versao && pendentes.sum() == 0;
+    }
+
+    /**
+     * @return quantidade corrigida, ou INSTAVEL se não houve uma leitura estável
+     */
+    private long corrigir(LongAdder contador, LongSupplier consulta) {
+        for (int tentativa = 1; tentativa <= TENTATIVAS_CONFERENCIA; tentativa++) {
+            long versao = alteracoes.sum();
+            long antes = contador.sum();
+            long noBanco = consulta.getAsLong();
+            if (estavel(versao)) {
+                contador.add(noBanco - antes);
+                return Math.abs(noBanco - antes);
+            }
+            pausar();
+        }
+        return INSTAVEL;
+    }
+
+    private <K> long corrigir(Map<K, Long> contadores, Supplier<List<Object[]>> consulta,
+                              Function<Object, K> chave) {
+        for (int tentativa = 1; tentativa <= TENTATIVAS_CONFERENCIA; tentativa++) {
+            long versao = alteracoes.sum();
+            Map<K, Long> antes = new HashMap<>(contadores);
+            Map<K, Long> noBanco = agrupar(consulta.get(), chave);
+            if (!estavel(versao)) {
+                pausar();
+                continue;
+            }
+
+            Set<K> chaves = new HashSet<>(antes.keySet());
+            chaves.addAll(noBanco.keySet());
+            long corrigidas = 0;
+            for (K valor : chaves) {
+                long diferenca = noBanco.getOrDefault(valor, 0L) - antes.getOrDefault(valor, 0L);
+                if (diferenca != 0) {
+                    somar(contadores, valor, diferenca);
+                    corrigidas += Math.abs(diferenca);
+                }
+            }
+            return corrigidas;
+        }
+        return INSTAVEL;
+    }
+
+    private static void pausar() {
+        try {
+            Thread.sleep(PAUSA_TENTATIVA_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Conferência das estatísticas interrompida", e);
+        }
+    }
+
+    public boolean isPronto() {
+        return conferidoEm != null;
+    }
+
+    public int getTopMaximo() {
+        return topMaximo;
+    }
+
+    public long getDivergencias() {
+        return divergencias.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getDisponiveis() {
+        return disponiveis.sum();
+    }
+
+    @PreDestroy
+    public void fechar() {
+        conferencia.shutdownNow();
+    }
+
+    /**
+     * Estatísticas prontas para responder (autores e editoras: os topMaximo maiores, em ordem).
+     */
+    private record Retrato(long versao, long montadoEm, long total, long disponiveis, Map<Integer, Long> porAno,
+                           List<Contagem> autores, long autoresDistintos,
+                           List<Contagem> editoras, long editorasDistintas, LocalDateTime conferidoEm) {}
+}
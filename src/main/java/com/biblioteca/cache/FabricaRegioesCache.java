@@ -0,0 +1,240 @@
+package com.biblioteca.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provedor do cache de segundo nível (L2) do Hibernate, em cima do CacheLimitado.
+ *
+ * Cache de segundo nível?
+ * - O primeiro nível é o persistence context: vale só dentro de uma transação
+ * - O segundo nível é compartilhado entre transações: uma consulta marcada
+ *   como cacheável (query cache) repetida não vai ao banco
+ *
+ * Regiões:
+ * - Consultas (ex: "livro_consultas"): resultado das consultas cacheáveis,
+ *   pela JPQL + parâmetros. Um CacheLimitado (tamanho máximo, TTL e LRU)
+ * - Timestamps: última escrita em cada tabela. Sem limite e sem TTL: uma
+ *   entrada por tabela, e perder uma delas faria o Hibernate aceitar
+ *   resultados de consulta velhos
+ *
+ * Sem regiões de entidades: as leituras da API são projeções em
+ * LivroResponse (não passam pelo cache de entidades), o buscarPorId já tem
+ * o LivroCache, e os UPDATEs em massa (empréstimo em lote, @Modifying)
+ * esvaziariam a região inteira a cada escrita. Uma entidade com @Cache
+ * derruba a inicialização (ver createDomainDataStorageAccess).
+ *
+ * Invalidação (feita pelo próprio Hibernate, em toda escrita que passa por ele):
+ * qualquer escrita na tabela livros atualiza o timestamp da tabela, e
+ * todas as consultas em cache que leem "livros" deixam de valer
+ * Escritas feitas por fora do Hibernate (JDBC direto, console do H2) não
+ * são vistas: as entradas só saem pelo TTL.
+ *
+ * Por que não Ehcache/Caffeine? Seria mais uma dependência para fazer o que
+ * o CacheLimitado já faz.
+ *
+ * Estatísticas por região (GET /api/monitoramento/cache/hibernate):
+ * - Tamanho e remoções vêm do CacheLimitado
+ * - Acertos e falhas vêm das estatísticas do Hibernate
+ *   (hibernate.generate_statistics): só ele sabe se uma entrada achada
+ *   na região foi usada ou descartada (consulta invalidada por uma
+ *   escrita, livro travado durante uma atualização)
+ *
+ * Registrado no Hibernate pelo CacheHibernateConfig.
+ */
+public class FabricaRegioesCache extends RegionFactoryTemplate {
+
+    private final int tamanhoConsultas;
+    private final Duration ttlConsultas;
+
+    /**
+     * Regiões de consultas, pelo nome.
+     */
+    private final Map<String, CacheLimitado<Object, Object>> regioes = new ConcurrentHashMap<>();
+
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    public FabricaRegioesCache(int tamanhoConsultas, Duration ttlConsultas) {
+        this.tamanhoConsultas = tamanhoConsultas;
+        this.ttlConsultas = ttlConsultas;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions opcoes, Map<String, Object> configuracoes) {
+        // Nada a preparar: as regiões são criadas sob demanda
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regioes.values().forEach(CacheLimitado::limpar);
+        regioes.clear();
+    }
+
+    /**
+     * Só chamado para entidades/coleções com @Cache: não há nenhuma de
+     * propósito (ver comentário da classe). Falha na subida em vez de criar
+     * uma região sem tamanho configurado.
+     */
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig config,
+                                                                    DomainDataRegionBuildingContext contexto) {
+        throw new IllegalStateException("Cache de entidades não é usado (região " + config.getRegionName()
+                + "): as leituras são projeções e ficam no cache de consultas");
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String nome, SessionFactoryImplementor sessionFactory) {
+        this.sessionFactory = sessionFactory;
+        return new Armazenamento(regiao(nome, tamanhoConsultas, ttlConsultas));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String nome, SessionFactoryImplementor sessionFactory) {
+        return new Timestamps();
+    }
+
+    private CacheLimitado<Object, Object> regiao(String nome, int tamanhoMaximo, Duration ttl) {
+        return regioes.computeIfAbsent(nome, n -> new CacheLimitado<>(n, tamanhoMaximo, ttl));
+    }
+
+    /**
+     * Estatísticas de cada região, pelo nome.
+     */
+    public List<EstatisticasRegiao> estatisticas() {
+        return regioes.keySet().stream()
+                .sorted()
+                .map(this::estatisticas)
+                .toList();
+    }
+
+    public EstatisticasRegiao estatisticas(String regiao) {
+        CacheLimitado<Object, Object> cache = regioes.get(regiao);
+        if (cache == null) {
+            return null;
+        }
+        CacheLimitado.Estatisticas local = cache.estatisticas();
+
+        long acertos = 0;
+        long falhas = 0;
+        long gravacoes = 0;
+        SessionFactoryImplementor fabrica = sessionFactory;
+        if (fabrica != null && fabrica.getStatistics().isStatisticsEnabled()) {
+            Statistics hibernate = fabrica.getStatistics();
+            CacheRegionStatistics daRegiao = hibernate.getQueryRegionStatistics(regiao);
+            if (daRegiao != null) {
+                acertos = daRegiao.getHitCount();
+                falhas = daRegiao.getMissCount();
+                gravacoes = daRegiao.getPutCount();
+            }
+        }
+        return new EstatisticasRegiao(regiao,
+                local.tamanho(), local.tamanhoMaximo(), acertos, falhas, gravacoes,
+                local.remocoes(), local.invalidacoes());
+    }
+
+    /**
+     * Retrato de uma região.
+     *
+     * acertos/falhas - leituras que o Hibernate conseguiu/não conseguiu usar
+     * gravacoes      - valores guardados (carregados do banco)
+     * remocoes       - descartados por tamanho ou TTL
+     * invalidacoes   - regiões/entradas limpas por escritas
+     * taxaAcerto     - acertos / (acertos + falhas), entre 0 e 1
+     */
+    public record EstatisticasRegiao(String nome, int tamanho, int tamanhoMaximo,
+                                     long acertos, long falhas, long gravacoes,
+                                     long remocoes, long invalidacoes) {
+
+        public double getTaxaAcerto() {
+            long total = acertos + falhas;
+            return total == 0 ? 0.0 : (double) acertos / total;
+        }
+    }
+
+    /**
+     * Região de consultas: repassa ao CacheLimitado.
+     */
+    private record Armazenamento(CacheLimitado<Object, Object> cache) implements DomainDataStorageAccess {
+
+        @Override
+        public Object getFromCache(Object chave, SharedSessionContractImplementor sessao) {
+            return cache.obter(chave);
+        }
+
+        @Override
+        public void putIntoCache(Object chave, Object valor, SharedSessionContractImplementor sessao) {
+            cache.guardar(chave, valor);
+        }
+
+        @Override
+        public boolean contains(Object chave) {
+            return cache.contem(chave);
+        }
+
+        @Override
+        public void evictData() {
+            cache.limpar();
+        }
+
+        @Override
+        public void evictData(Object chave) {
+            cache.invalidar(chave);
+        }
+
+        @Override
+        public void release() {
+            cache.limpar();
+        }
+    }
+
+    /**
+     * Região de timestamps: nunca descarta nada (ver comentário da classe).
+     */
+    private static final class Timestamps implements StorageAccess {
+
+        private final Map<Object, Object> ultimasEscritas = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object tabela, SharedSessionContractImplementor sessao) {
+            return ultimasEscritas.get(tabela);
+        }
+
+        @Override
+        public void putIntoCache(Object tabela, Object timestamp, SharedSessionContractImplementor sessao) {
+            ultimasEscritas.put(tabela, timestamp);
+        }
+
+        @Override
+        public boolean contains(Object tabela) {
+            return ultimasEscritas.containsKey(tabela);
+        }
+
+        @Override
+        public void evictData() {
+            ultimasEscritas.clear();
+        }
+
+        @Override
+        public void evictData(Object tabela) {
+            ultimasEscritas.remove(tabela);
+        }
+
+        @Override
+        public void release() {
+            ultimasEscritas.clear();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.repository.LivroRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Conjunto em memória dos IDs de livros que existem no banco.
+ *
+ * Por que?
+ * Robôs e clientes desatualizados pedem GET /api/livros/{id} de livros
+ * removidos (ou que nunca existiram) o tempo todo. Sem o filtro, cada
+ * pedido desses vai ao banco só para descobrir que não há nada lá.
+ *
+ * Como funciona:
+ * - Os IDs vêm de uma sequence (quase sem buracos), então um BitSet basta: o bit N
+ *   ligado = livro N existe. 1 milhão de livros ≈ 125 KB
+ * - Diferente de um filtro de Bloom, não tem falso positivo: "não existe"
+ *   e "existe" são respostas exatas (enquanto o banco só for alterado
+ *   pela aplicação)
+ * - IDs fora da faixa do BitSet (maiores que Integer.MAX_VALUE) sempre
+ *   respondem "pode existir" e seguem para o banco
+ *
+ * Mantido atualizado pelos eventos do LivroService (só depois do commit)
+ * e reconstruído a partir do banco na inicialização (ver ReconstrucaoInicial).
+ * Enquanto não está pronto, responde "pode existir" para tudo.
+ */
+@Slf4j
+@Component
+public class FiltroIdsExistentes {
+
+    private final BitSet ids = new BitSet();
+
+    /**
+     * Um escritor por vez, vários leitores em paralelo.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Livros removidos enquanto a reconstrução está lendo o banco.
+     * A reconstrução não liga o bit deles (o evento é mais novo que a leitura).
+     */
+    private Set<Long> removidosDuranteReconstrucao;
+
+    private volatile boolean pronto;
+
+    private final AtomicLong negados = new AtomicLong();
+
+    private final LivroRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public FiltroIdsExistentes(LivroRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reconstrói o conjunto lendo todos os IDs do banco.
+     *
+     * Chamado pela ReconstrucaoInicial, em segundo plano, quando a aplicação termina de subir.
+     */
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pronto = false;
+            removidosDuranteReconstrucao = new HashSet<>();
+            ids.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Long> existentes = repository.streamIds()) {
+                existentes.forEach(id -> {
+                    lock.writeLock().lock();
+                    try {
+                        if (!removidosDuranteReconstrucao.contains(id)) {
+                            marcar(id);
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+
+        int total;
+        lock.writeLock().lock();
+        try {
+            removidosDuranteReconstrucao = null;
+            pronto = true;
+            total = ids.cardinality();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Filtro de IDs reconstruído: {} livros em {} ms", total, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Liga/desliga o bit do livro depois de cada escrita confirmada.
+     *
+     * fallbackExecution = true - Também reage a eventos publicados fora de transação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            switch (evento.tipo()) {
+                case CRIADO -> marcar(evento.id());
+                case REMOVIDO -> {
+                    if (removidosDuranteReconstrucao != null) {
+                        removidosDuranteReconstrucao.add(evento.id());
+                    }
+                    if (cabe(evento.id())) {
+                        ids.clear((int) (long) evento.id());
+                    }
+                }
+                default -> {
+                    // Alteração, empréstimo e devolução não mudam quais livros existem
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * false = o livro com certeza não existe (não precisa ir ao banco).
+     * true  = existe, ou o filtro não sabe responder (ainda reconstruindo, ID fora da faixa).
+     */
+    public boolean podeExistir(Long id) {
+        if (!pronto || id == null || !cabe(id)) {
+            return true;
+        }
+        boolean existe;
+        lock.readLock().lock();
+        try {
+            existe = ids.get((int) (long) id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!existe) {
+            negados.incrementAndGet();
+        }
+        return existe;
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Quantas consultas o filtro respondeu sozinho ("não existe") desde o início.
+     */
+    public long getNegados() {
+        return negados.get();
+    }
+
+    private void marcar(Long id) {
+        if (cabe(id)) {
+            ids.set((int) (long) id);
+        }
+    }
+
+    private static boolean cabe(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+}
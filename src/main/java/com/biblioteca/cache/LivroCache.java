@@ -0,0 +1,83 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache dos livros por ID, na frente do LivroService.buscarPorId().
+ * 
+ * Os dados de um livro quase nunca mudam, então a maioria dos
+ * GET /api/livros/{id} pode ser respondida sem ir ao banco.
+ * 
+ * Invalidação:
+ * - Toda escrita (atualizar, emprestar, devolver, deletar) publica um
+ *   LivroAlteradoEvent; depois do commit a entrada do livro é removida
+ * - A próxima leitura busca o valor novo no banco
+ * - Assim ninguém vê o campo "disponivel" desatualizado
+ */
+@Component
+public class LivroCache {
+    
+    private final CacheLimitado<Long, LivroResponse> cache;
+    
+    public LivroCache(@Value("${biblioteca.cache.livros.tamanho-maximo:10000}") int tamanhoMaximo,
+                      @Value("${biblioteca.cache.livros.ttl:10m}") Duration ttl) {
+        this.cache = new CacheLimitado<>("livros", tamanhoMaximo, ttl);
+    }
+    
+    /**
+     * Livro do cache ou carregado pelo carregador (null = não existe, não é guardado).
+     */
+    public LivroResponse obterOuCarregar(Long id, Function<Long, LivroResponse> carregador) {
+        return cache.obterOuCarregar(id, carregador);
+    }
+    
+    /**
+     * Vários livros: os que estão no cache saem dele, os outros são
+     * carregados de uma vez pelo carregador (IDs inexistentes ficam de fora).
+     */
+    public Map<Long, LivroResponse> obterOuCarregarVarios(Collection<Long> ids,
+                                                          Function<List<Long>, Map<Long, LivroResponse>> carregador) {
+        return cache.obterOuCarregarVarios(ids, carregador);
+    }
+    
+    /**
+     * Livro do cache, sem ir ao banco (null se não estiver lá).
+     */
+    public LivroResponse obter(Long id) {
+        return cache.obter(id);
+    }
+    
+    /**
+     * Livro do cache sem contar acerto/falha nem mexer na ordem LRU
+     * (null se não estiver lá). Ver CacheLimitado.espiar().
+     */
+    public LivroResponse espiar(Long id) {
+        return cache.espiar(id);
+    }
+    
+    /**
+     * Remove o livro do cache depois que a escrita for confirmada no banco.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        // Livro novo ainda não pode estar no cache
+        if (evento.tipo() != TipoAlteracao.CRIADO) {
+            cache.invalidar(evento.id());
+        }
+    }
+    
+    public CacheLimitado.Estatisticas estatisticas() {
+        return cache.estatisticas();
+    }
+}
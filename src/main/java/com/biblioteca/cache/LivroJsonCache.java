@@ -0,0 +1,107 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache do JSON já pronto (bytes UTF-8) de cada livro.
+ *
+ * Por que?
+ * Nas listagens, a maior parte da CPU ia para o Jackson montar o JSON de
+ * cada livro (principalmente formatar a dataCadastro), sempre igual.
+ * Aqui cada livro é serializado uma vez; as listas são montadas
+ * só copiando bytes: "[" + livro1 + "," + livro2 + ... + "]".
+ *
+ * Chave: id do livro, guardando junto a versão (@Version) serializada.
+ * - Toda escrita sobe a versão: um fragmento de outra versão nunca é usado,
+ *   mesmo que chegue atrasado de uma leitura antiga
+ * - Toda escrita também publica um LivroAlteradoEvent, e o fragmento
+ *   é removido depois do commit (não ocupa espaço à toa)
+ *
+ * O JSON é gerado pelo mesmo ObjectMapper do Spring: o formato é
+ * idêntico ao da serialização normal.
+ *
+ * Usado pelo LivroJsonHttpMessageConverter.
+ */
+@Component
+public class LivroJsonCache {
+
+    private static final byte[] ABRE_LISTA = {'['};
+    private static final byte[] SEPARADOR = {','};
+    private static final byte[] FECHA_LISTA = {']'};
+
+    private final CacheLimitado<Long, Fragmento> cache;
+    private final ObjectWriter writer;
+
+    public LivroJsonCache(ObjectMapper objectMapper,
+                          @Value("${biblioteca.cache.json.tamanho-maximo:50000}") int tamanhoMaximo,
+                          @Value("${biblioteca.cache.json.ttl:30m}") Duration ttl) {
+        this.cache = new CacheLimitado<>("livros_json", tamanhoMaximo, ttl);
+        this.writer = objectMapper.writerFor(LivroResponse.class);
+    }
+
+    /**
+     * JSON do livro (do cache, ou serializado agora e guardado).
+     */
+    public byte[] json(LivroResponse livro) throws JsonProcessingException {
+        // Sem id/versão não há como saber se o fragmento é o mesmo
+        if (livro.getId() == null || livro.getVersao() == null) {
+            return writer.writeValueAsBytes(livro);
+        }
+
+        Fragmento fragmento = cache.obter(livro.getId());
+        if (fragmento != null && fragmento.versao() == livro.getVersao()) {
+            return fragmento.json();
+        }
+
+        byte[] json = writer.writeValueAsBytes(livro);
+        cache.guardar(livro.getId(), new Fragmento(livro.getVersao(), json));
+        return json;
+    }
+
+    /**
+     * Escreve a lista como array JSON, concatenando os fragmentos.
+     */
+    public void escreverLista(List<LivroResponse> livros, OutputStream saida) throws IOException {
+        saida.write(ABRE_LISTA);
+        for (int i = 0; i < livros.size(); i++) {
+            if (i > 0) {
+                saida.write(SEPARADOR);
+            }
+            saida.write(json(livros.get(i)));
+        }
+        saida.write(FECHA_LISTA);
+    }
+
+    /**
+     * Descarta o fragmento depois que a escrita for confirmada no banco.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        // Livro novo ainda não pode estar no cache
+        if (evento.tipo() != TipoAlteracao.CRIADO) {
+            cache.invalidar(evento.id());
+        }
+    }
+
+    public CacheLimitado.Estatisticas estatisticas() {
+        return cache.estatisticas();
+    }
+
+    /**
+     * JSON de uma versão do livro.
+     */
+    private record Fragmento(long versao, byte[] json) {}
+}
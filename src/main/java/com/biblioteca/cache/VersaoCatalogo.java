@@ -0,0 +1,89 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.replicacao.ConsistenciaLeitura;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ETags dos livros e das listagens, para GET condicional (If-None-Match → 304).
+ *
+ * O que é ETag?
+ * Um "carimbo" da versão da resposta. O cliente guarda o carimbo e, na
+ * próxima vez, manda If-None-Match com ele. Se nada mudou, a API responde
+ * 304 Not Modified, sem corpo (e aqui também sem consultar o banco).
+ *
+ * Dois carimbos:
+ * - Livro: "<inicio>-<id>-v<versao>" - a versão da linha (@Version).
+ *   Para responder 304 sem consulta, a versão atual vem do LivroCache
+ *   (invalidado a cada escrita). Livro fora do cache → consulta normal.
+ * - Listagens: "<inicio>-c<contador>" - contador de alterações do catálogo,
+ *   que sobe a cada escrita confirmada (qualquer livro). Se não subiu,
+ *   nenhuma listagem mudou.
+ *
+ * <inicio> é o instante em que a aplicação subiu: o banco em memória
+ * recomeça do zero a cada reinício, e o mesmo id/versão pode ser outro livro.
+ *
+ * Com réplicas de leitura, quem pega o ETag das listagens só lê réplicas
+ * que já receberam a última alteração contada: senão uma réplica atrasada
+ * responderia conteúdo antigo com o carimbo novo, e o cliente guardaria
+ * esse conteúdo até a próxima escrita.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersaoCatalogo {
+
+    private static final String INICIO = Long.toString(System.currentTimeMillis(), 36);
+
+    private final LivroCache cache;
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    /**
+     * Instante (epoch ms) da última alteração contada.
+     */
+    private volatile long ultimaAlteracao;
+
+    /**
+     * Conta a alteração depois do commit: quem ler o contador depois disso
+     * já enxerga os dados novos.
+     *
+     * O instante é gravado antes do contador: quem lê o contador novo
+     * também enxerga o instante novo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        ultimaAlteracao = System.currentTimeMillis();
+        alteracoes.incrementAndGet();
+    }
+
+    /**
+     * ETag das listagens no momento.
+     *
+     * Ler ANTES de consultar: se uma escrita acontecer no meio, a resposta
+     * sai com o carimbo antigo e o cliente só revalida de novo (nunca o contrário).
+     */
+    public String etagCatalogo() {
+        String etag = "\"" + INICIO + "-c" + alteracoes.get() + "\"";
+        ConsistenciaLeitura.exigirPosicao(ultimaAlteracao);
+        return etag;
+    }
+
+    public String etagLivro(LivroResponse livro) {
+        return "\"" + INICIO + "-" + livro.getId() + "-v" + livro.getVersao() + "\"";
+    }
+
+    /**
+     * ETag do livro sem ir ao banco (null se o livro não estiver no cache).
+     *
+     * Só espia o cache: um 304 não é leitura do livro, então não conta
+     * como acerto nem renova a posição dele no LRU.
+     */
+    public String etagLivroEmCache(Long id) {
+        LivroResponse emCache = cache.espiar(id);
+        return emCache != null ? etagLivro(emCache) : null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.biblioteca.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead na frente do pool de conexões.
+ *
+ * Com threads virtuais o Tomcat não tem mais o limite de 200 threads:
+ * milhares de requisições podem chegar juntas ao banco. O pool (Hikari)
+ * tem poucas conexões, então quase todas ficariam esperando nele até o
+ * connection-timeout (30s) e só então falhariam.
+ *
+ * O bulkhead limita quantas conexões podem estar em uso ao mesmo tempo:
+ * 1. getConnection() pede uma permissão ao semáforo (fila justa, FIFO)
+ * 2. Se não conseguir dentro da espera máxima (curta), falha na hora
+ *    com BancoSobrecarregadoException → HTTP 503 com Retry-After
+ * 3. A permissão volta quando a conexão é fechada (devolvida ao pool)
+ *
+ * O Semaphore estaciona a thread virtual sem prender a thread do
+ * sistema operacional, ao contrário de esperas dentro de blocos synchronized.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final int maximoConcorrentes;
+    private final long esperaMaximaNanos;
+    private final LongAdder rejeitadas = new LongAdder();
+
+    public BulkheadDataSource(DataSource alvo, int maximoConcorrentes, Duration esperaMaxima) {
+        super(alvo);
+        this.maximoConcorrentes = maximoConcorrentes;
+        this.permissoes = new Semaphore(maximoConcorrentes, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    private void adquirir() throws SQLException {
+        boolean conseguiu;
+        try {
+            conseguiu = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido esperando conexão", e);
+        }
+        if (!conseguiu) {
+            rejeitadas.increment();
+            throw new BancoSobrecarregadoException(maximoConcorrentes);
+        }
+    }
+
+    /**
+     * Proxy da conexão que devolve a permissão no close() (uma única vez).
+     */
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("close") && liberada.compareAndSet(false, true)) {
+                        try {
+                            return metodo.invoke(conexao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permissoes.release();
+                        }
+                    }
+                    if (metodo.getName().equals("unwrap") || metodo.getName().equals("isWrapperFor")) {
+                        Class<?> tipo = (Class<?>) args[0];
+                        if (tipo.isInstance(proxy)) {
+                            return metodo.getName().equals("unwrap") ? proxy : true;
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(maximoConcorrentes,
+                maximoConcorrentes - permissoes.availablePermits(),
+                permissoes.getQueueLength(),
+                rejeitadas.sum());
+    }
+
+    /**
+     * Situação do bulkhead: conexões em uso, threads na fila e pedidos recusados.
+     */
+    public record Estatisticas(int maximoConcorrentes, int emUso, int aguardando, long rejeitadas) {}
+
+    /**
+     * Nenhuma conexão livre dentro da espera máxima.
+     *
+     * É uma SQLTransientConnectionException: o Spring e o Hibernate a
+     * tratam como falha ao obter conexão, e o GlobalExceptionHandler
+     * responde 503 em vez de 500.
+     */
+    public static class BancoSobrecarregadoException extends SQLTransientConnectionException {
+
+        public BancoSobrecarregadoException(int maximoConcorrentes) {
+            super("Limite de " + maximoConcorrentes + " conexões simultâneas atingido");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.biblioteca.config;
+
+import com.biblioteca.cache.FabricaRegioesCache;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Liga o cache de consultas do Hibernate.
+ *
+ * O que fica em cache: as consultas do LivroRepository marcadas com
+ * HINT_CACHEABLE (por autor, por ano), região "livro_consultas".
+ * Entidades não (ver FabricaRegioesCache).
+ *
+ * spring.jpa.properties.hibernate.cache.use_second_level_cache e
+ * use_query_cache ficam no application.properties (dá para desligar lá).
+ *
+ * A fábrica de regiões é criada aqui e entregue pronta ao Hibernate
+ * (o Hibernate aceita a instância no lugar do nome da classe): assim os
+ * tamanhos vêm das propriedades biblioteca.cache.hibernate.* e as
+ * estatísticas ficam acessíveis ao monitoramento.
+ */
+@Configuration
+public class CacheHibernateConfig {
+
+    @Bean
+    public FabricaRegioesCache fabricaRegioesCache(
+            @Value("${biblioteca.cache.hibernate.consultas.tamanho-maximo:500}") int tamanhoConsultas,
+            @Value("${biblioteca.cache.hibernate.consultas.ttl:10m}") Duration ttlConsultas) {
+        return new FabricaRegioesCache(tamanhoConsultas, ttlConsultas);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(FabricaRegioesCache fabrica) {
+        return propriedades -> propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, fabrica);
+    }
+}
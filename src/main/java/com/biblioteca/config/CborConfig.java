@@ -0,0 +1,41 @@
+package com.biblioteca.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Respostas em CBOR (application/cbor) para quem pedir no Accept.
+ *
+ * Por que?
+ * Os serviços internos baixam listas grandes de livros; em CBOR o corpo
+ * fica menor e é mais rápido de gerar e de ler que o JSON em texto
+ * (números em binário, textos com o tamanho na frente, sem escapes).
+ *
+ * Quem escreve é o próprio Jackson (jackson-dataformat-cbor), montado pelo
+ * mesmo Jackson2ObjectMapperBuilder do JSON: mesmos nomes de campos, datas
+ * em texto ISO e demais regras de spring.jackson.*. Erros (ex: o corpo de
+ * um 404) também saem em CBOR para quem pede só CBOR.
+ *
+ * Negociação:
+ * - Accept: application/cbor → este conversor
+ * - Sem Accept, Accept: * / * ou application/json → JSON, como sempre
+ *
+ * Por que @Bean e não extendMessageConverters?
+ * O Spring Boot põe um conversor declarado como bean no lugar do conversor
+ * padrão da mesma classe, que fica DEPOIS do JSON na lista. Quando o cliente
+ * aceita qualquer formato, o Spring usa o primeiro da lista que consegue
+ * escrever a resposta: o JSON continua sendo o padrão e o CBOR só é usado
+ * quando pedido.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // O builder do Spring Boot é prototype: cada injeção recebe uma cópia nova
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,72 @@
+package com.biblioteca.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Compacta o arquivo do banco ao desligar a aplicação (perfil "producao").
+ *
+ * Por que não deixar o H2 compactar sozinho?
+ * - O H2 nunca sobrescreve uma linha: cada alteração grava a versão nova em
+ *   outro lugar do arquivo, e a antiga vira espaço livre. Empréstimos,
+ *   devoluções e importações deixam o arquivo cada vez mais "esburacado"
+ * - A compactação automática (em segundo plano) move dados enquanto há
+ *   leituras longas abertas; com LAZY_QUERY_EXECUTION (exportação e
+ *   reconstrução dos índices na subida) o H2 2.2 às vezes perde o trecho
+ *   que o cursor ainda ia ler ("Chunk ... not found")
+ *
+ * Por isso o perfil desliga a automática (AUTO_COMPACT_FILL_RATE=0) e o
+ * arquivo é reescrito por inteiro aqui, no fim de um desligamento normal
+ * (SHUTDOWN COMPACT), quando ninguém mais está lendo. Na próxima subida o
+ * arquivo é menor e o cache de páginas rende mais.
+ * Ex: 2 milhões de livros depois de uma importação: 4,7 GB → 150 MB em ~6s.
+ *
+ * DisposableBean: o Spring destrói os beans depois de o Tomcat terminar as
+ * requisições em andamento. Aqui o pool é fechado primeiro e o SHUTDOWN vai
+ * por uma conexão própria: o Hikari não fica com conexões de um banco já
+ * fechado (que ele tentaria encerrar depois, sujando o log do H2).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "biblioteca.dados.compactar-ao-desligar", havingValue = "true")
+public class CompactacaoBancoDados implements DisposableBean {
+
+    private final DataSource dataSource;
+
+    public CompactacaoBancoDados(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void destroy() {
+        long inicio = System.currentTimeMillis();
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                log.warn("Compactação ao desligar exige o pool do Hikari; banco não compactado");
+                return;
+            }
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            pool.close();
+
+            log.info("Compactando o arquivo do banco...");
+            try (Connection conexao = DriverManager.getConnection(
+                         pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+                 Statement comando = conexao.createStatement()) {
+                comando.execute("SHUTDOWN COMPACT");
+            }
+            log.info("Banco compactado e fechado em {} ms", System.currentTimeMillis() - inicio);
+        } catch (SQLException e) {
+            // Não impede o desligamento: o banco continua íntegro, só não foi compactado
+            log.warn("Não foi possível compactar o banco ao desligar", e);
+        }
+    }
+}
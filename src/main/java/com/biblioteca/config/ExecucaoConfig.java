@@ -0,0 +1,112 @@
+package com.biblioteca.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Modo de execução das requisições: threads de plataforma ou virtuais.
+ *
+ * Plataforma (padrão):
+ * - Cada requisição ocupa uma thread do Tomcat (máx. 200)
+ * - Enquanto espera o JDBC, a thread fica parada
+ *
+ * Virtual (perfil "virtual", Java 21+):
+ * - spring.threads.virtual.enabled=true
+ * - O Spring Boot passa a rodar o Tomcat, o @Async e a exportação em
+ *   streaming em threads virtuais: uma por requisição, sem limite de 200
+ * - Os métodos @Transactional do service rodam na mesma thread da
+ *   requisição, então também ficam em threads virtuais
+ * - Esperar o banco não prende uma thread do sistema operacional
+ *
+ * Como as requisições deixam de ter limite, quem passa a limitar é o
+ * BulkheadDataSource (biblioteca.bulkhead.*), na frente do pool de conexões.
+ *
+ * Exige Java 21+ na execução. Em Java < 21 o Spring Boot ignoraria a opção
+ * e a aplicação rodaria com threads de plataforma achando que está no modo
+ * virtual: aqui ela não sobe (mesma ideia do ReplicasConfig). Build com
+ * JDK 21: perfil Maven "java21" (ativado sozinho, compila para Java 21).
+ *
+ * Situação atual: GET /api/monitoramento/execucao
+ */
+@Slf4j
+@Configuration
+public class ExecucaoConfig {
+
+    public ExecucaoConfig(Environment env) {
+        if (env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && !Threading.VIRTUAL.isActive(env)) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true exige Java 21+ (atual: "
+                    + Runtime.version().feature() + ")");
+        }
+    }
+
+    /**
+     * Envolve o DataSource com o bulkhead (só se biblioteca.bulkhead.enabled=true).
+     *
+     * max-conexoes=0 usa o tamanho do pool do Hikari: o bulkhead não
+     * reduz a vazão, só troca a espera longa do pool por uma fila justa
+     * com tempo curto e resposta 503.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "biblioteca.bulkhead.enabled", havingValue = "true")
+    static BeanPostProcessor bulkheadBancoDados(Environment env) {
+        return new BulkheadPostProcessor(env);
+    }
+
+    /**
+     * Ordered: roda antes dos pós-processadores sem ordem (ex: o das
+     * métricas), então o bulkhead fica por dentro, colado no pool.
+     */
+    private static class BulkheadPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment env;
+
+        BulkheadPostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                return bean;
+            }
+            int maximo = env.getProperty("biblioteca.bulkhead.max-conexoes", Integer.class, 0);
+            if (maximo <= 0) {
+                maximo = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+            }
+            Duration espera = env.getProperty("biblioteca.bulkhead.espera-maxima",
+                    Duration.class, Duration.ofMillis(500));
+
+            log.info("Bulkhead do banco: {} conexões simultâneas, espera máxima {}", maximo, espera);
+            return new BulkheadDataSource(dataSource, maximo, espera);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void informarModo(ApplicationReadyEvent evento) {
+        log.info("Execução das requisições: threads {}",
+                Threading.VIRTUAL.isActive(evento.getApplicationContext().getEnvironment())
+                        ? "virtuais" : "de plataforma");
+    }
+
+    public static String modo(Environment env) {
+        return Threading.VIRTUAL.isActive(env) ? "virtual" : "plataforma";
+    }
+}
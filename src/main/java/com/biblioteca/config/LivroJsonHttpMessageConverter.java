@@ -0,0 +1,134 @@
+package com.biblioteca.config;
+
+import com.biblioteca.cache.LivroJsonCache;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.PaginaResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Escreve as respostas de livros em JSON usando o LivroJsonCache.
+ *
+ * Atende (só escrita, só application/json):
+ * - LivroResponse
+ * - List<LivroResponse> (listagens)
+ * - PaginaResponse<LivroResponse> (listagem paginada)
+ *
+ * Os controllers continuam retornando ResponseEntity<List<LivroResponse>>;
+ * o Spring escolhe este conversor pelo tipo declarado do corpo.
+ * O resto (erros, importação, monitoramento) segue com o Jackson.
+ *
+ * Por ser um @Component do tipo HttpMessageConverter, o Spring Boot o
+ * coloca na frente do conversor padrão do Jackson.
+ */
+@Component
+public class LivroJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /**
+     * Início do JSON da página com a lista vazia: {"itens":[]
+     */
+    private static final byte[] PAGINA_ITENS_VAZIOS = "{\"itens\":[]".getBytes(StandardCharsets.UTF_8);
+    private static final int PAGINA_ITENS_INICIO = "{\"itens\":".length();
+
+    private final LivroJsonCache jsonCache;
+    private final ObjectMapper objectMapper;
+
+    public LivroJsonHttpMessageConverter(LivroJsonCache jsonCache, ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonCache = jsonCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return atende(type) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Só pelo tipo genérico (canWrite acima); pela classe crua não dá para
+     * saber o tipo dos elementos da lista.
+     */
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return false;
+    }
+
+    private static boolean atende(Type type) {
+        if (type == LivroResponse.class) {
+            return true;
+        }
+        if (type instanceof ParameterizedType parametrizado
+                && parametrizado.getRawType() instanceof Class<?> bruto
+                && parametrizado.getActualTypeArguments().length == 1
+                && parametrizado.getActualTypeArguments()[0] == LivroResponse.class) {
+            return List.class.isAssignableFrom(bruto) || bruto == PaginaResponse.class;
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object valor, Type type, HttpOutputMessage saida) throws IOException {
+        OutputStream corpo = saida.getBody();
+        if (valor instanceof LivroResponse livro) {
+            corpo.write(jsonCache.json(livro));
+        } else if (valor instanceof List<?> livros) {
+            jsonCache.escreverLista((List<LivroResponse>) livros, corpo);
+        } else if (valor instanceof PaginaResponse<?> pagina) {
+            escreverPagina((PaginaResponse<LivroResponse>) pagina, corpo);
+        } else {
+            objectMapper.writeValue(corpo, valor);
+        }
+    }
+
+    /**
+     * Os campos da página (tamanho, temMais, proximoCursor) continuam com o
+     * Jackson: serializa a página com a lista vazia e troca o "[]" pela lista
+     * montada com os fragmentos.
+     */
+    private void escreverPagina(PaginaResponse<LivroResponse> pagina, OutputStream corpo) throws IOException {
+        PaginaResponse<LivroResponse> semItens = new PaginaResponse<>(List.of(), pagina.getTamanho(),
+                pagina.isTemMais(), pagina.getProximoCursor());
+        byte[] json = objectMapper.writeValueAsBytes(semItens);
+
+        // Formato inesperado (ex: ordem dos campos mudou): Jackson puro
+        if (pagina.getItens() == null || json.length < PAGINA_ITENS_VAZIOS.length
+                || !Arrays.equals(json, 0, PAGINA_ITENS_VAZIOS.length,
+                        PAGINA_ITENS_VAZIOS, 0, PAGINA_ITENS_VAZIOS.length)) {
+            objectMapper.writeValue(corpo, pagina);
+            return;
+        }
+
+        corpo.write(json, 0, PAGINA_ITENS_INICIO);
+        jsonCache.escreverLista(pagina.getItens(), corpo);
+        corpo.write(json, PAGINA_ITENS_VAZIOS.length, json.length - PAGINA_ITENS_VAZIOS.length);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage entrada) {
+        throw new HttpMessageNotReadableException("Conversor apenas de escrita", entrada);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage entrada) {
+        throw new HttpMessageNotReadableException("Conversor apenas de escrita", entrada);
+    }
+}
@@ -0,0 +1,134 @@
+package com.biblioteca.config;
+
+import com.biblioteca.busca.IndiceAutocompletar;
+import com.biblioteca.busca.IndiceInvertido;
+import com.biblioteca.cache.EstatisticasCatalogo;
+import com.biblioteca.cache.FiltroIdsExistentes;
+import com.biblioteca.replicacao.ConsistenciaLeitura;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Monta as estruturas em memória (índice de busca, autocompletar, filtro
+ * de IDs e estatísticas do catálogo) depois que a aplicação sobe: em segundo plano e em paralelo.
+ *
+ * Por que?
+ * Com o banco em arquivo (perfil "producao") o catálogo sobrevive ao
+ * reinício e pode ter milhões de livros. Cada reconstrução lê a tabela
+ * inteira; uma depois da outra, dentro do ApplicationReadyEvent, a
+ * subida levaria dezenas de segundos.
+ *
+ * Em segundo plano:
+ * - A API atende assim que o Tomcat sobe, com os dados que já estão no banco
+ * - Enquanto uma estrutura não fica pronta, quem depende dela usa o banco
+ *   (busca com LIKE, filtro de IDs responde "pode existir") ou responde
+ *   vazio (autocompletar), como já acontecia durante a subida
+ * - As quatro leem a tabela ao mesmo tempo, cada uma com sua conexão
+ * - Uma falha fica no log e não derruba a aplicação: aquela estrutura
+ *   continua "não pronta" e o banco responde no lugar dela
+ *
+ * Com réplicas de leitura, as reconstruções leem o primário: as estruturas
+ * ficam em memória e são mantidas pelas alterações confirmadas a partir
+ * daí, então precisam partir de um retrato que já tenha todas elas.
+ *
+ * Threads próprias (daemon), fora do applicationTaskExecutor: desligar a
+ * aplicação no meio de uma reconstrução não espera ela terminar (o Spring
+ * aguardaria as tarefas do executor por até 20s).
+ *
+ * Situação: GET /api/monitoramento/inicializacao
+ */
+@Slf4j
+@Component
+public class ReconstrucaoInicial {
+
+    private final IndiceInvertido indiceInvertido;
+    private final IndiceAutocompletar indiceAutocompletar;
+    private final FiltroIdsExistentes filtroIdsExistentes;
+    private final EstatisticasCatalogo estatisticas;
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("reconstrucao-");
+
+    private volatile CompletableFuture<Void> conclusao = new CompletableFuture<>();
+
+    /**
+     * Tempo até as quatro ficarem prontas (null enquanto não terminam).
+     */
+    private volatile Long duracaoMs;
+
+    private volatile boolean desligando;
+
+    public ReconstrucaoInicial(IndiceInvertido indiceInvertido, IndiceAutocompletar indiceAutocompletar,
+                               FiltroIdsExistentes filtroIdsExistentes, EstatisticasCatalogo estatisticas) {
+        this.indiceInvertido = indiceInvertido;
+        this.indiceAutocompletar = indiceAutocompletar;
+        this.filtroIdsExistentes = filtroIdsExistentes;
+        this.estatisticas = estatisticas;
+        this.executor.setDaemon(true);
+    }
+
+    /**
+     * ApplicationReadyEvent - Executa quando a aplicação termina de subir.
+     * Só dispara as reconstruções e retorna.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        long inicio = System.currentTimeMillis();
+        CompletableFuture.allOf(
+                        executar("Índice de busca", indiceInvertido::reconstruir),
+                        executar("Autocompletar", indiceAutocompletar::reconstruir),
+                        executar("Filtro de IDs", filtroIdsExistentes::reconstruir),
+                        executar("Estatísticas", estatisticas::conferir))
+                .whenComplete((resultado, erro) -> {
+                    duracaoMs = System.currentTimeMillis() - inicio;
+                    if (!desligando) {
+                        log.info("Estruturas em memória montadas em {} ms", duracaoMs);
+                    }
+                    conclusao.complete(null);
+                });
+    }
+
+    private CompletableFuture<Void> executar(String nome, Runnable reconstrucao) {
+        return CompletableFuture.runAsync(() -> ConsistenciaLeitura.noPrimario(reconstrucao), executor)
+                .exceptionally(erro -> {
+                    if (desligando) {
+                        log.info("{}: reconstrução interrompida pelo desligamento", nome);
+                    } else {
+                        log.error("{}: falha ao reconstruir, o banco responde no lugar", nome, erro);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * ContextClosedEvent - Início do desligamento. Reconstruções ainda em
+     * andamento vão falhar quando o pool de conexões fechar (esperado).
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void aoDesligar() {
+        desligando = true;
+    }
+
+    /**
+     * Bloqueia até as reconstruções terminarem (para quem precisa das
+     * estruturas prontas antes de seguir, ex: os benchmarks).
+     */
+    public void aguardar() {
+        conclusao.join();
+    }
+
+    public Situacao situacao() {
+        return new Situacao(indiceInvertido.isPronto(), indiceAutocompletar.isPronto(),
+                filtroIdsExistentes.isPronto(), estatisticas.isPronto(), duracaoMs);
+    }
+
+    /**
+     * Quais estruturas já estão prontas, e quanto tempo levaram no total.
+     */
+    public record Situacao(boolean indiceBusca, boolean autocompletar, boolean filtroIds, boolean estatisticas,
+                           Long duracaoMs) {}
+}
@@ -3,6 +3,7 @@ package com.biblioteca.config;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,8 +18,13 @@ import org.springframework.context.annotation.Configuration;
  * - Mostra todos os endpoints, parâmetros, respostas, etc
  * 
  * Acesso: http://localhost:8080/swagger-ui.html
+ * 
+ * @ConditionalOnProperty - Desligável com springdoc.api-docs.enabled=false
+ * (perfil "producao"): o springdoc não sobe nem varre os controllers e esta
+ * configuração também fica de fora. Ligado por padrão.
  */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class SwaggerConfig {
     
     /**
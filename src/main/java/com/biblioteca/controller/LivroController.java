@@ -1,19 +1,49 @@
 package com.biblioteca.controller;
 
+import com.biblioteca.cache.VersaoCatalogo;
+import com.biblioteca.dto.BuscaPorIdsResponse;
+import com.biblioteca.dto.EstatisticasResponse;
+import com.biblioteca.dto.FiltroLivro;
+import com.biblioteca.dto.ImportacaoResponse;
+import com.biblioteca.feed.FeedDisponibilidade;
 import com.biblioteca.dto.LivroRequest;
 import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.LoteRequest;
+import com.biblioteca.dto.LoteResponse;
+import com.biblioteca.dto.PaginaResponse;
+import com.biblioteca.dto.SugestaoResponse;
+import com.biblioteca.exception.BadRequestException;
+import com.biblioteca.service.ImportacaoService;
 import com.biblioteca.service.LivroService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Controller - Camada de apresentação (endpoints REST).
@@ -43,6 +73,32 @@ public class LivroController {
      */
     private final LivroService service;
     
+    /**
+     * Service da importação em massa.
+     */
+    private final ImportacaoService importacaoService;
+    
+    /**
+     * ObjectMapper configurado pelo Spring (mesmo formato de datas do resto da API).
+     * Usado na exportação, que escreve o JSON "na mão" direto na resposta.
+     */
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * ETags para GET condicional (If-None-Match → 304 sem consultar o banco).
+     */
+    private final VersaoCatalogo versaoCatalogo;
+    
+    /**
+     * Feed das alterações de disponibilidade (Server-Sent Events).
+     */
+    private final FeedDisponibilidade feedDisponibilidade;
+    
+    /**
+     * De quantos em quantos livros a exportação força o envio (flush) ao cliente.
+     */
+    private static final int EXPORTACAO_FLUSH_A_CADA = 500;
+    
     /**
      * CREATE - Cadastrar novo livro.
      * 
@@ -68,6 +124,50 @@ public class LivroController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);  // 201
     }
     
+    /**
+     * CREATE EM MASSA - Importar vários livros de uma vez.
+     * 
+     * consumes - Aceita três formatos, escolhidos pelo Content-Type:
+     * - application/json: array de livros
+     * - application/x-ndjson: um livro JSON por linha
+     * - text/csv: cabeçalho titulo,autor,ano,editora,disponivel
+     * 
+     * InputStream - O corpo é lido em streaming (arquivos de 100 mil+ livros)
+     * 
+     * Cada registro passa pelas mesmas validações do cadastro.
+     * Registros inválidos não impedem os outros: aparecem no relatório.
+     * 
+     * URL: POST http://localhost:8080/api/livros/importar
+     */
+    @PostMapping(value = "/importar", consumes = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE,
+            "text/csv"
+    })
+    @Operation(summary = "Importar livros em massa", 
+               description = "Importa livros de um array JSON, NDJSON ou CSV, em lotes, com relatório de erros por linha")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Importação concluída (ver relatório)"),
+        @ApiResponse(responseCode = "400", description = "Arquivo em formato inválido"),
+        @ApiResponse(responseCode = "415", description = "Content-Type diferente de JSON, NDJSON ou CSV")
+    })
+    public ResponseEntity<ImportacaoResponse> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream corpo) throws IOException {
+        
+        String formato;
+        if (MediaType.APPLICATION_NDJSON.includes(contentType)) {
+            formato = "ndjson";
+        } else if (MediaType.APPLICATION_JSON.includes(contentType)) {
+            formato = "json";
+        } else {
+            formato = "csv";
+        }
+        
+        ImportacaoResponse relatorio = importacaoService.importar(formato, corpo);
+        return ResponseEntity.ok(relatorio);  // 200
+    }
+    
     /**
      * READ - Listar todos os livros.
      * 
@@ -80,10 +180,160 @@ public class LivroController {
     @GetMapping
     @Operation(summary = "Listar todos os livros", 
                description = "Retorna a lista completa de livros cadastrados")
-    @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
-    public ResponseEntity<List<LivroResponse>> listarTodos() {
-        List<LivroResponse> livros = service.listarTodos();
-        return ResponseEntity.ok(livros);  // 200
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nada mudou desde o ETag informado")
+    })
+    public ResponseEntity<List<LivroResponse>> listarTodos(WebRequest webRequest) {
+        return comEtagDoCatalogo(webRequest, service::listarTodos);
+    }
+    
+    /**
+     * READ - Listar livros com paginação por cursor.
+     * 
+     * @RequestParam(required = false) - Parâmetros opcionais da query string
+     * 
+     * A resposta traz "proximoCursor": basta enviá-lo na próxima chamada.
+     * O tempo de resposta é o mesmo na página 1 ou na página 10.000
+     * (não usa OFFSET).
+     * 
+     * URL: GET http://localhost:8080/api/livros/pagina?tamanho=20&ordem=titulo
+     *      GET http://localhost:8080/api/livros/pagina?cursor=djF8VElUVUxP...
+     */
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar livros paginados", 
+               description = "Retorna uma página de livros usando paginação por cursor (keyset)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nada mudou desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamanho ou ordenação inválidos")
+    })
+    public ResponseEntity<PaginaResponse<LivroResponse>> listarPaginado(
+            @Parameter(description = "Cursor devolvido pela página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de livros por página")
+            @RequestParam(required = false) Integer tamanho,
+            @Parameter(description = "Ordenação: id, titulo, autor ou ano")
+            @RequestParam(required = false) String ordem,
+            @Parameter(description = "Direção: asc ou desc")
+            @RequestParam(required = false) String direcao,
+            WebRequest webRequest) {
+        
+        return comEtagDoCatalogo(webRequest,
+                () -> service.listarPaginado(cursor, tamanho, ordem, direcao));
+    }
+    
+    /**
+     * READ - Pesquisa combinada com ordenação e paginação.
+     * 
+     * @ParameterObject - Os campos de FiltroLivro viram parâmetros da
+     * query string (e aparecem um a um no Swagger)
+     * 
+     * Combina os filtros que hoje exigem várias chamadas (/autor, /titulo,
+     * /disponiveis) numa única consulta ao banco. Os filtros informados
+     * são combinados com E; a paginação funciona como em /pagina.
+     * 
+     * URL: GET http://localhost:8080/api/livros/pesquisa?autor=Machado de Assis&disponivel=true&ordem=ano
+     *      GET http://localhost:8080/api/livros/pesquisa?titulo=dom&anoMinimo=1850&anoMaximo=1900
+     */
+    @GetMapping("/pesquisa")
+    @Operation(summary = "Pesquisar livros com filtros combinados", 
+               description = "Filtra por autor, trecho do título, faixa de ano, editora e disponibilidade, "
+                       + "com ordenação e paginação por cursor")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nada mudou desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Filtros, cursor, tamanho ou ordenação inválidos")
+    })
+    public ResponseEntity<PaginaResponse<LivroResponse>> pesquisar(
+            @ParameterObject FiltroLivro filtro,
+            @Parameter(description = "Cursor devolvido pela página anterior (com os mesmos filtros)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de livros por página")
+            @RequestParam(required = false) Integer tamanho,
+            @Parameter(description = "Ordenação: id, titulo, autor ou ano")
+            @RequestParam(required = false) String ordem,
+            @Parameter(description = "Direção: asc ou desc")
+            @RequestParam(required = false) String direcao,
+            WebRequest webRequest) {
+        
+        return comEtagDoCatalogo(webRequest,
+                () -> service.pesquisar(filtro, cursor, tamanho, ordem, direcao));
+    }
+    
+    /**
+     * READ - Exportar o catálogo completo (streaming).
+     * 
+     * StreamingResponseBody - O corpo é escrito aos poucos, em outra thread,
+     * enquanto o banco ainda está lendo. Nada é acumulado em memória.
+     * 
+     * Formatos:
+     * - ndjson (padrão): um livro JSON por linha (application/x-ndjson)
+     * - json: um array JSON, escrito elemento por elemento
+     * 
+     * Ideal para sincronizações noturnas do catálogo inteiro.
+     * 
+     * URL: GET http://localhost:8080/api/livros/exportar
+     *      GET http://localhost:8080/api/livros/exportar?formato=json
+     */
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar catálogo", 
+               description = "Exporta todos os livros em streaming (NDJSON ou array JSON), com memória constante")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+        @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato: ndjson ou json")
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        
+        boolean ndjson;
+        if (formato.equalsIgnoreCase("ndjson")) {
+            ndjson = true;
+        } else if (formato.equalsIgnoreCase("json")) {
+            ndjson = false;
+        } else {
+            throw new BadRequestException("Formato inválido: " + formato + " (use ndjson ou json)");
+        }
+        
+        // Sem flush a cada livro: o flush é feito em blocos (bem mais barato)
+        ObjectWriter writer = objectMapper.writerFor(LivroResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.setRootValueSeparator(null);  // NDJSON: o separador é o "\n" abaixo
+                
+                if (!ndjson) {
+                    gerador.writeStartArray();
+                }
+                gerador.flush();  // Primeiro byte sai imediatamente
+                
+                int[] escritos = {0};
+                service.exportar(livro -> {
+                    try {
+                        writer.writeValue(gerador, livro);
+                        if (ndjson) {
+                            gerador.writeRaw('\n');
+                        }
+                        if (++escritos[0] % EXPORTACAO_FLUSH_A_CADA == 0) {
+                            gerador.flush();
+                        }
+                    } catch (IOException ex) {
+                        // Cliente desconectou: interrompe a leitura do banco
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                
+                if (!ndjson) {
+                    gerador.writeEndArray();
+                }
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(corpo);  // 200
     }
     
     /**
@@ -95,17 +345,75 @@ public class LivroController {
      *          GET http://localhost:8080/api/livros/2
      * 
      * {id} na URL é capturado e passado para o parâmetro Long id
+     * 
+     * GET condicional: a resposta traz ETag (versão do livro). Com
+     * If-None-Match igual e o livro no cache, responde 304 sem consultar o banco.
      */
     @GetMapping("/{id}")
     @Operation(summary = "Buscar livro por ID", 
                description = "Retorna os detalhes de um livro específico")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Livro encontrado"),
+        @ApiResponse(responseCode = "304", description = "Livro não mudou desde o ETag informado"),
         @ApiResponse(responseCode = "404", description = "Livro não encontrado")
     })
-    public ResponseEntity<LivroResponse> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<LivroResponse> buscarPorId(@PathVariable Long id, WebRequest webRequest) {
+        String etagEmCache = versaoCatalogo.etagLivroEmCache(id);
+        if (etagEmCache != null && webRequest.checkNotModified(noFormato(etagEmCache, webRequest))) {
+            return null;  // 304 (status e ETag já definidos pelo checkNotModified)
+        }
+        
         LivroResponse livro = service.buscarPorId(id);
-        return ResponseEntity.ok(livro);  // 200
+        return ResponseEntity.ok()
+                .eTag(noFormato(versaoCatalogo.etagLivro(livro), webRequest))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(livro);  // 200 (ou 304, se o ETag do banco bater)
+    }
+    
+    /**
+     * READ - Buscar vários livros por ID em uma chamada.
+     * 
+     * Para telas que mostram vários livros (ex: a estante de um leitor):
+     * uma requisição e uma consulta ao banco, em vez de um GET /{id} por livro.
+     * Usa o mesmo cache do GET /{id}.
+     * 
+     * URL: GET http://localhost:8080/api/livros/lote?ids=3,1,99
+     */
+    @GetMapping("/lote")
+    @Operation(summary = "Buscar vários livros por ID", 
+               description = "Retorna os livros na ordem dos IDs pedidos e lista separadamente os IDs não encontrados")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Livros retornados"),
+        @ApiResponse(responseCode = "400", description = "Lista de IDs vazia, inválida ou grande demais")
+    })
+    public ResponseEntity<BuscaPorIdsResponse> buscarPorIds(
+            @Parameter(description = "IDs separados por vírgula")
+            @RequestParam List<Long> ids) {
+        
+        BuscaPorIdsResponse resultado = service.buscarPorIds(ids);
+        return ResponseEntity.ok(resultado);  // 200
+    }
+    
+    /**
+     * READ - Buscar vários livros por ID, com os IDs no corpo.
+     * 
+     * Mesmo resultado do GET /lote, para listas que não cabem na URL
+     * (cada ID ocupa alguns caracteres; URLs passam de 8 KB com ~1000 IDs).
+     * 
+     * URL: POST http://localhost:8080/api/livros/lote/buscar
+     * Body: [3, 1, 99]
+     */
+    @PostMapping("/lote/buscar")
+    @Operation(summary = "Buscar vários livros por ID (IDs no corpo)", 
+               description = "Igual ao GET /lote, para listas grandes de IDs")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Livros retornados"),
+        @ApiResponse(responseCode = "400", description = "Lista de IDs vazia, inválida ou grande demais")
+    })
+    public ResponseEntity<BuscaPorIdsResponse> buscarPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        BuscaPorIdsResponse resultado = service.buscarPorIds(ids);
+        return ResponseEntity.ok(resultado);  // 200
     }
     
     /**
@@ -116,41 +424,180 @@ public class LivroController {
     @GetMapping("/autor/{autor}")
     @Operation(summary = "Buscar livros por autor", 
                description = "Retorna todos os livros de um autor específico")
-    @ApiResponse(responseCode = "200", description = "Livros encontrados")
-    public ResponseEntity<List<LivroResponse>> buscarPorAutor(@PathVariable String autor) {
-        List<LivroResponse> livros = service.buscarPorAutor(autor);
-        return ResponseEntity.ok(livros);  // 200
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Livros encontrados"),
+        @ApiResponse(responseCode = "304", description = "Nada mudou desde o ETag informado")
+    })
+    public ResponseEntity<List<LivroResponse>> buscarPorAutor(@PathVariable String autor,
+                                                              WebRequest webRequest) {
+        return comEtagDoCatalogo(webRequest, () -> service.buscarPorAutor(autor));
     }
     
     /**
-     * READ - Buscar livros por título (busca parcial).
+     * READ - Buscar livros por ano de publicação.
      * 
-     * Busca LIKE no banco (encontra títulos que CONTENHAM o texto)
+     * URL: GET http://localhost:8080/api/livros/ano/1899
+     */
+    @GetMapping("/ano/{ano}")
+    @Operation(summary = "Buscar livros por ano", 
+               description = "Retorna todos os livros publicados no ano informado")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Livros encontrados"),
+        @ApiResponse(responseCode = "304", description = "Nada mudou desde o ETag informado")
+    })
+    public ResponseEntity<List<LivroResponse>> buscarPorAno(@PathVariable Integer ano,
+                                                            WebRequest webRequest) {
+        return comEtagDoCatalogo(webRequest, () -> service.buscarPorAno(ano));
+    }
+    
+    /**
+     * READ - Buscar livros por título (busca por palavras).
+     * 
+     * Usa o índice de busca em memória (não varre a tabela).
+     * Ignora acentos e maiúsculas; a última palavra pode estar incompleta.
      * 
      * URL: GET http://localhost:8080/api/livros/titulo/Dom
      * Encontra: "Dom Casmurro", "O Alienista de Dom Pedro", etc
      */
     @GetMapping("/titulo/{titulo}")
     @Operation(summary = "Buscar livros por título", 
-               description = "Busca livros cujo título contenha o texto informado (case insensitive)")
+               description = "Busca livros cujo título contenha as palavras informadas (ignora acentos e maiúsculas)")
     @ApiResponse(responseCode = "200", description = "Livros encontrados")
     public ResponseEntity<List<LivroResponse>> buscarPorTitulo(@PathVariable String titulo) {
         List<LivroResponse> livros = service.buscarPorTitulo(titulo);
         return ResponseEntity.ok(livros);  // 200
     }
     
+    /**
+     * READ - Busca textual por título e autor.
+     * 
+     * Resultado ordenado por relevância (termos raros e no título valem mais).
+     * O último termo pode estar incompleto: "machado casm" encontra "Dom Casmurro".
+     * 
+     * URL: GET http://localhost:8080/api/livros/busca?q=machado dom&limite=10
+     */
+    @GetMapping("/busca")
+    @Operation(summary = "Busca textual", 
+               description = "Busca livros por palavras do título e do autor, ordenados por relevância (ignora acentos e maiúsculas)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Livros encontrados"),
+        @ApiResponse(responseCode = "400", description = "Termos (q) ausentes ou limite inválido")
+    })
+    public ResponseEntity<List<LivroResponse>> buscar(
+            @Parameter(description = "Termos da busca")
+            @RequestParam String q,
+            @Parameter(description = "Quantidade máxima de resultados")
+            @RequestParam(defaultValue = "20") int limite) {
+        
+        List<LivroResponse> livros = service.buscar(q, limite);
+        return ResponseEntity.ok(livros);  // 200
+    }
+    
+    /**
+     * READ - Autocompletar (caixa de busca).
+     * 
+     * Feito para ser chamado a cada tecla: responde do índice em memória,
+     * sem consultar o banco. Sugere títulos e autores que começam com o
+     * texto (ou que têm uma palavra começando com ele), os mais emprestados primeiro.
+     * 
+     * URL: GET http://localhost:8080/api/livros/autocompletar?q=dom ca&limite=10
+     */
+    @GetMapping("/autocompletar")
+    @Operation(summary = "Autocompletar títulos e autores", 
+               description = "Sugestões que começam com o texto digitado, ordenadas por número de empréstimos (ignora acentos e maiúsculas)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sugestões retornadas"),
+        @ApiResponse(responseCode = "400", description = "Texto (q) ausente ou limite inválido")
+    })
+    public ResponseEntity<List<SugestaoResponse>> autocompletar(
+            @Parameter(description = "Texto digitado até agora")
+            @RequestParam String q,
+            @Parameter(description = "Quantidade máxima de sugestões")
+            @RequestParam(defaultValue = "10") int limite) {
+        
+        List<SugestaoResponse> sugestoes = service.autocompletar(q, limite);
+        return ResponseEntity.ok(sugestoes);  // 200
+    }
+    
+    /**
+     * READ - Estatísticas do catálogo (painéis).
+     * 
+     * Total, disponíveis x emprestados, livros por ano e os autores/editoras
+     * com mais livros. Responde dos contadores em memória, sem consultar o
+     * banco; conferidoEm diz quando eles foram conferidos com o banco.
+     * 
+     * URL: GET http://localhost:8080/api/livros/estatisticas?top=10
+     */
+    @GetMapping("/estatisticas")
+    @Operation(summary = "Estatísticas do catálogo", 
+               description = "Total de livros, disponíveis e emprestados, livros por ano e os autores/editoras com mais livros")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Estatísticas retornadas"),
+        @ApiResponse(responseCode = "400", description = "Top inválido")
+    })
+    public ResponseEntity<EstatisticasResponse> estatisticas(
+            @Parameter(description = "Quantos autores e editoras listar")
+            @RequestParam(defaultValue = "10") int top) {
+        
+        EstatisticasResponse estatisticas = service.estatisticas(top);
+        return ResponseEntity.ok(estatisticas);  // 200
+    }
+    
     /**
      * READ - Listar apenas livros disponíveis.
      * 
+     * Feita para ser consultada a cada poucos segundos (quiosques): com
+     * If-None-Match e nada alterado, responde 304 sem consultar o banco.
+     * 
      * URL: GET http://localhost:8080/api/livros/disponiveis
      */
     @GetMapping("/disponiveis")
     @Operation(summary = "Listar livros disponíveis", 
                description = "Retorna apenas os livros que estão disponíveis para empréstimo")
-    @ApiResponse(responseCode = "200", description = "Livros disponíveis listados")
-    public ResponseEntity<List<LivroResponse>> listarDisponiveis() {
-        List<LivroResponse> livros = service.listarDisponiveis();
-        return ResponseEntity.ok(livros);  // 200
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Livros disponíveis listados"),
+        @ApiResponse(responseCode = "304", description = "Nada mudou desde o ETag informado")
+    })
+    public ResponseEntity<List<LivroResponse>> listarDisponiveis(WebRequest webRequest) {
+        return comEtagDoCatalogo(webRequest, service::listarDisponiveis);
+    }
+    
+    /**
+     * READ - Feed das alterações de disponibilidade (Server-Sent Events).
+     * 
+     * Substitui a consulta repetida de /disponiveis: o painel carrega a
+     * lista uma vez e depois recebe cada alteração (id, disponivel, versao)
+     * assim que ela é confirmada no banco.
+     * 
+     * Reconexão: o EventSource do navegador reenvia o Last-Event-ID sozinho
+     * e recebe o que perdeu. Se o ID for antigo demais, chega o evento
+     * "reiniciar": recarregue /disponiveis e continue ouvindo.
+     * 
+     * URL: GET http://localhost:8080/api/livros/disponiveis/eventos
+     * 
+     * JavaScript:
+     *   const feed = new EventSource("/api/livros/disponiveis/eventos");
+     *   feed.onmessage = e => aplicar(JSON.parse(e.data));
+     *   feed.addEventListener("reiniciar", () => recarregarLista());
+     */
+    @GetMapping(value = "/disponiveis/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Feed de alterações de disponibilidade", 
+               description = "Stream SSE com cada empréstimo, devolução, cadastro, alteração e remoção, com retomada por Last-Event-ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream aberto"),
+        @ApiResponse(responseCode = "503", description = "Limite de conexões do feed atingido")
+    })
+    public ResponseEntity<SseEmitter> feedDisponibilidade(
+            @Parameter(description = "ID do último evento recebido (enviado automaticamente pelo EventSource)")
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId,
+            @Parameter(description = "Alternativa ao cabeçalho Last-Event-ID (ex: ao recarregar a página)")
+            @RequestParam(required = false) String ultimoEvento) {
+        
+        return feedDisponibilidade.assinar(ultimoEventoId != null ? ultimoEventoId : ultimoEvento)
+                .map(ResponseEntity::ok)  // 200
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());  // 503
     }
     
     /**
@@ -169,7 +616,8 @@ public class LivroController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Livro atualizado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-        @ApiResponse(responseCode = "404", description = "Livro não encontrado")
+        @ApiResponse(responseCode = "404", description = "Livro não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Livro alterado por outra requisição ao mesmo tempo")
     })
     public ResponseEntity<LivroResponse> atualizar(
             @PathVariable Long id, 
@@ -194,7 +642,8 @@ public class LivroController {
                description = "Marca o livro como emprestado (indisponível)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Livro emprestado com sucesso"),
-        @ApiResponse(responseCode = "404", description = "Livro não encontrado")
+        @ApiResponse(responseCode = "404", description = "Livro não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Livro já está emprestado")
     })
     public ResponseEntity<LivroResponse> emprestar(@PathVariable Long id) {
         LivroResponse livro = service.emprestar(id);
@@ -213,13 +662,60 @@ public class LivroController {
                description = "Marca o livro como devolvido (disponível)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Livro devolvido com sucesso"),
-        @ApiResponse(responseCode = "404", description = "Livro não encontrado")
+        @ApiResponse(responseCode = "404", description = "Livro não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Livro não está emprestado")
     })
     public ResponseEntity<LivroResponse> devolver(@PathVariable Long id) {
         LivroResponse livro = service.devolver(id);
         return ResponseEntity.ok(livro);  // 200
     }
     
+    /**
+     * UPDATE PARCIAL EM LOTE - Emprestar vários livros de uma vez.
+     * 
+     * URL: PATCH http://localhost:8080/api/livros/lote/emprestar
+     * Body: { "ids": [1, 2, 3], "tudoOuNada": false }
+     * 
+     * Uma requisição e uma transação para a pilha inteira.
+     * Cada ID volta com o próprio resultado (OK, NAO_ENCONTRADO, JA_EMPRESTADO).
+     * Com tudoOuNada=true e algum ID com problema: nada é alterado → 409.
+     */
+    @PatchMapping("/lote/emprestar")
+    @Operation(summary = "Emprestar livros em lote", 
+               description = "Empresta vários livros em uma transação, com resultado por ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote processado (ver o resultado de cada ID)"),
+        @ApiResponse(responseCode = "400", description = "JSON mal formado, lista de IDs vazia ou grande demais"),
+        @ApiResponse(responseCode = "409", description = "tudoOuNada=true e algum livro não pôde ser emprestado")
+    })
+    public ResponseEntity<LoteResponse> emprestarEmLote(@Valid @RequestBody LoteRequest request) {
+        return respostaLote(service.emprestarEmLote(request));
+    }
+    
+    /**
+     * UPDATE PARCIAL EM LOTE - Devolver vários livros de uma vez.
+     * 
+     * URL: PATCH http://localhost:8080/api/livros/lote/devolver
+     * Body: { "ids": [1, 2, 3], "tudoOuNada": false }
+     */
+    @PatchMapping("/lote/devolver")
+    @Operation(summary = "Devolver livros em lote", 
+               description = "Devolve vários livros em uma transação, com resultado por ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote processado (ver o resultado de cada ID)"),
+        @ApiResponse(responseCode = "400", description = "JSON mal formado, lista de IDs vazia ou grande demais"),
+        @ApiResponse(responseCode = "409", description = "tudoOuNada=true e algum livro não pôde ser devolvido")
+    })
+    public ResponseEntity<LoteResponse> devolverEmLote(@Valid @RequestBody LoteRequest request) {
+        return respostaLote(service.devolverEmLote(request));
+    }
+    
+    private static ResponseEntity<LoteResponse> respostaLote(LoteResponse resultado) {
+        return resultado.isAplicado()
+                ? ResponseEntity.ok(resultado)                                   // 200
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(resultado);   // 409
+    }
+    
     /**
      * DELETE - Deletar livro.
      * 
@@ -243,4 +739,73 @@ public class LivroController {
         service.deletar(id);
         return ResponseEntity.noContent().build();  // 204
     }
+    
+    /**
+     * GET condicional das listagens, com o ETag do catálogo inteiro.
+     * 
+     * - If-None-Match igual ao ETag atual: 304, sem chamar a consulta
+     * - Senão: executa a consulta e devolve 200 com o ETag
+     * 
+     * O ETag é lido ANTES da consulta (ver VersaoCatalogo.etagCatalogo).
+     * 
+     * Cache-Control: no-cache - o cliente pode guardar a resposta, mas
+     * deve revalidar (If-None-Match) antes de usá-la.
+     * 
+     * Vary: Accept - a mesma URL responde em JSON ou CBOR; caches no
+     * caminho guardam uma cópia por formato (e cada formato tem seu ETag,
+     * ver noFormato).
+     * 
+     * Não vale para /titulo e /busca: o resultado delas também depende
+     * do índice em memória, que fica pronto depois da subida.
+     */
+    private <T> ResponseEntity<T> comEtagDoCatalogo(WebRequest webRequest, Supplier<T> consulta) {
+        String etag = noFormato(versaoCatalogo.etagCatalogo(), webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return null;  // 304
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(consulta.get());  // 200
+    }
+    
+    /**
+     * O ETag identifica o corpo exato da resposta: o mesmo livro em JSON e
+     * em CBOR são corpos diferentes, então o CBOR ganha o sufixo "-cbor".
+     * Sem isso, um If-None-Match guardado da versão JSON daria 304 para
+     * quem agora pede CBOR (e vice-versa).
+     */
+    private static String noFormato(String etag, WebRequest webRequest) {
+        if (!pedeCbor(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-cbor\"";
+    }
+    
+    /**
+     * Mesma escolha do Spring: o tipo aceito mais específico (e com maior q)
+     * decide. Accept: * / * cai no JSON, que vem antes do CBOR na lista de
+     * conversores (ver CborConfig).
+     */
+    private static boolean pedeCbor(String accept) {
+        if (accept == null || !accept.contains("cbor")) {
+            return false;
+        }
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(tipos);
+            for (MediaType tipo : tipos) {
+                if (tipo.includes(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+                if (tipo.includes(MediaType.APPLICATION_CBOR)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,165 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.cache.CacheLimitado;
+import com.biblioteca.cache.FabricaRegioesCache;
+import com.biblioteca.cache.LivroCache;
+import com.biblioteca.config.BulkheadDataSource;
+import com.biblioteca.config.ExecucaoConfig;
+import com.biblioteca.config.ReconstrucaoInicial;
+import com.biblioteca.dto.BackupResponse;
+import com.biblioteca.replicacao.RoteamentoLeituraDataSource;
+import com.biblioteca.service.BackupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Controller - Endpoints de monitoramento da aplicação.
+ * 
+ * Não fazem parte da API de livros: servem para a operação
+ * acompanhar caches e dimensionar a aplicação em produção.
+ * 
+ * As métricas para o Prometheus ficam no Actuator: GET /actuator/prometheus
+ * (ver MetricasConfig).
+ */
+@RestController
+@RequestMapping("/api/monitoramento")
+@RequiredArgsConstructor
+@Tag(name = "Monitoramento", description = "Estatísticas internas da aplicação")
+public class MonitoramentoController {
+    
+    private final LivroCache livroCache;
+    private final FabricaRegioesCache fabricaRegioesCache;
+    private final DataSource dataSource;
+    private final Environment environment;
+    private final ReconstrucaoInicial reconstrucaoInicial;
+    private final BackupService backupService;
+    
+    /**
+     * Estatísticas do cache de livros por ID.
+     * 
+     * URL: GET http://localhost:8080/api/monitoramento/cache
+     */
+    @GetMapping("/cache")
+    @Operation(summary = "Estatísticas do cache de livros", 
+               description = "Tamanho, acertos, falhas, remoções e taxa de acerto do cache de buscarPorId")
+    @ApiResponse(responseCode = "200", description = "Estatísticas retornadas")
+    public ResponseEntity<CacheLimitado.Estatisticas> cache() {
+        return ResponseEntity.ok(livroCache.estatisticas());  // 200
+    }
+    
+    /**
+     * Estatísticas do cache de consultas do Hibernate, uma por região
+     * ("livro_consultas").
+     * 
+     * taxaAcerto baixa = a região custa memória e não evita consultas:
+     * diminua o tamanho ou desligue (spring.jpa.properties.hibernate.cache.*).
+     * 
+     * URL: GET http://localhost:8080/api/monitoramento/cache/hibernate
+     */
+    @GetMapping("/cache/hibernate")
+    @Operation(summary = "Estatísticas do cache de segundo nível do Hibernate", 
+               description = "Tamanho, acertos, falhas, remoções e taxa de acerto de cada região de consultas")
+    @ApiResponse(responseCode = "200", description = "Estatísticas retornadas")
+    public ResponseEntity<List<FabricaRegioesCache.EstatisticasRegiao>> cacheHibernate() {
+        return ResponseEntity.ok(fabricaRegioesCache.estatisticas());  // 200
+    }
+    
+    /**
+     * Modo de execução (plataforma ou virtual) e situação do bulkhead do banco.
+     * 
+     * URL: GET http://localhost:8080/api/monitoramento/execucao
+     * 
+     * bulkhead = null quando biblioteca.bulkhead.enabled=false
+     */
+    @GetMapping("/execucao")
+    @Operation(summary = "Modo de execução das requisições", 
+               description = "Threads de plataforma ou virtuais, versão do Java e uso do bulkhead de conexões")
+    @ApiResponse(responseCode = "200", description = "Situação retornada")
+    public ResponseEntity<Execucao> execucao() throws SQLException {
+        // O DataSource pode estar envolvido por outros (réplicas): procura o bulkhead na cadeia
+        BulkheadDataSource.Estatisticas bulkhead = dataSource.isWrapperFor(BulkheadDataSource.class)
+                ? dataSource.unwrap(BulkheadDataSource.class).estatisticas() : null;
+        
+        return ResponseEntity.ok(new Execucao(          // 200
+                ExecucaoConfig.modo(environment),
+                Runtime.version().feature(),
+                bulkhead));
+    }
+    
+    public record Execucao(String modo, int versaoJava, BulkheadDataSource.Estatisticas bulkhead) {}
+    
+    /**
+     * Réplicas de leitura: atraso e leituras atendidas por cada uma, e
+     * leituras que foram ao primário por falta de réplica em dia.
+     * 
+     * URL: GET http://localhost:8080/api/monitoramento/replicas
+     * 
+     * 404 quando biblioteca.replicas.enabled=false (tudo vai ao primário).
+     */
+    @GetMapping("/replicas")
+    @Operation(summary = "Situação das réplicas de leitura", 
+               description = "Tolerância de atraso, atraso atual e leituras de cada réplica, e leituras enviadas ao primário")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Situação retornada"),
+        @ApiResponse(responseCode = "404", description = "Réplicas desligadas")
+    })
+    public ResponseEntity<RoteamentoLeituraDataSource.Situacao> replicas() throws SQLException {
+        if (!dataSource.isWrapperFor(RoteamentoLeituraDataSource.class)) {
+            return ResponseEntity.notFound().build();  // 404
+        }
+        return ResponseEntity.ok(dataSource.unwrap(RoteamentoLeituraDataSource.class).situacao());  // 200
+    }
+    
+    /**
+     * Quais estruturas em memória (índice de busca, autocompletar, filtro
+     * de IDs, estatísticas) já foram montadas desde a subida.
+     * 
+     * URL: GET http://localhost:8080/api/monitoramento/inicializacao
+     * 
+     * A API já atende antes disso (usando o banco); duracaoMs = null
+     * enquanto alguma ainda está sendo montada.
+     */
+    @GetMapping("/inicializacao")
+    @Operation(summary = "Situação das estruturas em memória", 
+               description = "Se o índice de busca, o autocompletar, o filtro de IDs e as estatísticas já foram montados depois da subida")
+    @ApiResponse(responseCode = "200", description = "Situação retornada")
+    public ResponseEntity<ReconstrucaoInicial.Situacao> inicializacao() {
+        return ResponseEntity.ok(reconstrucaoInicial.situacao());  // 200
+    }
+    
+    /**
+     * Backup do banco com a aplicação no ar (só com o banco em arquivo).
+     * 
+     * URL: POST http://localhost:8080/api/monitoramento/backup
+     * 
+     * O .zip fica no servidor, em biblioteca.backup.diretorio.
+     * Exige o cabeçalho X-Backup-Token com o valor de biblioteca.backup.token
+     * (sem token configurado, o backup fica desligado).
+     */
+    @PostMapping("/backup")
+    @Operation(summary = "Gerar backup do banco", 
+               description = "Copia o banco para um .zip sem parar a aplicação e mantém só os backups mais recentes")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Backup gerado"),
+        @ApiResponse(responseCode = "403", description = "Token ausente ou inválido, ou backup desligado"),
+        @ApiResponse(responseCode = "409", description = "Sem diretório configurado, banco em memória, ou outro backup em andamento")
+    })
+    public ResponseEntity<BackupResponse> backup(
+            @RequestHeader(value = "X-Backup-Token", required = false) String token) {
+        return ResponseEntity.ok(backupService.criar(token));  // 200
+    }
+}
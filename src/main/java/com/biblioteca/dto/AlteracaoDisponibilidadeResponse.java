@@ -0,0 +1,37 @@
+package com.biblioteca.dto;
+
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de uma alteração enviada pelo feed de disponibilidade (SSE).
+ *
+ * Exemplo (empréstimo):
+ * {
+ *   "tipo": "EMPRESTADO",
+ *   "id": 1,
+ *   "disponivel": false,
+ *   "versao": 3,
+ *   "livro": null
+ * }
+ *
+ * disponivel/versao - null quando tipo = REMOVIDO
+ * livro             - dados completos só em CRIADO e ATUALIZADO
+ *                     (nos outros tipos só muda a disponibilidade)
+ *
+ * Quem mantém uma cópia local aplica a alteração só se "versao" for
+ * maior que a versão que já tem.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracaoDisponibilidadeResponse {
+
+    private TipoAlteracao tipo;
+    private Long id;
+    private Boolean disponivel;
+    private Long versao;
+    private LivroResponse livro;
+}
@@ -0,0 +1,25 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de um backup do banco.
+ *
+ * arquivo - Caminho do .zip gerado (no servidor)
+ * removidos - Backups antigos apagados para manter só os mais recentes
+ *             (biblioteca.backup.manter)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupResponse {
+
+    private String arquivo;
+    private long tamanhoBytes;
+    private long duracaoMs;
+    private List<String> removidos;
+}
@@ -0,0 +1,28 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado da busca de vários livros por ID.
+ *
+ * Exemplo (pedido: ids=3,99,1):
+ * {
+ *   "livros": [ { "id": 3, ... }, { "id": 1, ... } ],
+ *   "naoEncontrados": [99]
+ * }
+ *
+ * livros         - na ordem do pedido (IDs repetidos aparecem uma vez)
+ * naoEncontrados - IDs que não existem, também na ordem do pedido
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaPorIdsResponse {
+
+    private List<LivroResponse> livros;
+    private List<Long> naoEncontrados;
+}
@@ -0,0 +1,49 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO com as estatísticas do catálogo.
+ *
+ * Exemplo (top=2):
+ * {
+ *   "total": 7,
+ *   "disponiveis": 6,
+ *   "emprestados": 1,
+ *   "porAno": { "1881": 1, "1890": 1, "1899": 1, ... },
+ *   "autores": [ { "nome": "Machado de Assis", "livros": 3 }, { "nome": "George Orwell", "livros": 2 } ],
+ *   "autoresDistintos": 4,
+ *   "editoras": [ { "nome": "Ática", "livros": 7 } ],
+ *   "editorasDistintas": 1,
+ *   "conferidoEm": "2024-01-15T10:30:00"
+ * }
+ *
+ * porAno      - todos os anos, em ordem crescente
+ * autores     - os N autores com mais livros (mais livros primeiro; empate: ordem alfabética)
+ * editoras    - idem para editoras (nome null = livros sem editora)
+ * conferidoEm - última conferência com o banco (null = ainda não conferido,
+ *               os números vieram direto do banco)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasResponse {
+
+    private long total;
+    private long disponiveis;
+    private long emprestados;
+    private Map<Integer, Long> porAno;
+    private List<Contagem> autores;
+    private long autoresDistintos;
+    private List<Contagem> editoras;
+    private long editorasDistintas;
+    private LocalDateTime conferidoEm;
+
+    public record Contagem(String nome, long livros) {}
+}
@@ -0,0 +1,38 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros da pesquisa combinada (GET /api/livros/pesquisa).
+ *
+ * Todos opcionais; os informados são combinados com E lógico.
+ * O Spring preenche os campos a partir da query string:
+ *   ?autor=Machado de Assis&anoMinimo=1880&disponivel=true
+ *
+ * Uso dos índices do banco:
+ * - autor, disponivel, anoMinimo/anoMaximo: comparações diretas na coluna,
+ *   atendidas pelos índices idx_livros_*_id
+ * - titulo (trecho, ignora maiúsculas) e editora: filtrados nas linhas já
+ *   selecionadas pelos outros critérios
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroLivro {
+
+    private String autor;        // exato
+    private String titulo;       // trecho, ignora maiúsculas
+    private String editora;      // exata
+    private Integer anoMinimo;   // inclusive
+    private Integer anoMaximo;   // inclusive
+    private Boolean disponivel;
+
+    /**
+     * Sem nenhum filtro (todos os livros).
+     */
+    public static FiltroLivro nenhum() {
+        return new FiltroLivro();
+    }
+}
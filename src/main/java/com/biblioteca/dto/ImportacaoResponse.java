@@ -0,0 +1,38 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO com o relatório da importação em massa.
+ * 
+ * Cada linha rejeitada aparece em "erros" com o número da linha
+ * e as mensagens de validação (mesmo formato do POST /api/livros).
+ * 
+ * linhasPorSegundo - Vazão da importação, útil para comparar
+ * com o cadastro livro a livro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoResponse {
+    
+    private long totalLinhas;
+    private long importados;
+    private long rejeitados;
+    private long duracaoMs;
+    private long linhasPorSegundo;
+    private List<ErroLinha> erros;
+    
+    /**
+     * Erro de uma linha do arquivo.
+     * 
+     * @param linha número da linha (ou posição no array JSON), começando em 1
+     * @param erros campo → mensagem
+     */
+    public record ErroLinha(long linha, Map<String, String> erros) {}
+}
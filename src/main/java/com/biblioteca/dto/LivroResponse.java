@@ -28,6 +28,7 @@ public class LivroResponse {
     private String editora;
     private Boolean disponivel;
     private LocalDateTime dataCadastro;
+    private Long versao;
     
     /**
      * Método estático para converter Entidade → DTO Response.
@@ -50,7 +51,8 @@ public class LivroResponse {
             livro.getAno(),
             livro.getEditora(),
             livro.getDisponivel(),
-            livro.getDataCadastro()
+            livro.getDataCadastro(),
+            livro.getVersao()
         );
     }
 }
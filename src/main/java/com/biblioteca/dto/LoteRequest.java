@@ -0,0 +1,33 @@
+package com.biblioteca.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para emprestar/devolver vários livros de uma vez (pilha no balcão).
+ *
+ * Exemplo:
+ * {
+ *   "ids": [1, 2, 3],
+ *   "tudoOuNada": true
+ * }
+ *
+ * tudoOuNada:
+ * - false (padrão): aplica o que der; cada ID informa o próprio resultado
+ * - true: se algum ID falhar, nenhum livro é alterado (HTTP 409)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteRequest {
+
+    @NotEmpty(message = "Informe ao menos um ID")
+    private List<@NotNull(message = "ID não pode ser nulo") Long> ids;
+
+    private boolean tudoOuNada;
+}
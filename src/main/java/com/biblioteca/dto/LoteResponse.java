@@ -0,0 +1,42 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de um empréstimo/devolução em lote.
+ *
+ * Um item por ID, na ordem do pedido (IDs repetidos aparecem uma vez).
+ *
+ * aplicado - false só quando tudoOuNada=true e algum ID falhou:
+ * nesse caso nenhum livro foi alterado e os IDs que teriam dado
+ * certo aparecem como NAO_APLICADO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteResponse {
+
+    private boolean aplicado;
+    private int sucessos;
+    private int falhas;
+    private List<Item> itens;
+
+    public enum Situacao {
+        OK,
+        NAO_ENCONTRADO,
+        JA_EMPRESTADO,
+        NAO_EMPRESTADO,
+        NAO_APLICADO
+    }
+
+    /**
+     * Resultado de um ID.
+     *
+     * @param livro estado do livro depois da operação (só quando situacao = OK)
+     */
+    public record Item(Long id, Situacao situacao, LivroResponse livro) {}
+}
@@ -0,0 +1,46 @@
+package com.biblioteca.dto;
+
+import com.biblioteca.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Chaves de ordenação aceitas pela listagem paginada.
+ * 
+ * Todas são colunas NOT NULL: a paginação por cursor (keyset) compara
+ * o valor da última linha da página com as próximas, e NULL quebraria
+ * essa comparação. O id sempre entra como desempate.
+ */
+public enum OrdenacaoLivro {
+    
+    ID("id"),
+    TITULO("titulo"),
+    AUTOR("autor"),
+    ANO("ano");
+    
+    /**
+     * Nome do atributo na entidade Livro.
+     */
+    private final String atributo;
+    
+    OrdenacaoLivro(String atributo) {
+        this.atributo = atributo;
+    }
+    
+    public String getAtributo() {
+        return atributo;
+    }
+    
+    /**
+     * Converte o parâmetro da URL (ex: "titulo") para o enum.
+     * Aceita maiúsculas ou minúsculas.
+     */
+    public static OrdenacaoLivro de(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Ordenação inválida: " + valor
+                    + " (use id, titulo, autor ou ano)");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da listagem paginada por cursor.
+ * 
+ * O cliente não precisa entender o cursor: basta devolver o
+ * "proximoCursor" na próxima chamada para continuar de onde parou.
+ * Quando "temMais" for false, a listagem chegou ao fim.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    
+    private List<T> itens;
+    private int tamanho;
+    private boolean temMais;
+    private String proximoCursor;
+}
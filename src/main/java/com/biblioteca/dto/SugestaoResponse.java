@@ -0,0 +1,36 @@
+package com.biblioteca.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de uma sugestão do autocompletar.
+ *
+ * Exemplo:
+ * {
+ *   "texto": "Machado de Assis",
+ *   "tipo": "AUTOR",
+ *   "emprestimos": 42,
+ *   "livros": 3
+ * }
+ *
+ * emprestimos - soma dos empréstimos dos livros com esse título/autor
+ *               (é a popularidade usada na ordenação)
+ * livros      - quantos livros têm esse título/autor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugestaoResponse {
+
+    private String texto;
+    private Tipo tipo;
+    private long emprestimos;
+    private int livros;
+
+    public enum Tipo {
+        TITULO,
+        AUTOR
+    }
+}
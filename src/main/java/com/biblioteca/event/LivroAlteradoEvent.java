@@ -0,0 +1,42 @@
+package com.biblioteca.event;
+
+import com.biblioteca.dto.LivroResponse;
+
+/**
+ * Evento publicado pelo LivroService a cada escrita em um livro.
+ * 
+ * Por que usar eventos?
+ * - Várias estruturas em memória precisam acompanhar o banco
+ *   (índice de busca, caches, contadores...)
+ * - O Service não precisa conhecer cada uma delas: só publica o evento
+ * - Quem escuta usa @TransactionalEventListener(phase = AFTER_COMMIT),
+ *   assim só reage ao que foi realmente gravado (rollback não gera efeito)
+ * 
+ * @param tipo     o que aconteceu com o livro
+ * @param id       ID do livro
+ * @param livro    estado do livro depois da alteração (null quando REMOVIDO)
+ * @param anterior estado antes da alteração, só em ATUALIZADO e REMOVIDO
+ *                 (quem conta livros por autor, editora... precisa saber o que saiu)
+ */
+public record LivroAlteradoEvent(TipoAlteracao tipo, Long id, LivroResponse livro, LivroResponse anterior) {
+    
+    public enum TipoAlteracao {
+        CRIADO,
+        ATUALIZADO,
+        EMPRESTADO,
+        DEVOLVIDO,
+        REMOVIDO
+    }
+    
+    public static LivroAlteradoEvent de(TipoAlteracao tipo, LivroResponse livro) {
+        return new LivroAlteradoEvent(tipo, livro.getId(), livro, null);
+    }
+    
+    public static LivroAlteradoEvent atualizado(LivroResponse anterior, LivroResponse livro) {
+        return new LivroAlteradoEvent(TipoAlteracao.ATUALIZADO, livro.getId(), livro, anterior);
+    }
+    
+    public static LivroAlteradoEvent removido(LivroResponse anterior) {
+        return new LivroAlteradoEvent(TipoAlteracao.REMOVIDO, anterior.getId(), null, anterior);
+    }
+}
@@ -0,0 +1,16 @@
+package com.biblioteca.exception;
+
+/**
+ * Exceção lançada quando a operação exige uma credencial que não veio
+ * (ou não confere).
+ * 
+ * Exemplo: backup do banco sem o token configurado em biblioteca.backup.token.
+ * 
+ * HTTP Status: mapeada para 403 (Forbidden) no GlobalExceptionHandler.
+ */
+public class AcessoNegadoException extends RuntimeException {
+    
+    public AcessoNegadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.biblioteca.exception;
+
+/**
+ * Exceção lançada quando a requisição tem parâmetros inválidos
+ * que não são cobertos pelo Bean Validation.
+ * 
+ * Exemplo: cursor de paginação corrompido ou tamanho de página fora do limite.
+ * 
+ * HTTP Status: mapeada para 400 (Bad Request) no GlobalExceptionHandler.
+ */
+public class BadRequestException extends RuntimeException {
+    
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.biblioteca.exception;
+
+/**
+ * Exceção lançada quando a operação conflita com o estado atual do recurso.
+ * 
+ * Exemplo: emprestar um livro que já está emprestado.
+ * 
+ * HTTP Status: mapeada para 409 (Conflict) no GlobalExceptionHandler.
+ */
+public class ConflictException extends RuntimeException {
+    
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,15 +1,27 @@
 package com.biblioteca.exception;
 
+import com.biblioteca.config.BulkheadDataSource.BancoSobrecarregadoException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Handler Global de Exceções.
@@ -47,6 +59,144 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
     
+    /**
+     * Trata ConflictException e conflitos de versão (lock otimista).
+     * 
+     * Quando: Emprestar livro já emprestado, ou atualizar um livro
+     * que outra requisição alterou ao mesmo tempo
+     * Retorna: HTTP 409 (Conflict)
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(ConflictException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),            // 409
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),            // 409
+            "O livro foi alterado por outra requisição. Consulte novamente e repita a operação.",
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    /**
+     * Trata AcessoNegadoException.
+     * 
+     * Quando: Backup sem o token certo (ou com o backup desligado)
+     * Retorna: HTTP 403 (Forbidden)
+     */
+    @ExceptionHandler(AcessoNegadoException.class)
+    public ResponseEntity<ErrorResponse> handleAcessoNegado(AcessoNegadoException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.FORBIDDEN.value(),           // 403
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
+    }
+    
+    /**
+     * Trata BadRequestException.
+     * 
+     * Quando: Parâmetro inválido (ex: cursor de paginação adulterado)
+     * Retorna: HTTP 400 (Bad Request)
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(BadRequestException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),         // 400
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Trata parâmetros de URL com tipo errado.
+     * 
+     * Quando: GET /api/livros/abc (id deveria ser número)
+     * Retorna: HTTP 400 (Bad Request) em vez de 500
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),         // 400
+            String.format("Valor inválido para o parâmetro %s: %s", ex.getName(), ex.getValue()),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Trata corpo da requisição que não pôde ser lido.
+     * 
+     * Quando: JSON mal formado ou com tipo errado (ex: [1, "x"] onde se
+     * esperam IDs numéricos)
+     * Retorna: HTTP 400 (Bad Request) em vez de 500
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleCorpoInvalido(HttpMessageNotReadableException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),         // 400
+            "Corpo da requisição inválido: JSON mal formado ou com valor de tipo errado",
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Trata parâmetro obrigatório ausente.
+     * 
+     * Quando: GET /api/livros/lote sem ?ids=
+     * Retorna: HTTP 400 (Bad Request) em vez de 500
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleParametroAusente(MissingServletRequestParameterException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),         // 400
+            "Parâmetro obrigatório ausente: " + ex.getParameterName(),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Trata Content-Type que o endpoint não aceita.
+     * 
+     * Quando: POST /api/livros/importar com text/plain (aceita JSON, NDJSON ou CSV)
+     * Retorna: HTTP 415 (Unsupported Media Type) com os tipos aceitos na
+     * mensagem e no cabeçalho Accept
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponse> handleTipoNaoSuportado(HttpMediaTypeNotSupportedException ex) {
+        String aceitos = ex.getSupportedMediaTypes().stream()
+                .map(MediaType::toString)
+                .collect(Collectors.joining(", "));
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),  // 415
+            "Content-Type não suportado: " + ex.getContentType() + ". Tipos aceitos: " + aceitos,
+            LocalDateTime.now()
+        );
+        
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT, aceitos)
+                .body(error);
+    }
+    
     /**
      * Trata erros de validação (@Valid no Controller).
      * 
@@ -76,6 +226,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Trata falta de conexão com o banco.
+     * 
+     * Quando: O bulkhead de conexões está cheio (muitas requisições ao
+     * mesmo tempo) ou o pool não entregou conexão a tempo
+     * Retorna: HTTP 503 (Service Unavailable) com Retry-After,
+     * para o cliente tentar de novo em vez de tratar como bug
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleSemConexao(RuntimeException ex) {
+        boolean sobrecarga = NestedExceptionUtils.getRootCause(ex) instanceof BancoSobrecarregadoException;
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),     // 503
+            sobrecarga
+                ? "Servidor sobrecarregado. Tente novamente em instantes."
+                : "Banco de dados indisponível no momento.",
+            LocalDateTime.now()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
     /**
      * Trata QUALQUER outra exceção não mapeada.
      * 
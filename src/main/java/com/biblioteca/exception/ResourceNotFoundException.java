@@ -9,6 +9,13 @@ package com.biblioteca.exception;
  * - Semântica: O nome já explica o problema
  * - Tratamento: Podemos capturar e tratar especificamente
  * - HTTP Status: Podemos mapear para 404 (Not Found)
+ * 
+ * Sem stack trace:
+ * - Um 404 é uma resposta normal, não um erro do código: ninguém
+ *   lê o stack trace dele (o GlobalExceptionHandler só usa a mensagem)
+ * - Preencher o stack trace é a parte cara de criar uma exceção;
+ *   com muitos pedidos de IDs inexistentes, isso pesa
+ * - writableStackTrace = false: a JVM nem percorre a pilha
  */
 public class ResourceNotFoundException extends RuntimeException {
     
@@ -16,7 +23,8 @@ public class ResourceNotFoundException extends RuntimeException {
      * Construtor simples com mensagem.
      */
     public ResourceNotFoundException(String message) {
-        super(message);
+        // (mensagem, causa, enableSuppression, writableStackTrace)
+        super(message, null, false, false);
     }
     
     /**
@@ -26,6 +34,6 @@ public class ResourceNotFoundException extends RuntimeException {
      * Resultado: "Livro não encontrado com id: 999"
      */
     public ResourceNotFoundException(String resource, String field, Object value) {
-        super(String.format("%s não encontrado com %s: %s", resource, field, value));
+        this(resource + " não encontrado com " + field + ": " + value);
     }
 }
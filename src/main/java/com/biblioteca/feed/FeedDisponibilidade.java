@@ -0,0 +1,371 @@
+package com.biblioteca.feed;
+
+import com.biblioteca.dto.AlteracaoDisponibilidadeResponse;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed das alterações de disponibilidade, por Server-Sent Events (SSE).
+ *
+ * Por que?
+ * Os painéis das unidades consultavam GET /disponiveis a cada poucos
+ * segundos, relendo todos os livros disponíveis. Com o feed, carregam a
+ * lista uma vez e recebem só o que mudou (empréstimo, devolução,
+ * cadastro, alteração, remoção), logo depois do commit.
+ *
+ * Retomada (Last-Event-ID):
+ * - Cada alteração recebe um número sequencial e fica num buffer
+ *   circular com as últimas N alterações
+ * - Se a conexão cair, o EventSource do navegador reconecta sozinho e
+ *   manda o ID do último evento recebido: o feed reenvia o que faltou
+ * - Se o ID for antigo demais (já saiu do buffer) ou de antes de um
+ *   reinício da aplicação, o cliente recebe o evento "reiniciar" e deve
+ *   recarregar a lista inteira
+ *
+ * Entrega:
+ * - Cada assinante recebe em ordem, num pool de threads só do feed
+ *   (a requisição que fez a escrita não espera os clientes, e o
+ *   applicationTaskExecutor fica livre para o resto da aplicação)
+ * - O envio é bloqueante: um cliente que para de ler (janela TCP cheia)
+ *   prende a thread até o Tomcat desistir da escrita. Para que poucos
+ *   clientes assim não ocupem o pool inteiro, o assinante é desconectado
+ *   quando um envio passa de "limite-envio" ou quando fica mais de
+ *   "tamanho-buffer" alterações atrás. Ao reconectar, recebe "reiniciar"
+ * - O heartbeat (comentário SSE que mantém a conexão aberta em proxies e
+ *   detecta clientes que sumiram) passa pela mesma entrega: a thread do
+ *   heartbeat só agenda, nunca escreve
+ */
+@Slf4j
+@Component
+public class FeedDisponibilidade {
+
+    /**
+     * Os IDs dos eventos começam com o instante da subida: depois de um
+     * reinício a numeração recomeça, e um ID antigo não pode ser confundido.
+     */
+    private static final String INICIO = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final long RECONEXAO_MS = 3000;
+
+    private record Evento(long sequencia, AlteracaoDisponibilidadeResponse dados) {}
+
+    /**
+     * Um cliente conectado.
+     */
+    private static final class Assinante {
+        final SseEmitter emitter;
+        /** Próxima sequência a enviar (só a tarefa de entrega altera; lida na publicação). */
+        volatile long proxima;
+        /** Cliente precisa recarregar a lista antes de seguir. */
+        boolean reiniciar;
+        /** Já existe uma tarefa de entrega agendada ou rodando (no máximo uma). */
+        final AtomicBoolean agendado = new AtomicBoolean();
+        /** Algo mudou desde que a tarefa de entrega olhou pela última vez. */
+        volatile boolean pendente;
+        /** Heartbeat a enviar na próxima entrega, se não houver eventos. */
+        volatile boolean heartbeat;
+        /** Início (System.nanoTime) do envio em andamento, 0 se nenhum. */
+        volatile long inicioEnvio;
+        /** Descartado (lento ou desconectado): a entrega só fecha o emitter. */
+        volatile boolean descartado;
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Buffer circular: evento de sequência s fica em s % tamanho. Protegido por "this".
+     */
+    private final Evento[] buffer;
+    private long ultimaSequencia;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService heartbeat;
+    private final int maxAssinantes;
+    private final Duration timeout;
+    private final long limiteEnvioNanos;
+
+    public FeedDisponibilidade(@Value("${biblioteca.feed.tamanho-buffer:10000}") int tamanhoBuffer,
+                               @Value("${biblioteca.feed.max-assinantes:1000}") int maxAssinantes,
+                               @Value("${biblioteca.feed.timeout:30m}") Duration timeout,
+                               @Value("${biblioteca.feed.heartbeat:15s}") Duration intervaloHeartbeat,
+                               @Value("${biblioteca.feed.threads:16}") int threads,
+                               @Value("${biblioteca.feed.limite-envio:5s}") Duration limiteEnvio) {
+        this.buffer = new Evento[tamanhoBuffer];
+        this.maxAssinantes = maxAssinantes;
+        this.timeout = timeout;
+        this.limiteEnvioNanos = limiteEnvio.toNanos();
+
+        // No máximo uma tarefa por assinante na fila (ver agendarEntrega)
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxAssinantes), tarefa -> {
+                    Thread thread = new Thread(tarefa, "feed-entrega-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = intervaloHeartbeat.toMillis();
+        heartbeat.scheduleAtFixedRate(this::verificarAssinantes, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Guarda a alteração no buffer depois do commit e avisa os assinantes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        AlteracaoDisponibilidadeResponse dados = converter(evento);
+        long sequencia;
+        synchronized (this) {
+            sequencia = ++ultimaSequencia;
+            buffer[(int) (sequencia % buffer.length)] = new Evento(sequencia, dados);
+        }
+        for (Assinante assinante : assinantes) {
+            if (assinante.proxima <= sequencia - buffer.length) {
+                // O que ele ainda não recebeu já foi sobrescrito: não vai alcançar
+                descartar(assinante);
+            } else {
+                agendarEntrega(assinante);
+            }
+        }
+    }
+
+    private static AlteracaoDisponibilidadeResponse converter(LivroAlteradoEvent evento) {
+        LivroResponse livro = evento.livro();
+        if (livro == null) {
+            return new AlteracaoDisponibilidadeResponse(evento.tipo(), evento.id(), null, null, null);
+        }
+        boolean completo = switch (evento.tipo()) {
+            case CRIADO, ATUALIZADO -> true;
+            default -> false;
+        };
+        return new AlteracaoDisponibilidadeResponse(evento.tipo(), evento.id(), livro.getDisponivel(),
+                livro.getVersao(), completo ? livro : null);
+    }
+
+    /**
+     * Conecta um cliente ao feed.
+     *
+     * @param ultimoEventoId valor do cabeçalho Last-Event-ID (null = só alterações novas)
+     * @return o emitter, ou Optional.empty() se o limite de assinantes foi atingido
+     */
+    public Optional<SseEmitter> assinar(String ultimoEventoId) {
+        if (assinantes.size() >= maxAssinantes) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Assinante assinante = new Assinante(emitter);
+        synchronized (this) {
+            Long sequencia = lerSequencia(ultimoEventoId);
+            if (sequencia != null && sequencia <= ultimaSequencia && sequencia >= ultimaSequencia - buffer.length) {
+                assinante.proxima = sequencia + 1;
+            } else {
+                assinante.proxima = ultimaSequencia + 1;
+                // Sem ID é uma conexão nova: o cliente carrega a lista por conta própria
+                assinante.reiniciar = ultimoEventoId != null;
+            }
+        }
+
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+
+        try {
+            // Abre o stream na hora e diz ao EventSource quanto esperar para reconectar
+            emitter.send(SseEmitter.event().comment("conectado").reconnectTime(RECONEXAO_MS));
+        } catch (IOException e) {
+            encerrar(assinante);
+            return Optional.of(emitter);
+        }
+        agendarEntrega(assinante);
+        return Optional.of(emitter);
+    }
+
+    /**
+     * "k3x9a1-42" → 42 (null se vazio, malformado ou de outra execução).
+     */
+    private static Long lerSequencia(String eventoId) {
+        if (eventoId == null || !eventoId.startsWith(INICIO + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventoId.substring(INICIO.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void agendarEntrega(Assinante assinante) {
+        assinante.pendente = true;
+        if (!assinante.agendado.getAndSet(true)) {
+            try {
+                executor.execute(() -> entregar(assinante));
+            } catch (RejectedExecutionException e) {
+                // Pool encerrado (desligamento)
+                assinantes.remove(assinante);
+            }
+        }
+    }
+
+    /**
+     * Envia ao assinante tudo o que ele ainda não recebeu, em ordem
+     * (ou o heartbeat, se não houver nada).
+     *
+     * Só uma tarefa por assinante existe de cada vez (agendado), então um
+     * envio preso ocupa uma única thread. pendente volta a false ANTES de
+     * ler o buffer, e agendado só é liberado depois de conferir pendente de
+     * novo: um evento publicado no meio do caminho nunca fica esquecido.
+     */
+    private void entregar(Assinante assinante) {
+        try {
+            while (!assinante.descartado) {
+                assinante.pendente = false;
+                List<Evento> pendentes = pendentes(assinante);
+                if (pendentes == null) {
+                    // Ficou mais de tamanho-buffer alterações para trás
+                    break;
+                }
+                if (assinante.reiniciar) {
+                    enviar(assinante, SseEmitter.event()
+                            .id(INICIO + "-" + (assinante.proxima - 1))
+                            .name("reiniciar")
+                            .data("Recarregue a lista de livros disponíveis"));
+                    assinante.reiniciar = false;
+                }
+                if (!pendentes.isEmpty()) {
+                    // Eventos também mantêm a conexão aberta
+                    assinante.heartbeat = false;
+                }
+                for (Evento evento : pendentes) {
+                    enviar(assinante, SseEmitter.event()
+                            .id(INICIO + "-" + evento.sequencia())
+                            .data(evento.dados(), MediaType.APPLICATION_JSON));
+                    assinante.proxima = evento.sequencia() + 1;
+                }
+                if (assinante.heartbeat) {
+                    assinante.heartbeat = false;
+                    enviar(assinante, SseEmitter.event().comment("heartbeat"));
+                }
+                if (!assinante.pendente) {
+                    assinante.agendado.set(false);
+                    // Quem marcou pendente depois do teste acima não agendou: segue aqui
+                    if (!assinante.pendente || assinante.agendado.getAndSet(true)) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou (ou o emitter já foi encerrado)
+        }
+        // Descartado (lento ou desconectado), possivelmente no meio de um envio
+        encerrar(assinante);
+    }
+
+    private void enviar(Assinante assinante, SseEmitter.SseEventBuilder evento) throws IOException {
+        assinante.inicioEnvio = System.nanoTime();
+        try {
+            assinante.emitter.send(evento);
+        } finally {
+            assinante.inicioEnvio = 0;
+        }
+    }
+
+    /**
+     * Eventos do buffer a partir de assinante.proxima.
+     * null se algum já foi sobrescrito: o assinante ficou para trás.
+     */
+    private synchronized List<Evento> pendentes(Assinante assinante) {
+        if (assinante.proxima <= ultimaSequencia - buffer.length) {
+            return null;
+        }
+        List<Evento> pendentes = new ArrayList<>();
+        for (long s = assinante.proxima; s <= ultimaSequencia; s++) {
+            pendentes.add(buffer[(int) (s % buffer.length)]);
+        }
+        return pendentes;
+    }
+
+    /**
+     * A cada intervalo de heartbeat: descarta quem está preso num envio
+     * e agenda o heartbeat dos demais.
+     */
+    private void verificarAssinantes() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : assinantes) {
+            long inicio = assinante.inicioEnvio;
+            if (inicio != 0 && agora - inicio > limiteEnvioNanos) {
+                descartar(assinante);
+            } else {
+                assinante.heartbeat = true;
+                agendarEntrega(assinante);
+            }
+        }
+    }
+
+    /**
+     * Tira o assinante do feed sem escrever nele nesta thread: o emitter
+     * é fechado pela entrega, quando o envio em andamento (se houver)
+     * terminar ou o Tomcat desistir da escrita.
+     */
+    private void descartar(Assinante assinante) {
+        if (assinantes.remove(assinante)) {
+            log.debug("Assinante do feed desconectado por estar lento demais");
+        }
+        assinante.descartado = true;
+        agendarEntrega(assinante);
+    }
+
+    private void encerrar(Assinante assinante) {
+        assinantes.remove(assinante);
+        assinante.descartado = true;
+        try {
+            assinante.emitter.complete();
+        } catch (IllegalStateException e) {
+            // Já encerrado
+        }
+    }
+
+    public int getAssinantes() {
+        return assinantes.size();
+    }
+
+    @PreDestroy
+    public void fechar() {
+        heartbeat.shutdownNow();
+        executor.shutdown();
+        assinantes.forEach(this::encerrar);
+    }
+}
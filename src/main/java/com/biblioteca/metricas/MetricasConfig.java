@@ -0,0 +1,146 @@
+package com.biblioteca.metricas;
+
+import com.biblioteca.cache.FabricaRegioesCache;
+import com.biblioteca.cache.EstatisticasCatalogo;
+import com.biblioteca.cache.FiltroIdsExistentes;
+import com.biblioteca.cache.LivroCache;
+import com.biblioteca.cache.LivroJsonCache;
+import com.biblioteca.feed.FeedDisponibilidade;
+import com.biblioteca.config.BulkheadDataSource;
+import com.biblioteca.replicacao.RoteamentoLeituraDataSource;
+import com.biblioteca.repository.LivroRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Medidores próprios da aplicação no MeterRegistry do Micrometer.
+ *
+ * O resto vem pronto do Spring Boot Actuator (ver application.properties):
+ * - Controller: http.server.requests{method, uri, status}, com histograma
+ *   de percentis
+ * - Repository: repositorio.consultas{repository, method, state}, um timer
+ *   em volta de cada chamada ao LivroRepository
+ * - Banco: hikaricp.connections.* (ativas, ociosas, fila, espera por conexão)
+ * - JVM, Tomcat e executores
+ *
+ * Aqui entram:
+ * - Bulkhead: conexões em uso, fila e pedidos recusados
+ * - Réplicas: atraso e leituras de cada uma, leituras que foram ao primário
+ * - Cache: acertos, falhas e tamanho do cache de livros e do cache de JSON,
+ *   IDs inexistentes respondidos pelo filtro de IDs e taxa de acerto de cada
+ *   região do cache de segundo nível do Hibernate
+ * - Catálogo e feed de disponibilidade
+ *
+ * Tudo em GET /actuator/prometheus.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricasConfig {
+
+    private final MeterRegistry registro;
+    private final DataSource dataSource;
+    private final LivroCache livroCache;
+    private final LivroJsonCache livroJsonCache;
+    private final FeedDisponibilidade feedDisponibilidade;
+    private final FiltroIdsExistentes filtroIdsExistentes;
+    private final EstatisticasCatalogo estatisticasCatalogo;
+    private final FabricaRegioesCache fabricaRegioesCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrarMedidores() throws SQLException {
+        if (dataSource.isWrapperFor(BulkheadDataSource.class)) {
+            BulkheadDataSource bulkhead = dataSource.unwrap(BulkheadDataSource.class);
+            medidor("bulkhead.conexoes.em.uso", "Conexões em uso no bulkhead",
+                    () -> bulkhead.estatisticas().emUso());
+            medidor("bulkhead.aguardando", "Threads na fila do bulkhead",
+                    () -> bulkhead.estatisticas().aguardando());
+            contador("bulkhead.rejeitadas", "Pedidos de conexão recusados (503) desde o início",
+                    bulkhead, b -> b.estatisticas().rejeitadas());
+        }
+
+        if (dataSource.isWrapperFor(RoteamentoLeituraDataSource.class)) {
+            RoteamentoLeituraDataSource roteamento = dataSource.unwrap(RoteamentoLeituraDataSource.class);
+            contador("replicas.leituras.no.primario", "Leituras readOnly que foram ao primário (nenhuma réplica em dia)",
+                    roteamento, RoteamentoLeituraDataSource::getLeiturasNoPrimario);
+            for (RoteamentoLeituraDataSource.Replica replica : roteamento.getReplicas()) {
+                medidor("replicas.atraso.segundos", "Atraso de cada réplica em relação ao primário",
+                        () -> {
+                            Long atraso = replica.atrasoMs();
+                            return atraso == null ? null : atraso / 1000.0;
+                        }, "replica", replica.nome());
+                contador("replicas.leituras", "Leituras readOnly atendidas por cada réplica",
+                        replica, RoteamentoLeituraDataSource.Replica::leituras, "replica", replica.nome());
+            }
+        }
+
+        contador("cache.livros.acertos", "Leituras respondidas pelo cache de livros",
+                livroCache, cache -> cache.estatisticas().acertos());
+        contador("cache.livros.falhas", "Leituras que foram ao banco",
+                livroCache, cache -> cache.estatisticas().falhas());
+        medidor("cache.livros.tamanho", "Livros no cache",
+                () -> livroCache.estatisticas().tamanho());
+        contador("cache.json.acertos", "Livros escritos com o JSON já pronto",
+                livroJsonCache, cache -> cache.estatisticas().acertos());
+        contador("cache.json.falhas", "Livros serializados pelo Jackson",
+                livroJsonCache, cache -> cache.estatisticas().falhas());
+        medidor("cache.json.tamanho", "Fragmentos JSON no cache",
+                () -> livroJsonCache.estatisticas().tamanho());
+        contador("filtro.ids.negados", "Pedidos de IDs inexistentes respondidos sem ir ao banco",
+                filtroIdsExistentes, FiltroIdsExistentes::getNegados);
+        medidor("catalogo.livros", "Livros no catálogo por situação",
+                () -> estatisticasCatalogo.getDisponiveis(), "estado", "disponivel");
+        medidor("catalogo.livros", "Livros no catálogo por situação",
+                () -> estatisticasCatalogo.getTotal() - estatisticasCatalogo.getDisponiveis(), "estado", "emprestado");
+        contador("estatisticas.divergencias", "Diferenças corrigidas pelas conferências das estatísticas com o banco",
+                estatisticasCatalogo, EstatisticasCatalogo::getDivergencias);
+        // A região de consultas só é criada no primeiro uso
+        Set<String> regioes = new TreeSet<>();
+        fabricaRegioesCache.estatisticas().forEach(regiao -> regioes.add(regiao.nome()));
+        regioes.add(LivroRepository.REGIAO_CONSULTAS);
+        for (String regiao : regioes) {
+            medidor("cache.hibernate.taxa.acerto", "Taxa de acerto por região do cache do Hibernate (0 a 1)",
+                    () -> medirRegiao(regiao, FabricaRegioesCache.EstatisticasRegiao::getTaxaAcerto), "regiao", regiao);
+            medidor("cache.hibernate.tamanho", "Entradas por região do cache do Hibernate",
+                    () -> medirRegiao(regiao, FabricaRegioesCache.EstatisticasRegiao::tamanho), "regiao", regiao);
+        }
+        medidor("feed.assinantes", "Clientes conectados ao feed de disponibilidade",
+                feedDisponibilidade::getAssinantes);
+    }
+
+    private Number medirRegiao(String regiao, Function<FabricaRegioesCache.EstatisticasRegiao, Number> leitura) {
+        FabricaRegioesCache.EstatisticasRegiao estatisticas = fabricaRegioesCache.estatisticas(regiao);
+        return estatisticas == null ? null : leitura.apply(estatisticas);
+    }
+
+    /**
+     * Medidor: o valor é lido do fornecedor a cada coleta (null = NaN).
+     */
+    private void medidor(String nome, String descricao, Supplier<Number> valor, String... rotulos) {
+        Gauge.builder(nome, valor).description(descricao).tags(rotulos).register(registro);
+    }
+
+    /**
+     * Contador mantido por outro componente (ex: acertos do cache): o total é
+     * lido a cada coleta e publicado como counter, não gauge, para o rate()
+     * do Prometheus tratar o reinício da aplicação como zerado.
+     *
+     * O Micrometer guarda só uma referência fraca para a origem: tem de ser
+     * um objeto que vive tanto quanto a aplicação (um bean), não um lambda.
+     */
+    private <T> void contador(String nome, String descricao, T origem, ToDoubleFunction<T> total, String... rotulos) {
+        FunctionCounter.builder(nome, origem, total).description(descricao).tags(rotulos).register(registro);
+    }
+}
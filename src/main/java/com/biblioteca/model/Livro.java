@@ -6,18 +6,25 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Entidade Livro - Representa a tabela "livros" no banco de dados.
  * 
  * @Entity - Marca esta classe como uma entidade JPA (vira tabela no banco)
  * @Table - Define o nome da tabela (se não colocar, usa o nome da classe)
+ *          e documenta os índices (criados pelas migrações em db/migration)
  * @Data - Lombok: gera automaticamente getters, setters, toString, equals e hashCode
  * @NoArgsConstructor - Lombok: gera construtor vazio (obrigatório para JPA)
  * @AllArgsConstructor - Lombok: gera construtor com todos os campos
  */
 @Entity
-@Table(name = "livros")
+@Table(name = "livros", indexes = {
+    @Index(name = "idx_livros_disponivel_id", columnList = "disponivel, id"),
+    @Index(name = "idx_livros_autor_id", columnList = "autor, id"),
+    @Index(name = "idx_livros_ano_id", columnList = "ano, id"),
+    @Index(name = "idx_livros_titulo_id", columnList = "titulo, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,11 +34,18 @@ public class Livro {
      * ID único do livro (chave primária).
      * 
      * @Id - Marca este campo como chave primária
-     * @GeneratedValue - Gera o ID automaticamente (auto-increment)
-     * IDENTITY - Estratégia de geração: o banco cria o próximo número
+     * @GeneratedValue - Gera o ID automaticamente
+     * SEQUENCE - Os IDs vêm da sequence "livros_seq" do banco
+     * 
+     * Por que SEQUENCE e não IDENTITY (auto-increment)?
+     * - Com IDENTITY o Hibernate precisa executar cada INSERT na hora para
+     *   descobrir o ID gerado, e isso impede os INSERTs em lote (JDBC batch)
+     * - Com SEQUENCE o ID é conhecido antes do INSERT
+     * - allocationSize = 50: uma ida à sequence reserva 50 IDs (otimizador "pooled")
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livros_seq")
+    @SequenceGenerator(name = "livros_seq", sequenceName = "livros_seq", allocationSize = 50)
     private Long id;
     
     /**
@@ -77,13 +91,38 @@ public class Livro {
     @Column(name = "data_cadastro", nullable = false, updatable = false)
     private LocalDateTime dataCadastro;
     
+    /**
+     * Versão do registro (lock otimista).
+     * 
+     * @Version - O Hibernate incrementa a cada UPDATE e inclui
+     * "WHERE versao = ?" no comando. Se outra transação alterou o livro
+     * no meio do caminho, nenhuma linha é atualizada e a operação falha
+     * (em vez de sobrescrever a alteração da outra transação).
+     */
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+    
+    /**
+     * Quantas vezes o livro já foi emprestado (popularidade).
+     * 
+     * Incrementado pelos UPDATEs de empréstimo do LivroRepository,
+     * no mesmo comando que muda a disponibilidade.
+     */
+    @Column(name = "total_emprestimos", nullable = false)
+    private Long totalEmprestimos = 0L;
+    
     /**
      * Método executado automaticamente ANTES de salvar no banco.
      * Define a data de cadastro automaticamente.
+     * 
+     * Truncada em microssegundos, a precisão da coluna TIMESTAMP: assim o
+     * valor guardado no objeto (e nos caches que o copiam na hora do
+     * cadastro) é o mesmo que o banco devolve depois.
      */
     @PrePersist
     protected void onCreate() {
-        this.dataCadastro = LocalDateTime.now();
+        this.dataCadastro = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         
         // Se não definiu disponibilidade, assume true
         if (this.disponivel == null) {
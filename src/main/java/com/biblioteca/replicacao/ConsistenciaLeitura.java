@@ -0,0 +1,86 @@
+package com.biblioteca.replicacao;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * O quanto uma leitura pode estar atrasada em relação ao primário.
+ *
+ * Por padrão uma transação readOnly aceita qualquer réplica dentro da
+ * tolerância de atraso (biblioteca.replicas.atraso-maximo). Dois jeitos de
+ * exigir mais:
+ *
+ * - exigirPosicao(instante): a réplica precisa já ter recebido tudo o que
+ *   o primário confirmou até aquele instante. Vale até o fim da requisição
+ *   HTTP (ex: cookie de quem acabou de escrever, ETag das listagens).
+ *   Nenhuma réplica em dia → a leitura vai para o primário.
+ * - noPrimario(...): sempre o primário, independente de atraso. Para quem
+ *   guarda o resultado em memória por muito tempo (cache de consultas,
+ *   índices montados na subida): um dado velho ali não some sozinho.
+ *
+ * Fora de uma requisição (threads próprias) exigirPosicao não tem efeito.
+ */
+public final class ConsistenciaLeitura {
+
+    private static final String POSICAO_MINIMA = ConsistenciaLeitura.class.getName() + ".posicaoMinima";
+
+    private static final ThreadLocal<Boolean> NO_PRIMARIO = new ThreadLocal<>();
+
+    private ConsistenciaLeitura() {
+    }
+
+    /**
+     * As leituras desta requisição só podem ir a réplicas que já tenham
+     * recebido tudo até o instante informado (epoch em ms).
+     */
+    public static void exigirPosicao(long instante) {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        if (requisicao == null || instante <= 0) {
+            return;
+        }
+        Long atual = (Long) requisicao.getAttribute(POSICAO_MINIMA, RequestAttributes.SCOPE_REQUEST);
+        if (atual == null || instante > atual) {
+            requisicao.setAttribute(POSICAO_MINIMA, instante, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Posição mínima exigida pela requisição atual (0 = qualquer réplica em dia).
+     */
+    public static long posicaoMinima() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        Long posicao = requisicao == null ? null
+                : (Long) requisicao.getAttribute(POSICAO_MINIMA, RequestAttributes.SCOPE_REQUEST);
+        return posicao != null ? posicao : 0;
+    }
+
+    /**
+     * Executa a leitura no primário, mesmo dentro de transações readOnly.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        Boolean anterior = NO_PRIMARIO.get();
+        NO_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                NO_PRIMARIO.remove();
+            } else {
+                NO_PRIMARIO.set(anterior);
+            }
+        }
+    }
+
+    public static void noPrimario(Runnable leitura) {
+        noPrimario(() -> {
+            leitura.run();
+            return null;
+        });
+    }
+
+    static boolean isNoPrimario() {
+        return NO_PRIMARIO.get() != null;
+    }
+}
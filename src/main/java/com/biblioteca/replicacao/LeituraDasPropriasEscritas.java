@@ -0,0 +1,84 @@
+package com.biblioteca.replicacao;
+
+import com.biblioteca.event.LivroAlteradoEvent;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas: quem acabou de emprestar, devolver (ou
+ * qualquer outra escrita) não lê uma réplica que ainda não recebeu a alteração.
+ *
+ * Sem isso: PATCH /emprestar → 200, e o GET logo em seguida, atendido por
+ * uma réplica 300ms atrasada, ainda mostra o livro disponível.
+ *
+ * Como funciona?
+ * 1. Depois do commit de uma escrita feita numa requisição, a resposta leva
+ *    o cookie "biblioteca-escrita" com o instante do commit (epoch em ms)
+ * 2. Nas próximas requisições do mesmo cliente, o interceptor lê o cookie e
+ *    exige réplicas que já tenham recebido tudo até aquele instante
+ *    (ConsistenciaLeitura.exigirPosicao); nenhuma em dia → primário
+ * 3. O cookie expira junto com a tolerância de atraso: depois disso toda
+ *    réplica em uso já passou daquele instante
+ *
+ * Na própria requisição da escrita, as leituras seguintes também exigem a posição.
+ *
+ * Registrado em /api/** pela ReplicasConfig.
+ */
+public class LeituraDasPropriasEscritas implements HandlerInterceptor {
+
+    static final String COOKIE = "biblioteca-escrita";
+
+    private final Duration validade;
+
+    public LeituraDasPropriasEscritas(Duration atrasoMaximo) {
+        // Max-Age é em segundos: arredonda para cima
+        this.validade = Duration.ofSeconds(Math.max(1, (atrasoMaximo.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie != null) {
+            try {
+                ConsistenciaLeitura.exigirPosicao(Long.parseLong(cookie.getValue()));
+            } catch (NumberFormatException e) {
+                // Cookie adulterado: lê como um cliente qualquer
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Roda depois dos outros ouvintes de commit (sem @Order = último): o
+     * ReplicadorLocal já enfileirou a alteração com um instante anterior a este.
+     *
+     * setHeader em vez de addCookie: uma importação confirma vários blocos na
+     * mesma requisição e só o instante do último interessa (um Set-Cookie só).
+     */
+    @TransactionalEventListener
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes requisicao)
+                || requisicao.getResponse() == null) {
+            return;
+        }
+        long instante = System.currentTimeMillis();
+        ConsistenciaLeitura.exigirPosicao(instante);
+        requisicao.getResponse().setHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(instante))
+                .path("/api")
+                .maxAge(validade)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString());
+    }
+}
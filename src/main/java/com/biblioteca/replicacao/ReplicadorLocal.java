@@ -0,0 +1,266 @@
+package com.biblioteca.replicacao;
+
+import com.biblioteca.event.LivroAlteradoEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replicação de mentira, para testar as réplicas de leitura na máquina do
+ * desenvolvedor (perfil "replicas": primário e réplica são dois H2 em memória).
+ *
+ * O H2 não tem replicação. Aqui a aplicação copia as linhas alteradas do
+ * primário para as réplicas, com um atraso fixo (biblioteca.replicas.
+ * replicacao-local-atraso) para o atraso de uma replicação de verdade
+ * aparecer nos testes:
+ *
+ * 1. Na subida: cria o esquema nas réplicas (mesmas migrações do primário)
+ *    e, com a aplicação no ar, copia a tabela livros inteira
+ * 2. Cada alteração confirmada (LivroAlteradoEvent) entra numa fila com o
+ *    instante do commit; o heartbeat do primário também
+ * 3. Uma thread aplica, em ordem, o que já passou do atraso: lê as linhas
+ *    atuais no primário e grava nas réplicas (MERGE); as que sumiram do
+ *    primário são apagadas
+ *
+ * Como o heartbeat passa pela mesma fila, a posição lida nas réplicas
+ * (RoteamentoLeituraDataSource) fica atrasada como os dados.
+ *
+ * Não usar com réplicas de verdade: lá quem replica é o banco.
+ */
+@Slf4j
+public class ReplicadorLocal implements InitializingBean, DisposableBean {
+
+    private static final int IDS_POR_COMANDO = 500;
+    private static final int LINHAS_POR_LOTE = 1000;
+    private static final int ALTERACOES_POR_RODADA = 10_000;
+    private static final long INTERVALO_MS = 20;
+
+    private final DataSource dataSource;
+    private final Flyway flyway;
+    private final long atrasoMs;
+    private final Queue<Alteracao> fila = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService replicacao;
+
+    private JdbcTemplate primario;
+    private List<JdbcTemplate> replicas;
+
+    /**
+     * Só a thread de replicação usa.
+     */
+    private long ultimoHeartbeat;
+    private boolean falhando;
+
+    public ReplicadorLocal(DataSource dataSource, Flyway flyway, Duration atraso) {
+        this.dataSource = dataSource;
+        this.flyway = flyway;
+        this.atrasoMs = atraso.toMillis();
+        this.replicacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "replicador-local");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        RoteamentoLeituraDataSource roteamento = dataSource.unwrap(RoteamentoLeituraDataSource.class);
+        primario = new JdbcTemplate(roteamento.getPrimario());
+        primario.setFetchSize(LINHAS_POR_LOTE);
+        replicas = new ArrayList<>();
+        for (RoteamentoLeituraDataSource.Replica replica : roteamento.getReplicas()) {
+            log.info("Réplica local {}: criando o esquema", replica.nome());
+            // Mesma configuração do Flyway do primário, apontada para a réplica
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(replica.dataSource())
+                    .load()
+                    .migrate();
+            replicas.add(new JdbcTemplate(replica.dataSource()));
+        }
+    }
+
+    /**
+     * Primeiro ouvinte de commit: o instante na fila é anterior ao de
+     * qualquer cookie ou ETag gerado pela mesma alteração.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLivro(LivroAlteradoEvent evento) {
+        fila.add(new Alteracao(System.currentTimeMillis(), evento.id(), null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        replicacao.execute(this::copiarTudo);
+        replicacao.scheduleWithFixedDelay(this::aplicarPendentes, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cópia inicial. O que for alterado durante a cópia também está na
+     * fila e é copiado de novo depois (MERGE: repetir não faz mal).
+     */
+    private void copiarTudo() {
+        long inicio = System.currentTimeMillis();
+        try {
+            replicas.forEach(replica -> replica.update("DELETE FROM livros"));
+            Lote lote = new Lote();
+            primario.query("SELECT * FROM livros ORDER BY id", rs -> {
+                lote.adicionar(rs);
+                if (lote.linhas.size() == LINHAS_POR_LOTE) {
+                    gravar(lote);
+                }
+            });
+            gravar(lote);
+            log.info("Réplicas locais: {} livros copiados em {} ms", lote.total, System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            log.error("Réplicas locais: falha na cópia inicial", e);
+        }
+    }
+
+    /**
+     * Aplica as alterações que já passaram do atraso, na ordem da fila.
+     * Só retira da fila depois de aplicar: numa falha, tenta de novo na próxima rodada.
+     */
+    private void aplicarPendentes() {
+        try {
+            long agora = System.currentTimeMillis();
+            Long heartbeat = primario.queryForObject("SELECT instante FROM replicacao_heartbeat WHERE id = 1", Long.class);
+            if (heartbeat != null && heartbeat != ultimoHeartbeat) {
+                fila.add(new Alteracao(agora, null, heartbeat));
+                ultimoHeartbeat = heartbeat;
+            }
+
+            long limite = agora - atrasoMs;
+            List<Alteracao> prontas = new ArrayList<>();
+            for (Alteracao alteracao : fila) {
+                if (alteracao.instante() > limite || prontas.size() == ALTERACOES_POR_RODADA) {
+                    break;
+                }
+                prontas.add(alteracao);
+            }
+
+            Set<Long> ids = new LinkedHashSet<>();
+            for (Alteracao alteracao : prontas) {
+                if (alteracao.heartbeat() == null) {
+                    ids.add(alteracao.id());
+                    continue;
+                }
+                // Tudo o que veio antes do heartbeat chega antes dele
+                copiarLivros(ids);
+                ids.clear();
+                replicas.forEach(replica -> replica.update(
+                        "UPDATE replicacao_heartbeat SET instante = ? WHERE id = 1", alteracao.heartbeat()));
+            }
+            copiarLivros(ids);
+
+            prontas.forEach(alteracao -> fila.poll());
+            if (falhando) {
+                log.info("Réplicas locais: replicação retomada ({} alterações na fila)", fila.size());
+                falhando = false;
+            }
+        } catch (RuntimeException e) {
+            if (!falhando) {
+                log.warn("Réplicas locais: falha ao replicar, tentando de novo: {}", e.getMessage());
+                falhando = true;
+            }
+        }
+    }
+
+    /**
+     * Estado atual dos livros no primário → réplicas (apaga os que não existem mais).
+     */
+    private void copiarLivros(Collection<Long> ids) {
+        List<Long> todos = new ArrayList<>(ids);
+        for (int inicio = 0; inicio < todos.size(); inicio += IDS_POR_COMANDO) {
+            List<Long> bloco = todos.subList(inicio, Math.min(inicio + IDS_POR_COMANDO, todos.size()));
+            String marcadores = String.join(",", Collections.nCopies(bloco.size(), "?"));
+
+            Lote lote = new Lote();
+            primario.query("SELECT * FROM livros WHERE id IN (" + marcadores + ")", lote::adicionar, bloco.toArray());
+            List<Long> apagados = bloco.stream().filter(id -> !lote.ids.contains(id)).toList();
+            gravar(lote);
+
+            if (!apagados.isEmpty()) {
+                String apagar = "DELETE FROM livros WHERE id IN ("
+                        + String.join(",", Collections.nCopies(apagados.size(), "?")) + ")";
+                replicas.forEach(replica -> replica.update(apagar, apagados.toArray()));
+            }
+        }
+    }
+
+    private void gravar(Lote lote) {
+        if (lote.linhas.isEmpty()) {
+            return;
+        }
+        String comando = "MERGE INTO livros (" + String.join(",", lote.colunas) + ") KEY (id) VALUES ("
+                + String.join(",", Collections.nCopies(lote.colunas.size(), "?")) + ")";
+        replicas.forEach(replica -> replica.batchUpdate(comando, lote.linhas));
+        lote.total += lote.linhas.size();
+        lote.linhas.clear();
+        lote.ids.clear();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        replicacao.shutdownNow();
+        replicacao.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Livro alterado (id) ou heartbeat do primário, com o instante em que entrou na fila.
+     */
+    private record Alteracao(long instante, Long id, Long heartbeat) {}
+
+    /**
+     * Linhas lidas do primário, com os nomes das colunas (SELECT *: copia
+     * qualquer coluna que as migrações criarem).
+     */
+    private static class Lote {
+
+        private List<String> colunas;
+        private final List<Object[]> linhas = new ArrayList<>();
+        private final Set<Long> ids = new HashSet<>();
+        private int total;
+
+        void adicionar(ResultSet rs) throws SQLException {
+            if (colunas == null) {
+                ResultSetMetaData metadados = rs.getMetaData();
+                colunas = new ArrayList<>();
+                for (int i = 1; i <= metadados.getColumnCount(); i++) {
+                    colunas.add(metadados.getColumnName(i));
+                }
+            }
+            Object[] valores = new Object[colunas.size()];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = rs.getObject(i + 1);
+            }
+            linhas.add(valores);
+            ids.add(rs.getLong("id"));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.biblioteca.replicacao;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura (só se biblioteca.replicas.enabled=true).
+ *
+ * - Transações readOnly (a maioria das leituras do LivroService) vão para
+ *   as réplicas em biblioteca.replicas.urls; escritas vão para o primário
+ *   (spring.datasource.*)
+ * - Réplica atrasada além de biblioteca.replicas.atraso-maximo, ou fora
+ *   do ar, para de receber leituras até se recuperar
+ * - Quem acabou de escrever lê o que escreveu (LeituraDasPropriasEscritas)
+ *
+ * Quem mantém as réplicas atualizadas é a replicação do banco. Para testar
+ * sem um banco com replicação: perfil "replicas" (ReplicadorLocal, H2 em memória).
+ *
+ * Exige spring.jpa.open-in-view=false: com ele ligado o Hibernate guarda a
+ * conexão da primeira transação até o fim da requisição, e uma escrita
+ * depois de uma leitura usaria a conexão da réplica.
+ *
+ * Situação: GET /api/monitoramento/replicas
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "biblioteca.replicas.enabled", havingValue = "true")
+public class ReplicasConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final DataSource dataSource;
+    private final Environment env;
+
+    public ReplicasConfig(DataSource dataSource, Environment env) {
+        this.dataSource = dataSource;
+        this.env = env;
+    }
+
+    /**
+     * Envolve o DataSource com o roteamento.
+     */
+    @Bean
+    static BeanPostProcessor roteamentoLeitura(Environment env) {
+        return new RoteamentoPostProcessor(env);
+    }
+
+    @Bean
+    LeituraDasPropriasEscritas leituraDasPropriasEscritas() {
+        return new LeituraDasPropriasEscritas(atrasoMaximo(env));
+    }
+
+    /**
+     * Replicação feita pela aplicação, para testar com H2 (perfil "replicas").
+     * Declarada aqui: é destruída antes desta configuração fechar os pools.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "biblioteca.replicas.replicacao-local", havingValue = "true")
+    ReplicadorLocal replicadorLocal(Flyway flyway) {
+        return new ReplicadorLocal(dataSource, flyway, env.getProperty(
+                "biblioteca.replicas.replicacao-local-atraso", Duration.class, Duration.ofMillis(300)));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(leituraDasPropriasEscritas()).addPathPatterns("/api/**");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() throws SQLException {
+        roteamento().iniciar();
+    }
+
+    /**
+     * DisposableBean: depois de o Tomcat terminar as requisições em andamento.
+     */
+    @Override
+    public void destroy() throws SQLException {
+        roteamento().fechar();
+    }
+
+    private RoteamentoLeituraDataSource roteamento() throws SQLException {
+        return dataSource.unwrap(RoteamentoLeituraDataSource.class);
+    }
+
+    private static Duration atrasoMaximo(Environment env) {
+        return env.getProperty("biblioteca.replicas.atraso-maximo", Duration.class, Duration.ofSeconds(2));
+    }
+
+    /**
+     * Ordered logo depois do bulkhead: o bulkhead fica colado no pool do
+     * primário, e as métricas (sem ordem) por fora do roteamento.
+     */
+    private static class RoteamentoPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment env;
+
+        RoteamentoPostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primario) || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            if (env.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+                throw new IllegalStateException(
+                        "biblioteca.replicas.enabled=true exige spring.jpa.open-in-view=false");
+            }
+            String[] urls = env.getProperty("biblioteca.replicas.urls", String[].class, new String[0]);
+            if (urls.length == 0) {
+                throw new IllegalStateException(
+                        "biblioteca.replicas.enabled=true exige ao menos uma URL em biblioteca.replicas.urls");
+            }
+
+            List<HikariDataSource> pools = new ArrayList<>();
+            for (int i = 0; i < urls.length; i++) {
+                HikariConfig config = new HikariConfig();
+                config.setPoolName("replica-" + (i + 1));
+                config.setJdbcUrl(urls[i].trim());
+                config.setUsername(env.getProperty("biblioteca.replicas.usuario",
+                        env.getProperty("spring.datasource.username")));
+                config.setPassword(env.getProperty("biblioteca.replicas.senha",
+                        env.getProperty("spring.datasource.password")));
+                config.setMaximumPoolSize(env.getProperty("biblioteca.replicas.tamanho-pool", Integer.class, 10));
+                // Réplica fora do ar: falha logo e a leitura vai para o primário na próxima
+                config.setConnectionTimeout(2000);
+                config.setInitializationFailTimeout(-1);
+                pools.add(new HikariDataSource(config));
+            }
+            Duration atrasoMaximo = atrasoMaximo(env);
+            Duration intervalo = env.getProperty("biblioteca.replicas.intervalo", Duration.class,
+                    Duration.ofMillis(200));
+
+            log.info("Réplicas de leitura: {}, atraso máximo {}", pools.size(), atrasoMaximo);
+            return new LazyConnectionDataSourceProxy(
+                    new RoteamentoLeituraDataSource(primario, pools, atrasoMaximo, intervalo));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+}
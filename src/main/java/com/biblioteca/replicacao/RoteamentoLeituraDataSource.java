@@ -0,0 +1,256 @@
+package com.biblioteca.replicacao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escolhe, a cada conexão, entre o primário e as réplicas de leitura.
+ *
+ * - Transação readOnly → uma réplica em dia (rodízio entre elas)
+ * - Todo o resto (escritas, consultas fora de transação) → primário
+ * - Nenhuma réplica em dia → primário (a leitura nunca falha por causa
+ *   de réplica atrasada ou fora do ar)
+ *
+ * Réplica "em dia":
+ * O primário grava o instante atual na tabela replicacao_heartbeat a cada
+ * intervalo (biblioteca.replicas.intervalo); a replicação leva a linha junto
+ * com os dados. Lendo a linha em cada réplica sabemos até que instante ela
+ * já recebeu tudo (a "posição"). Atraso = agora - posição. Em dia quando:
+ * - atraso <= biblioteca.replicas.atraso-maximo
+ * - posição depois da exigida pela requisição (ConsistenciaLeitura), ex:
+ *   cliente que acabou de emprestar um livro
+ * Réplica que não responde fica de fora até voltar.
+ *
+ * Fica atrás de um LazyConnectionDataSourceProxy (ReplicasConfig): o Spring
+ * pede a conexão ao abrir a transação, antes de marcá-la como readOnly; o
+ * proxy só escolhe o destino no primeiro comando SQL, quando a marca já existe.
+ *
+ * Os pools das réplicas são criados aqui (não são beans): o bulkhead e as
+ * métricas continuam envolvendo só o DataSource da aplicação.
+ *
+ * Situação: GET /api/monitoramento/replicas
+ */
+@Slf4j
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARIO = "primario";
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long atrasoMaximoMs;
+    private final long intervaloMs;
+    private final JdbcTemplate jdbcPrimario;
+    private final AtomicInteger vez = new AtomicInteger();
+    private final LongAdder leiturasNoPrimario = new LongAdder();
+    private final ScheduledExecutorService verificacao;
+
+    public RoteamentoLeituraDataSource(DataSource primario, List<HikariDataSource> pools,
+                                       Duration atrasoMaximo, Duration intervalo) {
+        this.primario = primario;
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.atrasoMaximoMs = atrasoMaximo.toMillis();
+        this.intervaloMs = intervalo.toMillis();
+        this.jdbcPrimario = new JdbcTemplate(primario);
+        this.verificacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "replicas-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+        replicas.forEach(replica -> destinos.put(replica.nome(), replica.pool));
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ConsistenciaLeitura.isNoPrimario()) {
+            return PRIMARIO;
+        }
+        Replica replica = escolher(ConsistenciaLeitura.posicaoMinima());
+        if (replica == null) {
+            leiturasNoPrimario.increment();
+            return PRIMARIO;
+        }
+        replica.leituras.increment();
+        return replica.nome();
+    }
+
+    /**
+     * Próxima réplica em dia no rodízio (null = nenhuma).
+     */
+    private Replica escolher(long posicaoMinima) {
+        long agora = System.currentTimeMillis();
+        int inicio = Math.floorMod(vez.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.emDia(agora, atrasoMaximoMs, posicaoMinima)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Começa a gravar o heartbeat no primário e a ler a posição das réplicas.
+     * Chamado com a aplicação no ar (as migrações já criaram a tabela).
+     */
+    public void iniciar() {
+        verificacao.scheduleWithFixedDelay(this::verificar, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void verificar() {
+        try {
+            jdbcPrimario.update("UPDATE replicacao_heartbeat SET instante = GREATEST(instante, ?) WHERE id = 1",
+                    System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível gravar o heartbeat no primário: {}", e.getMessage());
+        }
+        long agora = System.currentTimeMillis();
+        for (Replica replica : replicas) {
+            replica.atualizar(agora, atrasoMaximoMs);
+        }
+    }
+
+    /**
+     * Para a verificação e fecha os pools das réplicas (fim do desligamento).
+     */
+    public void fechar() {
+        verificacao.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    /**
+     * O DataSource do primário (sem roteamento), para quem precisa
+     * dele explicitamente (ex: ReplicadorLocal).
+     */
+    public DataSource getPrimario() {
+        return primario;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getLeiturasNoPrimario() {
+        return leiturasNoPrimario.sum();
+    }
+
+    public Situacao situacao() {
+        long agora = System.currentTimeMillis();
+        return new Situacao(atrasoMaximoMs, leiturasNoPrimario.sum(),
+                replicas.stream().map(replica -> replica.situacao(agora, atrasoMaximoMs)).toList());
+    }
+
+    /**
+     * Uma réplica: o pool de conexões e a última posição lida.
+     */
+    public static class Replica {
+
+        private final HikariDataSource pool;
+        private final JdbcTemplate jdbc;
+        private final LongAdder leituras = new LongAdder();
+
+        /**
+         * Instante (epoch ms) do último heartbeat do primário que já chegou
+         * à réplica (0 = ainda não sabemos).
+         */
+        private volatile long posicao;
+
+        /**
+         * Falha da última verificação (null = respondeu).
+         */
+        private volatile String erro;
+
+        private boolean estavaEmDia;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+            this.jdbc = new JdbcTemplate(pool);
+            this.jdbc.setQueryTimeout(1);
+        }
+
+        public String nome() {
+            return pool.getPoolName();
+        }
+
+        public DataSource dataSource() {
+            return pool;
+        }
+
+        public long leituras() {
+            return leituras.sum();
+        }
+
+        /**
+         * Atraso atual em ms (null enquanto a réplica não responde).
+         */
+        public Long atrasoMs() {
+            long lida = posicao;
+            return erro != null || lida == 0 ? null : Math.max(0, System.currentTimeMillis() - lida);
+        }
+
+        boolean emDia(long agora, long atrasoMaximoMs, long posicaoMinima) {
+            long lida = posicao;
+            return erro == null && lida > posicaoMinima && agora - lida <= atrasoMaximoMs;
+        }
+
+        /**
+         * Lê a posição da réplica. Só a thread de verificação chama.
+         */
+        void atualizar(long agora, long atrasoMaximoMs) {
+            try {
+                Long lida = jdbc.queryForObject("SELECT instante FROM replicacao_heartbeat WHERE id = 1", Long.class);
+                posicao = lida != null ? lida : 0;
+                erro = null;
+            } catch (RuntimeException e) {
+                erro = e.getMessage();
+            }
+
+            boolean emDia = emDia(agora, atrasoMaximoMs, 0);
+            if (emDia != estavaEmDia) {
+                if (emDia) {
+                    log.info("Réplica {} em dia: recebendo leituras", nome());
+                } else if (erro != null) {
+                    log.warn("Réplica {} fora do ar, leituras vão para o primário: {}", nome(), erro);
+                } else {
+                    log.warn("Réplica {} atrasada ({} ms), leituras vão para o primário", nome(), agora - posicao);
+                }
+                estavaEmDia = emDia;
+            }
+        }
+
+        SituacaoReplica situacao(long agora, long atrasoMaximoMs) {
+            return new SituacaoReplica(nome(), emDia(agora, atrasoMaximoMs, 0), atrasoMs(), leituras(), erro);
+        }
+    }
+
+    /**
+     * Tolerância de atraso, leituras que foram ao primário por falta de
+     * réplica em dia, e a situação de cada réplica.
+     */
+    public record Situacao(long atrasoMaximoMs, long leiturasNoPrimario, List<SituacaoReplica> replicas) {}
+
+    /**
+     * emDia = recebendo leituras; atrasoMs = null enquanto não responde.
+     */
+    public record SituacaoReplica(String nome, boolean emDia, Long atrasoMs, long leituras, String erro) {}
+}
@@ -1,10 +1,22 @@
 package com.biblioteca.repository;
 
+import com.biblioteca.dto.LivroResponse;
 import com.biblioteca.model.Livro;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository - Camada de acesso aos dados.
@@ -25,65 +37,283 @@ import java.util.List;
  * - count()               - Contar registros
  * 
  * E muito mais! Sem escrever SQL!
+ * 
+ * extends LivroRepositoryCustom - Consultas dinâmicas feitas "na mão"
+ * (implementadas em LivroRepositoryImpl)
  */
 @Repository
-public interface LivroRepository extends JpaRepository<Livro, Long> {
+public interface LivroRepository extends JpaRepository<Livro, Long>, LivroRepositoryCustom {
+    
+    /**
+     * Cache de consultas do Hibernate (ver FabricaRegioesCache).
+     * 
+     * As consultas marcadas com HINT_CACHEABLE têm o resultado guardado nesta
+     * região, pela consulta + parâmetros. Qualquer escrita na tabela livros
+     * feita pelo Hibernate (inclusive os UPDATEs @Modifying) invalida todos
+     * os resultados guardados: nunca devolve dado velho.
+     * 
+     * Só consultas repetidas com resultado pequeno ou médio são marcadas:
+     * as projeções por autor e por ano, que atendem GET /autor/{autor} e
+     * GET /ano/{ano}. Por disponibilidade NÃO: o resultado é quase a tabela inteira, e cada
+     * empréstimo/devolução o invalida (a listagem de disponíveis já tem o
+     * ETag e o cache de JSON).
+     */
+    String REGIAO_CONSULTAS = "livro_consultas";
     
     /**
      * QUERY METHODS - O Spring cria a query automaticamente!
      * 
      * Como funciona?
      * 1. O Spring lê o nome do metodo
-     * 2. Identifica as palavras-chave (findBy, autor)
-     * 3. Gera o SQL automaticamente: SELECT * FROM livros WHERE autor = ?
+     * 2. Identifica as palavras-chave (existsBy, titulo)
+     * 3. Gera o SQL automaticamente: SELECT ... FROM livros WHERE titulo = ?
      * 
      * Não precisamos escrever SQL ou JPQL manualmente!
+     * 
+     * As buscas que devolvem livros (por autor, disponibilidade, título)
+     * ficam mais abaixo, como projeções em LivroResponse.
      */
     
     /**
-     * Busca livros por autor.
+     * Verifica se existe livro com aquele título (útil para evitar duplicados).
      * 
-     * SQL gerado: SELECT * FROM livros WHERE autor = ?
+     * SQL gerado: SELECT COUNT(*) > 0 FROM livros WHERE titulo = ?
      */
-    List<Livro> findByAutor(String autor);
+    boolean existsByTitulo(String titulo);
     
     /**
-     * Busca livros por disponibilidade.
+     * Conta quantos livros estão disponíveis.
      * 
-     * SQL gerado: SELECT * FROM livros WHERE disponivel = ?
+     * SQL gerado: SELECT COUNT(*) FROM livros WHERE disponivel = ?
+     */
+    Long countByDisponivel(Boolean disponivel);
+
+    /**
+     * CONTAGENS AGRUPADAS - Usadas só para conferir as estatísticas em
+     * memória (EstatisticasCatalogo) com o banco, de tempos em tempos.
+     *
+     * SQL gerado: SELECT ano, COUNT(*) FROM livros GROUP BY ano
+     *
+     * @return pares [valor, quantidade]
      */
-    List<Livro> findByDisponivel(Boolean disponivel);
+    @Query("SELECT l.ano, COUNT(l) FROM Livro l GROUP BY l.ano")
+    List<Object[]> contarPorAno();
+
+    @Query("SELECT l.autor, COUNT(l) FROM Livro l GROUP BY l.autor")
+    List<Object[]> contarPorAutor();
+
+    @Query("SELECT l.editora, COUNT(l) FROM Livro l GROUP BY l.editora")
+    List<Object[]> contarPorEditora();
+
+    /**
+     * PROJEÇÕES - Consultas que já devolvem LivroResponse.
+     * 
+     * "SELECT new ...LivroResponse(...)" (constructor expression do JPQL):
+     * o Hibernate cria o DTO direto a partir de cada linha do ResultSet.
+     * 
+     * Por que não buscar Livro e converter com fromEntity()?
+     * - Entidades ficam no persistence context, com uma cópia de cada uma
+     *   guardada para o dirty checking (detectar alterações no commit)
+     * - Depois ainda é criado o LivroResponse: dois objetos por linha
+     * - Nas leituras nada disso é necessário
+     */
+    String PROJECAO_RESPONSE = "SELECT new com.biblioteca.dto.LivroResponse("
+            + "l.id, l.titulo, l.autor, l.ano, l.editora, l.disponivel, l.dataCadastro, l.versao) "
+            + "FROM Livro l ";
     
     /**
-     * Busca livros cujo título CONTÉM o texto (case insensitive).
+     * Todos os livros, já como LivroResponse.
      * 
-     * Containing - Busca com LIKE %texto%
-     * IgnoreCase - Ignora maiúsculas/minúsculas
+     * SQL gerado: SELECT id, titulo, ... FROM livros ORDER BY id
+     */
+    @Query(PROJECAO_RESPONSE + "ORDER BY l.id")
+    List<LivroResponse> listarResponses();
+    
+    /**
+     * Um livro pelo ID, já como LivroResponse.
+     */
+    @Query(PROJECAO_RESPONSE + "WHERE l.id = :id")
+    Optional<LivroResponse> buscarResponsePorId(@Param("id") Long id);
+    
+    /**
+     * Vários livros pelos IDs (uma consulta com IN).
      * 
-     * SQL gerado: SELECT * FROM livros WHERE LOWER(titulo) LIKE LOWER(?%)
+     * SQL gerado: SELECT ... FROM livros WHERE id IN (?, ?, ...)
+     */
+    @Query(PROJECAO_RESPONSE + "WHERE l.id IN :ids")
+    List<LivroResponse> buscarResponsesPorIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Livros de um autor, já como LivroResponse.
      * 
-     * Exemplo: buscar "dom" encontra "Dom Casmurro" e "Domingos"
+     * SQL gerado: SELECT id, titulo, ... FROM livros WHERE autor = ? ORDER BY id
+     * Ordenado por id: o mesmo ETag do catálogo sempre corresponde à mesma resposta.
      */
-    List<Livro> findByTituloContainingIgnoreCase(String titulo);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGIAO_CONSULTAS)
+    })
+    @Query(PROJECAO_RESPONSE + "WHERE l.autor = :autor ORDER BY l.id")
+    List<LivroResponse> buscarResponsesPorAutor(@Param("autor") String autor);
     
     /**
-     * Busca livros por ano de publicação.
+     * Livros de um ano, já como LivroResponse.
      * 
-     * SQL gerado: SELECT * FROM livros WHERE ano = ?
+     * SQL gerado: SELECT id, titulo, ... FROM livros WHERE ano = ? ORDER BY id
+     * Índice idx_livros_ano_id: já entrega as linhas na ordem do ORDER BY.
      */
-    List<Livro> findByAno(Integer ano);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGIAO_CONSULTAS)
+    })
+    @Query(PROJECAO_RESPONSE + "WHERE l.ano = :ano ORDER BY l.id")
+    List<LivroResponse> buscarResponsesPorAno(@Param("ano") Integer ano);
     
     /**
-     * Verifica se existe livro com aquele título (útil para evitar duplicados).
+     * Livros disponíveis (ou emprestados), já como LivroResponse.
      * 
-     * SQL gerado: SELECT COUNT(*) > 0 FROM livros WHERE titulo = ?
+     * SQL gerado: SELECT id, titulo, ... FROM livros WHERE disponivel = ? ORDER BY id
+     * Ordenado por id: o mesmo ETag do catálogo sempre corresponde à mesma resposta.
      */
-    boolean existsByTitulo(String titulo);
+    @Query(PROJECAO_RESPONSE + "WHERE l.disponivel = :disponivel ORDER BY l.id")
+    List<LivroResponse> buscarResponsesPorDisponivel(@Param("disponivel") Boolean disponivel);
     
     /**
-     * Conta quantos livros estão disponíveis.
+     * Livros cujo título CONTÉM o texto (ignora maiúsculas), já como LivroResponse.
+     * Só usado enquanto o índice de busca não está pronto (ver LivroService.buscarPorTitulo).
      * 
-     * SQL gerado: SELECT COUNT(*) FROM livros WHERE disponivel = ?
+     * SQL gerado: SELECT id, titulo, ... FROM livros WHERE LOWER(titulo) LIKE LOWER('%' || ? || '%')
      */
-    Long countByDisponivel(Boolean disponivel);
+    @Query(PROJECAO_RESPONSE + "WHERE LOWER(l.titulo) LIKE LOWER(CONCAT('%', :titulo, '%'))")
+    List<LivroResponse> buscarResponsesPorTituloContendo(@Param("titulo") String titulo);
+    
+    /**
+     * Percorre TODOS os livros com um cursor do banco (sem montar uma List).
+     * 
+     * Stream - As linhas são lidas aos poucos, conforme o Stream é consumido
+     * HINT_FETCH_SIZE - Quantas linhas o driver JDBC busca por vez
+     * 
+     * Como é uma projeção, nada fica no persistence context:
+     * a memória usada não cresce com o tamanho da tabela.
+     * 
+     * Importante: precisa ser chamado dentro de uma transação
+     * e o Stream deve ser fechado (try-with-resources).
+     * 
+     * SQL gerado: SELECT id, titulo, ... FROM livros ORDER BY id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PROJECAO_RESPONSE + "ORDER BY l.id")
+    Stream<LivroResponse> streamTodos();
+    
+    /**
+     * Todos os livros como [id, titulo, autor, totalEmprestimos], em streaming.
+     * Só o necessário para reconstruir o índice do autocompletar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT l.id, l.titulo, l.autor, l.totalEmprestimos FROM Livro l")
+    Stream<Object[]> streamParaAutocompletar();
+    
+    /**
+     * Todos os IDs, em streaming (para o FiltroIdsExistentes).
+     * 
+     * SQL gerado: SELECT id FROM livros (lido só do índice da chave primária)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT l.id FROM Livro l")
+    Stream<Long> streamIds();
+    
+    /**
+     * Trecho dos UPDATEs de disponibilidade: emprestar soma 1 em
+     * totalEmprestimos, devolver não muda nada.
+     */
+    String EMPRESTIMO_CONTADO = "l.totalEmprestimos = l.totalEmprestimos "
+            + "+ CASE WHEN :disponivel = false THEN 1 ELSE 0 END ";
+    
+    /**
+     * Muda a disponibilidade em UM comando, só se o livro ainda não estiver nesse estado.
+     * 
+     * @Modifying - Indica que a query altera dados (UPDATE/DELETE)
+     * clearAutomatically - Limpa o persistence context depois (evita ler o livro velho)
+     * 
+     * O banco faz a verificação e a alteração juntas (atômico):
+     * dois empréstimos simultâneos do mesmo livro → só um altera a linha.
+     * 
+     * SQL gerado: UPDATE livros SET disponivel = ?, versao = versao + 1, total_emprestimos = ...
+     *             WHERE id = ? AND disponivel <> ?
+     * 
+     * @return quantidade de linhas alteradas (0 = não existe ou já estava nesse estado)
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Livro l SET l.disponivel = :disponivel, l.versao = l.versao + 1, "
+            + EMPRESTIMO_CONTADO
+            + "WHERE l.id = :id AND l.disponivel <> :disponivel")
+    int alterarDisponibilidade(@Param("id") Long id, @Param("disponivel") Boolean disponivel);
+    
+    /**
+     * Igual ao alterarDisponibilidade(), mas só se o livro ainda estiver na versão informada.
+     * 
+     * Se alterou 1 linha, o livro é exatamente o que o chamador já tinha
+     * (só mudou disponivel e versao): não precisa ler de novo do banco.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Livro l SET l.disponivel = :disponivel, l.versao = l.versao + 1, "
+            + EMPRESTIMO_CONTADO
+            + "WHERE l.id = :id AND l.versao = :versao AND l.disponivel <> :disponivel")
+    int alterarDisponibilidadeNaVersao(@Param("id") Long id,
+                                       @Param("disponivel") Boolean disponivel,
+                                       @Param("versao") Long versao);
+    
+    /**
+     * Lê a disponibilidade de vários livros TRAVANDO as linhas até o fim da transação.
+     * 
+     * @Lock(PESSIMISTIC_WRITE) - SELECT ... FOR UPDATE: outra transação que
+     * tente emprestar/devolver esses livros espera esta terminar.
+     * ORDER BY id - Todos travam na mesma ordem, então dois lotes com
+     * livros em comum não ficam um esperando o outro (deadlock).
+     * 
+     * @return pares [id, disponivel] dos livros que existem
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l.id, l.disponivel FROM Livro l WHERE l.id IN :ids ORDER BY l.id")
+    List<Object[]> travarDisponibilidade(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Versão em lote do alterarDisponibilidade(): UM comando para todos os IDs.
+     * 
+     * SQL gerado: UPDATE livros SET disponivel = ?, versao = versao + 1, total_emprestimos = ...
+     *             WHERE id IN (?, ?, ...) AND disponivel <> ?
+     * 
+     * @return quantidade de linhas alteradas
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Livro l SET l.disponivel = :disponivel, l.versao = l.versao + 1, "
+            + EMPRESTIMO_CONTADO
+            + "WHERE l.id IN :ids AND l.disponivel <> :disponivel")
+    int alterarDisponibilidadeEmLote(@Param("ids") Collection<Long> ids,
+                                     @Param("disponivel") Boolean disponivel);
+    
+    /**
+     * Um livro pelo ID, já como LivroResponse, TRAVANDO a linha até o fim da transação.
+     * 
+     * SQL gerado: SELECT id, titulo, ... FROM livros WHERE id = ? FOR UPDATE
+     * 
+     * Usado antes do removerPorId(), na mesma transação: ninguém altera o
+     * livro entre a leitura e o DELETE, então o que foi lido é exatamente
+     * o que sai do catálogo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(PROJECAO_RESPONSE + "WHERE l.id = :id")
+    Optional<LivroResponse> travarResponsePorId(@Param("id") Long id);
+    
+    /**
+     * Remove o livro em UM comando (em vez de existsById + deleteById,
+     * que fazem SELECT, SELECT de novo para carregar a entidade e DELETE).
+     * 
+     * SQL gerado: DELETE FROM livros WHERE id = ?
+     * 
+     * @return 1 se removeu, 0 se o livro não existia
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Livro l WHERE l.id = :id")
+    int removerPorId(@Param("id") Long id);
 }
@@ -0,0 +1,40 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.dto.FiltroLivro;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.OrdenacaoLivro;
+
+import java.util.List;
+
+/**
+ * Consultas que não dá para expressar com Query Methods.
+ * 
+ * O Spring Data junta esta interface ao LivroRepository e usa a
+ * implementação LivroRepositoryImpl (o sufixo "Impl" é a convenção).
+ */
+public interface LivroRepositoryCustom {
+    
+    /**
+     * Busca uma página pela técnica de keyset (seek), já como LivroResponse.
+     * 
+     * SQL gerado (ordem = titulo, crescente, filtro por autor):
+     * SELECT id, titulo, ... FROM livros
+     * WHERE autor = ?
+     *   AND titulo >= ? AND (titulo > ? OR id > ?)
+     * ORDER BY titulo, id
+     * LIMIT ?
+     * 
+     * Só entram no WHERE os filtros informados: cada combinação gera
+     * uma consulta própria, sem condições do tipo "(? IS NULL OR ...)"
+     * que atrapalham o uso dos índices.
+     * 
+     * @param filtro      filtros da pesquisa (FiltroLivro.nenhum() = todos os livros)
+     * @param ordem       chave de ordenação
+     * @param crescente   true = ASC, false = DESC
+     * @param ultimoValor valor da chave na última linha da página anterior (null na primeira página)
+     * @param ultimoId    id da última linha da página anterior (null na primeira página)
+     * @param limite      quantidade máxima de linhas
+     */
+    List<LivroResponse> buscarPaginaKeyset(FiltroLivro filtro, OrdenacaoLivro ordem, boolean crescente,
+                                           Object ultimoValor, Long ultimoId, int limite);
+}
@@ -0,0 +1,134 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.dto.FiltroLivro;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.OrdenacaoLivro;
+import com.biblioteca.model.Livro;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação das consultas customizadas do LivroRepository.
+ * 
+ * Usa a Criteria API do JPA para montar a query de forma dinâmica
+ * (os filtros, a chave de ordenação e a direção só são conhecidos em
+ * tempo de execução).
+ */
+public class LivroRepositoryImpl implements LivroRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<LivroResponse> buscarPaginaKeyset(FiltroLivro filtro, OrdenacaoLivro ordem, boolean crescente,
+                                                  Object ultimoValor, Long ultimoId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LivroResponse> query = cb.createQuery(LivroResponse.class);
+        Root<Livro> livro = query.from(Livro.class);
+        query.select(projecaoResponse(cb, livro));
+        
+        Path<Long> id = livro.get("id");
+        List<Order> ordenacao = new ArrayList<>();
+        List<Predicate> condicoes = filtrar(cb, livro, filtro);
+        
+        // Condição de "seek": pula direto para depois da última linha entregue
+        if (ordem == OrdenacaoLivro.ID) {
+            if (ultimoId != null) {
+                condicoes.add(crescente ? cb.greaterThan(id, ultimoId) : cb.lessThan(id, ultimoId));
+            }
+        } else {
+            Expression chave = livro.get(ordem.getAtributo());
+            ordenacao.add(crescente ? cb.asc(chave) : cb.desc(chave));
+            
+            if (ultimoId != null) {
+                // chave >= valor AND (chave > valor OR id > ultimoId)
+                // O primeiro termo é redundante para o resultado, mas é ele que o
+                // banco usa como faixa no índice (só com o OR, ele percorre o
+                // índice desde o começo e a página N custa O(N))
+                Comparable valor = (Comparable) ultimoValor;
+                condicoes.add(crescente
+                        ? cb.greaterThanOrEqualTo(chave, valor)
+                        : cb.lessThanOrEqualTo(chave, valor));
+                condicoes.add(cb.or(
+                        crescente ? cb.greaterThan(chave, valor) : cb.lessThan(chave, valor),
+                        crescente ? cb.greaterThan(id, ultimoId) : cb.lessThan(id, ultimoId)));
+            }
+        }
+        
+        query.where(condicoes.toArray(Predicate[]::new));
+        
+        // O id sempre desempata, garantindo uma ordem total e estável
+        ordenacao.add(crescente ? cb.asc(id) : cb.desc(id));
+        query.orderBy(ordenacao);
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+    
+    /**
+     * Uma condição para cada filtro informado (os nulos ou vazios são ignorados).
+     */
+    private static List<Predicate> filtrar(CriteriaBuilder cb, Root<Livro> livro, FiltroLivro filtro) {
+        List<Predicate> condicoes = new ArrayList<>();
+        if (temTexto(filtro.getAutor())) {
+            condicoes.add(cb.equal(livro.get("autor"), filtro.getAutor().trim()));
+        }
+        if (temTexto(filtro.getTitulo())) {
+            condicoes.add(cb.like(cb.lower(livro.get("titulo")),
+                    "%" + escaparLike(filtro.getTitulo().trim().toLowerCase()) + "%", '\\'));
+        }
+        if (temTexto(filtro.getEditora())) {
+            condicoes.add(cb.equal(livro.get("editora"), filtro.getEditora().trim()));
+        }
+        if (filtro.getAnoMinimo() != null) {
+            condicoes.add(cb.greaterThanOrEqualTo(livro.get("ano"), filtro.getAnoMinimo()));
+        }
+        if (filtro.getAnoMaximo() != null) {
+            condicoes.add(cb.lessThanOrEqualTo(livro.get("ano"), filtro.getAnoMaximo()));
+        }
+        if (filtro.getDisponivel() != null) {
+            condicoes.add(cb.equal(livro.get("disponivel"), filtro.getDisponivel()));
+        }
+        return condicoes;
+    }
+    
+    private static boolean temTexto(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+    
+    /**
+     * "50%" → "50\%": o trecho digitado é procurado literalmente.
+     */
+    private static String escaparLike(String trecho) {
+        return trecho.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * Equivalente Criteria do "SELECT new LivroResponse(...)":
+     * monta o DTO direto do resultado, sem carregar a entidade.
+     */
+    private static CompoundSelection<LivroResponse> projecaoResponse(CriteriaBuilder cb, Root<Livro> livro) {
+        return cb.construct(LivroResponse.class,
+                livro.get("id"),
+                livro.get("titulo"),
+                livro.get("autor"),
+                livro.get("ano"),
+                livro.get("editora"),
+                livro.get("disponivel"),
+                livro.get("dataCadastro"),
+                livro.get("versao"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.BackupResponse;
+import com.biblioteca.exception.AcessoNegadoException;
+import com.biblioteca.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Service - Backup do banco com a aplicação no ar.
+ *
+ * Usa o comando BACKUP TO do H2: copia o arquivo do banco para um .zip
+ * a partir de um ponto consistente, sem parar as leituras nem as escritas
+ * (quem grava durante a cópia não entra no backup, mas também não espera).
+ *
+ * - Um backup por vez (o segundo pedido recebe 409)
+ * - O .zip é gravado com nome provisório e renomeado no fim: um backup
+ *   interrompido no meio nunca parece completo
+ * - Mantém só os biblioteca.backup.manter mais recentes
+ *
+ * Só funciona com o banco em arquivo (perfil "producao"); o banco em
+ * memória não tem arquivo para copiar.
+ *
+ * Desligado até ser configurado (o .zip é o banco inteiro):
+ * - biblioteca.backup.token: quem pede manda o mesmo valor no cabeçalho
+ *   X-Backup-Token. Sem token configurado, todo pedido recebe 403
+ * - biblioteca.backup.diretorio: sem valor padrão. Não pode ficar dentro
+ *   de biblioteca.dados.diretorio (a aplicação nem sobe): o backup serve
+ *   justamente para quando o disco do banco falha
+ *
+ * Restauração (com a aplicação parada): descompacte o .zip no diretório
+ * do banco (biblioteca.dados.diretorio) e suba a aplicação.
+ */
+@Slf4j
+@Service
+public class BackupService {
+
+    private static final String PREFIXO = "biblioteca-";
+    private static final DateTimeFormatter DATA_ARQUIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbc;
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+    /** Resumo SHA-256 do token (null = backup desligado) */
+    private final byte[] resumoToken;
+
+    /** null = não configurado */
+    private final Path diretorio;
+
+    @Value("${biblioteca.backup.manter:7}")
+    private int manter;
+
+    public BackupService(JdbcTemplate jdbc,
+                         @Value("${biblioteca.backup.token:}") String token,
+                         @Value("${biblioteca.backup.diretorio:}") String diretorio,
+                         @Value("${biblioteca.dados.diretorio:}") String dadosDiretorio) {
+        this.jdbc = jdbc;
+        this.resumoToken = token.isBlank() ? null : resumir(token);
+        this.diretorio = diretorio.isBlank() ? null : Path.of(diretorio).toAbsolutePath().normalize();
+
+        if (this.diretorio != null && !dadosDiretorio.isBlank()
+                && this.diretorio.startsWith(Path.of(dadosDiretorio).toAbsolutePath().normalize())) {
+            throw new IllegalStateException("biblioteca.backup.diretorio (" + this.diretorio
+                    + ") está dentro de biblioteca.dados.diretorio: use outro disco");
+        }
+    }
+
+    /**
+     * Gera um backup completo do banco.
+     *
+     * @param token valor do cabeçalho X-Backup-Token
+     * @throws AcessoNegadoException backup desligado (sem token configurado) ou token errado
+     * @throws ConflictException     sem diretório configurado, banco em memória,
+     *                               ou outro backup em andamento
+     */
+    public BackupResponse criar(String token) {
+        if (resumoToken == null) {
+            throw new AcessoNegadoException("Backup desligado: configure biblioteca.backup.token");
+        }
+        // Compara os resumos, em tempo constante: o tempo da resposta não
+        // revela quantos caracteres do token estavam certos
+        if (token == null || !MessageDigest.isEqual(resumoToken, resumir(token))) {
+            throw new AcessoNegadoException("Token de backup inválido");
+        }
+        if (diretorio == null) {
+            throw new ConflictException("Backup sem diretório: configure biblioteca.backup.diretorio");
+        }
+
+        String url = jdbc.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getURL());
+        if (url == null || url.startsWith("jdbc:h2:mem:")) {
+            throw new ConflictException("Backup disponível só com o banco em arquivo (perfil producao)");
+        }
+        if (!emAndamento.compareAndSet(false, true)) {
+            throw new ConflictException("Já existe um backup em andamento");
+        }
+
+        try {
+            long inicio = System.currentTimeMillis();
+            Files.createDirectories(diretorio);
+            Path destino = diretorio.resolve(PREFIXO + LocalDateTime.now().format(DATA_ARQUIVO) + ".zip")
+                    .toAbsolutePath();
+            Path provisorio = destino.resolveSibling(destino.getFileName() + ".parcial");
+
+            jdbc.execute("BACKUP TO '" + provisorio.toString().replace("'", "''") + "'");
+            Files.move(provisorio, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            BackupResponse resposta = new BackupResponse(destino.toString(), Files.size(destino),
+                    System.currentTimeMillis() - inicio, removerAntigos());
+            log.info("Backup gerado: {} ({} bytes em {} ms)", resposta.getArquivo(),
+                    resposta.getTamanhoBytes(), resposta.getDuracaoMs());
+            return resposta;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            emAndamento.set(false);
+        }
+    }
+
+    private static byte[] resumir(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);  // SHA-256 existe em toda JVM
+        }
+    }
+
+    /**
+     * Apaga os backups além dos "manter" mais recentes.
+     * O nome tem a data (yyyyMMdd-HHmmss), então a ordem alfabética é a cronológica.
+     */
+    private List<String> removerAntigos() throws IOException {
+        List<Path> backups;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            backups = arquivos
+                    .filter(arquivo -> {
+                        String nome = arquivo.getFileName().toString();
+                        return nome.startsWith(PREFIXO) && nome.endsWith(".zip");
+                    })
+                    .sorted()
+                    .toList();
+        }
+
+        List<String> removidos = new ArrayList<>();
+        for (int i = 0; i < backups.size() - Math.max(1, manter); i++) {
+            Files.deleteIfExists(backups.get(i));
+            removidos.add(backups.get(i).toAbsolutePath().toString());
+        }
+        return removidos;
+    }
+}
@@ -0,0 +1,90 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.OrdenacaoLivro;
+import com.biblioteca.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor da paginação por keyset (seek).
+ * 
+ * Guarda a posição da última linha entregue: a chave de ordenação,
+ * a direção, o valor dessa chave e o id (desempate).
+ * 
+ * Por que não usar OFFSET?
+ * - OFFSET 100000 obriga o banco a ler e descartar 100 mil linhas
+ * - Com o cursor, a próxima página é "WHERE (chave, id) > (valor, ultimoId)"
+ *   e o banco vai direto ao ponto pelo índice: custo constante em qualquer página
+ * 
+ * Para o cliente o cursor é opaco: uma string Base64 (URL safe).
+ */
+record CursorPaginacao(OrdenacaoLivro ordem, boolean crescente, Long ultimoId, Object ultimoValor) {
+    
+    private static final String VERSAO = "v1";
+    private static final String SEPARADOR = "|";
+    
+    /**
+     * Cria o cursor que aponta para depois do livro informado.
+     */
+    static CursorPaginacao depoisDe(LivroResponse livro, OrdenacaoLivro ordem, boolean crescente) {
+        Object valor = switch (ordem) {
+            case ID -> null;
+            case TITULO -> livro.getTitulo();
+            case AUTOR -> livro.getAutor();
+            case ANO -> livro.getAno();
+        };
+        return new CursorPaginacao(ordem, crescente, livro.getId(), valor);
+    }
+    
+    /**
+     * Serializa o cursor: "v1|ORDEM|ASC|id|valor" em Base64 URL safe.
+     * O valor fica por último porque pode conter o separador (ex: títulos).
+     */
+    String codificar() {
+        String texto = String.join(SEPARADOR,
+                VERSAO,
+                ordem.name(),
+                crescente ? "ASC" : "DESC",
+                String.valueOf(ultimoId),
+                ultimoValor != null ? ultimoValor.toString() : "");
+        
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Lê o cursor recebido do cliente.
+     * 
+     * Qualquer cursor adulterado ou de outra versão vira 400 (Bad Request).
+     */
+    static CursorPaginacao decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("\\|", 5);
+            
+            if (partes.length != 5 || !VERSAO.equals(partes[0])) {
+                throw new BadRequestException("Cursor de paginação inválido");
+            }
+            
+            OrdenacaoLivro ordem = OrdenacaoLivro.valueOf(partes[1]);
+            boolean crescente = switch (partes[2]) {
+                case "ASC" -> true;
+                case "DESC" -> false;
+                default -> throw new BadRequestException("Cursor de paginação inválido");
+            };
+            Long ultimoId = Long.valueOf(partes[3]);
+            Object valor = switch (ordem) {
+                case ID -> null;
+                case TITULO, AUTOR -> partes[4];
+                case ANO -> Integer.valueOf(partes[4]);
+            };
+            
+            return new CursorPaginacao(ordem, crescente, ultimoId, valor);
+        } catch (IllegalArgumentException ex) {
+            // Base64 inválido, enum desconhecido ou número mal formatado
+            throw new BadRequestException("Cursor de paginação inválido");
+        }
+    }
+}
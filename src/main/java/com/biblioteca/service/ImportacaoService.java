@@ -0,0 +1,193 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.ImportacaoResponse;
+import com.biblioteca.dto.LivroRequest;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.biblioteca.model.Livro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service - Importação em massa de livros.
+ * 
+ * Por que não chamar o cadastrar() 100 mil vezes?
+ * - Cada cadastrar() abre uma transação e faz um INSERT por ida ao banco
+ * - Aqui os INSERTs vão em lotes JDBC (hibernate.jdbc.batch_size por ida ao banco)
+ *   e cada transação grava um bloco inteiro (linhas-por-transacao)
+ * 
+ * Fluxo:
+ * 1. LeitorImportacao lê o arquivo (JSON, NDJSON ou CSV) registro a registro
+ * 2. Cada registro é validado com as mesmas regras do LivroRequest (@NotBlank, @Min...)
+ * 3. Registros válidos são acumulados até completar um bloco
+ * 4. O bloco é gravado em uma transação (persist + flush/clear a cada lote JDBC)
+ * 5. Registros inválidos vão para o relatório, com o número da linha
+ * 
+ * Se um bloco falhar no banco, só ele é desfeito: os blocos anteriores
+ * já foram confirmados e as linhas do bloco aparecem no relatório.
+ */
+@Slf4j
+@Service
+public class ImportacaoService {
+    
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventos;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+    
+    @Value("${biblioteca.importacao.linhas-por-transacao:1000}")
+    private int linhasPorTransacao;
+    
+    @Value("${biblioteca.importacao.max-erros-relatados:1000}")
+    private int maxErrosRelatados;
+    
+    public ImportacaoService(EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventos) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventos = eventos;
+    }
+    
+    /**
+     * Importa todos os livros do arquivo.
+     * 
+     * @param formato "json", "ndjson" ou "csv"
+     * @param entrada corpo da requisição (lido em streaming)
+     * @return relatório com totais, vazão e erros por linha
+     */
+    public ImportacaoResponse importar(String formato, InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        LeitorImportacao leitor = LeitorImportacao.para(formato, entrada, objectMapper);
+        
+        Relatorio relatorio = new Relatorio();
+        List<LeitorImportacao.Linha> bloco = new ArrayList<>(linhasPorTransacao);
+        
+        while (leitor.hasNext()) {
+            LeitorImportacao.Linha linha = leitor.next();
+            relatorio.total++;
+            
+            if (linha.erroLeitura() != null) {
+                relatorio.rejeitar(linha.numero(), Map.of("registro", linha.erroLeitura()));
+                continue;
+            }
+            
+            Map<String, String> erros = validar(linha.request());
+            if (!erros.isEmpty()) {
+                relatorio.rejeitar(linha.numero(), erros);
+                continue;
+            }
+            
+            bloco.add(linha);
+            if (bloco.size() == linhasPorTransacao) {
+                gravarBloco(bloco, relatorio);
+                bloco.clear();
+            }
+        }
+        gravarBloco(bloco, relatorio);
+        
+        long duracaoMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        long linhasPorSegundo = relatorio.importados * 1000 / duracaoMs;
+        log.info("Importação ({}): {} linhas, {} importadas, {} rejeitadas em {} ms ({} linhas/s)",
+                formato, relatorio.total, relatorio.importados, relatorio.rejeitados, duracaoMs, linhasPorSegundo);
+        
+        return new ImportacaoResponse(relatorio.total, relatorio.importados, relatorio.rejeitados,
+                duracaoMs, linhasPorSegundo, relatorio.erros);
+    }
+    
+    /**
+     * Grava um bloco em uma transação só.
+     * 
+     * flush() - Envia os INSERTs pendentes (o Hibernate agrupa em batch)
+     * clear() - Esvazia o persistence context, senão ele cresceria a cada lote
+     */
+    private void gravarBloco(List<LeitorImportacao.Linha> bloco, Relatorio relatorio) {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int pendentes = 0;
+                for (LeitorImportacao.Linha linha : bloco) {
+                    Livro livro = LivroService.paraEntidade(linha.request());
+                    entityManager.persist(livro);
+                    
+                    // Mesmo evento do cadastrar(): só é entregue se o bloco for confirmado
+                    eventos.publishEvent(LivroAlteradoEvent.de(TipoAlteracao.CRIADO, LivroResponse.fromEntity(livro)));
+                    
+                    if (++pendentes == tamanhoLoteJdbc) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        pendentes = 0;
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            relatorio.importados += bloco.size();
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao gravar bloco da importação (linhas {} a {})",
+                    bloco.get(0).numero(), bloco.get(bloco.size() - 1).numero(), ex);
+            for (LeitorImportacao.Linha linha : bloco) {
+                relatorio.rejeitar(linha.numero(), Map.of("registro", "Erro ao gravar no banco"));
+            }
+        }
+    }
+    
+    /**
+     * Aplica as validações do LivroRequest (as mesmas do @Valid no Controller).
+     * 
+     * @return campo → mensagem (vazio se o registro é válido)
+     */
+    private Map<String, String> validar(LivroRequest request) {
+        Set<ConstraintViolation<LivroRequest>> violacoes = validator.validate(request);
+        Map<String, String> erros = new LinkedHashMap<>();
+        for (ConstraintViolation<LivroRequest> violacao : violacoes) {
+            erros.put(violacao.getPropertyPath().toString(), violacao.getMessage());
+        }
+        return erros;
+    }
+    
+    /**
+     * Totais acumulados durante a importação.
+     */
+    private class Relatorio {
+        long total;
+        long importados;
+        long rejeitados;
+        final List<ImportacaoResponse.ErroLinha> erros = new ArrayList<>();
+        
+        void rejeitar(long linha, Map<String, String> mensagens) {
+            rejeitados++;
+            // Limita o relatório: um arquivo todo errado não pode estourar a memória
+            if (erros.size() < maxErrosRelatados) {
+                erros.add(new ImportacaoResponse.ErroLinha(linha, mensagens));
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.LivroRequest;
+import com.biblioteca.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê o arquivo da importação em massa, uma linha por vez.
+ * 
+ * Formatos aceitos:
+ * - JSON: array de livros  [ {...}, {...} ]
+ * - NDJSON: um livro JSON por linha
+ * - CSV: cabeçalho com titulo,autor,ano,editora,disponivel (separador "," ou ";")
+ * 
+ * Nada é carregado inteiro na memória: o Iterator lê o próximo
+ * registro só quando é pedido.
+ */
+abstract class LeitorImportacao implements Iterator<LeitorImportacao.Linha> {
+    
+    /**
+     * Um registro lido do arquivo.
+     * 
+     * @param numero        número da linha (ou posição no array), começando em 1
+     * @param request       dados do livro (null se não deu para ler)
+     * @param erroLeitura   motivo da falha de leitura (null se leu certo)
+     * @param interromper   true quando o arquivo está corrompido e não dá para continuar
+     */
+    record Linha(long numero, LivroRequest request, String erroLeitura, boolean interromper) {
+        
+        static Linha ok(long numero, LivroRequest request) {
+            return new Linha(numero, request, null, false);
+        }
+        
+        static Linha erro(long numero, String erro) {
+            return new Linha(numero, null, erro, false);
+        }
+        
+        static Linha fatal(long numero, String erro) {
+            return new Linha(numero, null, erro, true);
+        }
+    }
+    
+    /**
+     * Próximo registro já lido (null = ainda não leu ou acabou).
+     */
+    private Linha proxima;
+    private boolean fim;
+    
+    /**
+     * Lê o próximo registro do arquivo. Retorna null no fim.
+     */
+    protected abstract Linha lerProxima() throws IOException;
+    
+    @Override
+    public boolean hasNext() {
+        if (proxima == null && !fim) {
+            try {
+                proxima = lerProxima();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            fim = proxima == null || proxima.interromper();
+        }
+        return proxima != null;
+    }
+    
+    @Override
+    public Linha next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Linha atual = proxima;
+        proxima = null;
+        return atual;
+    }
+    
+    /**
+     * Escolhe o leitor pelo Content-Type da requisição.
+     */
+    static LeitorImportacao para(String formato, InputStream entrada, ObjectMapper objectMapper) throws IOException {
+        return switch (formato) {
+            case "json" -> new ArrayJson(entrada, objectMapper);
+            case "ndjson" -> new Ndjson(entrada, objectMapper);
+            case "csv" -> new Csv(entrada);
+            default -> throw new BadRequestException("Formato de importação não suportado: " + formato);
+        };
+    }
+    
+    /**
+     * Converte um JSON já lido em LivroRequest, sem derrubar a importação
+     * quando um campo vem com tipo errado (ex: "ano": "abc").
+     */
+    private static Linha converter(ObjectMapper objectMapper, long numero, JsonNode json) {
+        try {
+            return Linha.ok(numero, objectMapper.treeToValue(json, LivroRequest.class));
+        } catch (JsonProcessingException ex) {
+            return Linha.erro(numero, "Registro inválido: " + ex.getOriginalMessage());
+        }
+    }
+    
+    /**
+     * JSON: [ {...}, {...} ] lido em streaming com o JsonParser do Jackson.
+     */
+    private static class ArrayJson extends LeitorImportacao {
+        
+        private final JsonParser parser;
+        private final ObjectMapper objectMapper;
+        private long numero;
+        
+        ArrayJson(InputStream entrada, ObjectMapper objectMapper) throws IOException {
+            this.objectMapper = objectMapper;
+            this.parser = objectMapper.getFactory().createParser(entrada);
+            JsonToken primeiro;
+            try {
+                primeiro = parser.nextToken();
+            } catch (JsonProcessingException ex) {
+                // Ex: "xyz" - nem chega a ser JSON (é erro do cliente, não do servidor)
+                throw new BadRequestException("JSON mal formado: " + ex.getOriginalMessage());
+            }
+            if (primeiro != JsonToken.START_ARRAY) {
+                throw new BadRequestException("O corpo da importação JSON deve ser um array de livros");
+            }
+        }
+        
+        @Override
+        protected Linha lerProxima() {
+            numero++;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                JsonNode json = parser.readValueAsTree();
+                return converter(objectMapper, numero, json);
+            } catch (IOException ex) {
+                // JSON quebrado: não dá para saber onde começa o próximo registro
+                return Linha.fatal(numero, "JSON mal formado: " + ex.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * NDJSON: cada linha é um JSON independente (linhas em branco são ignoradas).
+     */
+    private static class Ndjson extends LeitorImportacao {
+        
+        private final BufferedReader leitor;
+        private final ObjectMapper objectMapper;
+        private long numero;
+        
+        Ndjson(InputStream entrada, ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            this.leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        protected Linha lerProxima() throws IOException {
+            String texto;
+            do {
+                texto = leitor.readLine();
+                numero++;
+            } while (texto != null && texto.isBlank());
+            
+            if (texto == null) {
+                return null;
+            }
+            try {
+                return converter(objectMapper, numero, objectMapper.readTree(texto));
+            } catch (JsonProcessingException ex) {
+                return Linha.erro(numero, "JSON mal formado: " + ex.getOriginalMessage());
+            }
+        }
+    }
+    
+    /**
+     * CSV com cabeçalho. A ordem das colunas é livre; "editora" e
+     * "disponivel" são opcionais ("disponivel" só aceita true ou false).
+     * Aceita aspas ("a, b") e aspas escapadas ("").
+     */
+    private static class Csv extends LeitorImportacao {
+        
+        private final BufferedReader leitor;
+        private final char separador;
+        private final Map<String, Integer> colunas = new HashMap<>();
+        private long numero = 1;  // linha 1 é o cabeçalho
+        
+        Csv(InputStream entrada) throws IOException {
+            this.leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            
+            String cabecalho = leitor.readLine();
+            if (cabecalho == null) {
+                throw new BadRequestException("O CSV está vazio (faltou o cabeçalho)");
+            }
+            // Remove o BOM que o Excel coloca no início do arquivo
+            if (cabecalho.startsWith("\uFEFF")) {
+                cabecalho = cabecalho.substring(1);
+            }
+            this.separador = cabecalho.indexOf(';') >= 0 && cabecalho.indexOf(',') < 0 ? ';' : ',';
+            
+            List<String> nomes = separar(cabecalho, separador);
+            for (int i = 0; i < nomes.size(); i++) {
+                colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String obrigatoria : List.of("titulo", "autor", "ano")) {
+                if (!colunas.containsKey(obrigatoria)) {
+                    throw new BadRequestException("O cabeçalho do CSV não tem a coluna obrigatória: " + obrigatoria);
+                }
+            }
+        }
+        
+        @Override
+        protected Linha lerProxima() throws IOException {
+            String texto;
+            do {
+                texto = leitor.readLine();
+                numero++;
+            } while (texto != null && texto.isBlank());
+            
+            if (texto == null) {
+                return null;
+            }
+            
+            List<String> valores = separar(texto, separador);
+            LivroRequest request = new LivroRequest();
+            request.setTitulo(valor(valores, "titulo"));
+            request.setAutor(valor(valores, "autor"));
+            request.setEditora(valor(valores, "editora"));
+            
+            String ano = valor(valores, "ano");
+            if (ano != null) {
+                try {
+                    request.setAno(Integer.valueOf(ano.trim()));
+                } catch (NumberFormatException ex) {
+                    return Linha.erro(numero, "Ano inválido: " + ano);
+                }
+            }
+            
+            String disponivel = valor(valores, "disponivel");
+            if (disponivel != null) {
+                // Boolean.valueOf transformaria "sim", "1" ou um erro de digitação em false
+                String valor = disponivel.trim();
+                if (valor.equalsIgnoreCase("true")) {
+                    request.setDisponivel(true);
+                } else if (valor.equalsIgnoreCase("false")) {
+                    request.setDisponivel(false);
+                } else {
+                    return Linha.erro(numero, "Disponível inválido (use true ou false): " + disponivel);
+                }
+            }
+            
+            return Linha.ok(numero, request);
+        }
+        
+        /**
+         * Valor da coluna na linha atual (null se a coluna não existe ou está vazia).
+         */
+        private String valor(List<String> valores, String coluna) {
+            Integer indice = colunas.get(coluna);
+            if (indice == null || indice >= valores.size()) {
+                return null;
+            }
+            String valor = valores.get(indice);
+            return valor.isEmpty() ? null : valor;
+        }
+        
+        /**
+         * Separa uma linha CSV respeitando campos entre aspas.
+         */
+        private static List<String> separar(String linha, char separador) {
+            List<String> campos = new ArrayList<>();
+            StringBuilder atual = new StringBuilder();
+            boolean entreAspas = false;
+            
+            for (int i = 0; i < linha.length(); i++) {
+                char c = linha.charAt(i);
+                if (entreAspas) {
+                    if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        atual.append('"');  // "" dentro de aspas = uma aspa
+                        i++;
+                    } else if (c == '"') {
+                        entreAspas = false;
+                    } else {
+                        atual.append(c);
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == separador) {
+                    campos.add(atual.toString());
+                    atual.setLength(0);
+                } else {
+                    atual.append(c);
+                }
+            }
+            campos.add(atual.toString());
+            return campos;
+        }
+    }
+}
@@ -1,16 +1,44 @@
 package com.biblioteca.service;
 
+import com.biblioteca.busca.IndiceAutocompletar;
+import com.biblioteca.busca.IndiceInvertido;
+import com.biblioteca.dto.BuscaPorIdsResponse;
+import com.biblioteca.cache.EstatisticasCatalogo;
+import com.biblioteca.cache.FiltroIdsExistentes;
+import com.biblioteca.cache.LivroCache;
+import com.biblioteca.dto.EstatisticasResponse;
+import com.biblioteca.dto.FiltroLivro;
 import com.biblioteca.dto.LivroRequest;
 import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.LoteRequest;
+import com.biblioteca.dto.LoteResponse;
+import com.biblioteca.dto.LoteResponse.Item;
+import com.biblioteca.dto.LoteResponse.Situacao;
+import com.biblioteca.dto.OrdenacaoLivro;
+import com.biblioteca.dto.PaginaResponse;
+import com.biblioteca.dto.SugestaoResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.biblioteca.exception.BadRequestException;
+import com.biblioteca.exception.ConflictException;
 import com.biblioteca.exception.ResourceNotFoundException;
 import com.biblioteca.model.Livro;
+import com.biblioteca.replicacao.ConsistenciaLeitura;
 import com.biblioteca.repository.LivroRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service - Camada de lógica de negócio.
@@ -39,6 +67,73 @@ public class LivroService {
      */
     private final LivroRepository repository;
     
+    /**
+     * Publica um LivroAlteradoEvent a cada escrita.
+     * Quem mantém dados em memória (ex: índice de busca) escuta esses eventos.
+     */
+    private final ApplicationEventPublisher eventos;
+    
+    /**
+     * Índice invertido usado nas buscas por texto.
+     */
+    private final IndiceInvertido indice;
+    
+    /**
+     * Cache dos livros por ID (invalidado pelos eventos de escrita).
+     */
+    private final LivroCache cache;
+    
+    /**
+     * IDs que existem no banco: pedidos de livros inexistentes
+     * são respondidos (404) sem consulta.
+     */
+    private final FiltroIdsExistentes idsExistentes;
+    
+    /**
+     * Índice de prefixos usado no autocompletar.
+     */
+    private final IndiceAutocompletar autocompletar;
+    
+    /**
+     * Contadores do catálogo (total, por ano, autor e editora).
+     */
+    private final EstatisticasCatalogo estatisticas;
+    
+    /**
+     * Limites da listagem paginada (application.properties).
+     */
+    @Value("${biblioteca.paginacao.tamanho-padrao:20}")
+    private int tamanhoPaginaPadrao;
+    
+    @Value("${biblioteca.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+    
+    /**
+     * Máximo de livros por empréstimo/devolução em lote.
+     */
+    @Value("${biblioteca.lote.tamanho-maximo:200}")
+    private int tamanhoLoteMaximo;
+    
+    /**
+     * Máximo de IDs por busca de vários livros.
+     */
+    @Value("${biblioteca.multiget.tamanho-maximo:5000}")
+    private int tamanhoMultigetMaximo;
+    
+    /**
+     * IDs por consulta "WHERE id IN (...)" na busca de vários livros.
+     * Listas enormes viram várias consultas: o banco e o driver têm
+     * limite de parâmetros, e cada lista de tamanho diferente vira um
+     * plano de execução novo no cache do Hibernate.
+     */
+    private static final int IDS_POR_CONSULTA = 500;
+    
+    /**
+     * Máximo de sugestões por chamada do autocompletar.
+     */
+    @Value("${biblioteca.autocompletar.limite-maximo:20}")
+    private int limiteSugestoesMaximo;
+    
     /**
      * CREATE - Cadastrar novo livro.
      * 
@@ -55,18 +150,31 @@ public class LivroService {
     @Transactional
     public LivroResponse cadastrar(LivroRequest request) {
         // Converte DTO → Entidade
+        Livro livro = paraEntidade(request);
+        
+        // Salva no banco (INSERT)
+        Livro salvo = repository.save(livro);
+        
+        // Converte Entidade → DTO Response
+        LivroResponse response = LivroResponse.fromEntity(salvo);
+        eventos.publishEvent(LivroAlteradoEvent.de(TipoAlteracao.CRIADO, response));
+        return response;
+    }
+    
+    /**
+     * Converte LivroRequest → nova Entidade Livro (ainda sem ID).
+     * 
+     * static - Também é usado pela importação em massa (ImportacaoService),
+     * assim as duas formas de cadastro seguem a mesma regra.
+     */
+    static Livro paraEntidade(LivroRequest request) {
         Livro livro = new Livro();
         livro.setTitulo(request.getTitulo());
         livro.setAutor(request.getAutor());
         livro.setAno(request.getAno());
         livro.setEditora(request.getEditora());
         livro.setDisponivel(request.getDisponivel() != null ? request.getDisponivel() : true);
-        
-        // Salva no banco (INSERT)
-        Livro salvo = repository.save(livro);
-        
-        // Converte Entidade → DTO Response
-        return LivroResponse.fromEntity(salvo);
+        return livro;
     }
     
     /**
@@ -75,53 +183,319 @@ public class LivroService {
      * @Transactional(readOnly = true) - Otimização para leitura
      * Não abre transação de escrita (mais rápido)
      * 
-     * Stream API:
-     * - Pega lista de Livros
-     * - Mapeia cada Livro para LivroResponse
-     * - Coleta em uma nova lista
+     * Projeção: o repositório já devolve LivroResponse, montado direto
+     * do resultado da consulta (sem criar entidades Livro no caminho).
      */
     @Transactional(readOnly = true)
     public List<LivroResponse> listarTodos() {
-        return repository.findAll()
-                .stream()
-                .map(LivroResponse::fromEntity)  // Converte cada Livro → Response
-                .collect(Collectors.toList());
+        return repository.listarResponses();
     }
     
     /**
-     * READ - Buscar livro por ID.
+     * READ - Listar livros com paginação por cursor (keyset).
      * 
-     * Optional: Pode ter valor ou não (evita NullPointerException)
-     * orElseThrow: Se não encontrar, lança exceção
+     * Diferente do listarTodos(), nunca carrega a tabela inteira:
+     * cada chamada lê no máximo "tamanho + 1" linhas (a linha extra
+     * só serve para saber se existe próxima página).
+     * 
+     * Na primeira chamada o cliente escolhe ordem/direção; nas seguintes
+     * basta enviar o cursor (ele já carrega a ordem e a direção).
+     * 
+     * @param cursor  cursor recebido na página anterior (null = primeira página)
+     * @param tamanho quantidade de livros por página (null = padrão)
+     * @param ordem   chave de ordenação (null = id)
+     * @param direcao "asc" ou "desc" (null = asc)
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<LivroResponse> listarPaginado(String cursor, Integer tamanho,
+                                                        String ordem, String direcao) {
+        return paginar(FiltroLivro.nenhum(), cursor, tamanho, ordem, direcao);
+    }
+    
+    /**
+     * READ - Pesquisa combinada: qualquer combinação de autor, trecho do
+     * título, faixa de ano, editora e disponibilidade, ordenada e paginada
+     * no banco, numa única consulta.
+     * 
+     * Substitui buscar várias listas (por autor, disponíveis, ...) e
+     * cruzar no cliente.
+     * 
+     * O cursor não guarda os filtros: as próximas páginas devem ser pedidas
+     * com os mesmos filtros da primeira.
+     * 
+     * @param filtro  filtros (os nulos são ignorados)
+     * @param cursor  cursor recebido na página anterior (null = primeira página)
+     * @param tamanho quantidade de livros por página (null = padrão)
+     * @param ordem   chave de ordenação (null = id)
+     * @param direcao "asc" ou "desc" (null = asc)
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<LivroResponse> pesquisar(FiltroLivro filtro, String cursor, Integer tamanho,
+                                                   String ordem, String direcao) {
+        if (filtro.getAnoMinimo() != null && filtro.getAnoMaximo() != null
+                && filtro.getAnoMinimo() > filtro.getAnoMaximo()) {
+            throw new BadRequestException("anoMinimo não pode ser maior que anoMaximo");
+        }
+        return paginar(filtro, cursor, tamanho, ordem, direcao);
+    }
+    
+    private PaginaResponse<LivroResponse> paginar(FiltroLivro filtro, String cursor, Integer tamanho,
+                                                  String ordem, String direcao) {
+        int limite = tamanho != null ? tamanho : tamanhoPaginaPadrao;
+        if (limite < 1 || limite > tamanhoPaginaMaximo) {
+            throw new BadRequestException("O tamanho da página deve estar entre 1 e " + tamanhoPaginaMaximo);
+        }
+        
+        OrdenacaoLivro chave = ordem != null ? OrdenacaoLivro.de(ordem) : OrdenacaoLivro.ID;
+        boolean crescente = lerDirecao(direcao);
+        
+        CursorPaginacao posicao = null;
+        if (cursor != null && !cursor.isBlank()) {
+            posicao = CursorPaginacao.decodificar(cursor);
+            
+            // O cursor só vale para a mesma ordenação em que foi gerado
+            if ((ordem != null && posicao.ordem() != chave)
+                    || (direcao != null && posicao.crescente() != crescente)) {
+                throw new BadRequestException("O cursor não corresponde à ordenação informada");
+            }
+            chave = posicao.ordem();
+            crescente = posicao.crescente();
+        }
+        
+        List<LivroResponse> livros = repository.buscarPaginaKeyset(
+                filtro,
+                chave,
+                crescente,
+                posicao != null ? posicao.ultimoValor() : null,
+                posicao != null ? posicao.ultimoId() : null,
+                limite + 1);
+        
+        boolean temMais = livros.size() > limite;
+        if (temMais) {
+            livros = livros.subList(0, limite);
+        }
+        
+        String proximoCursor = temMais
+                ? CursorPaginacao.depoisDe(livros.get(livros.size() - 1), chave, crescente).codificar()
+                : null;
+        
+        return new PaginaResponse<>(livros, livros.size(), temMais, proximoCursor);
+    }
+    
+    /**
+     * READ - Exportar o catálogo inteiro, um livro por vez.
+     * 
+     * Diferente do listarTodos(), não monta nenhuma lista:
+     * cada linha lida do cursor do banco vira um LivroResponse, é entregue
+     * ao consumidor (que escreve direto na resposta HTTP) e descartada.
+     * A memória usada é a mesma com 100 ou 10 milhões de livros.
+     * 
+     * Como a consulta é uma projeção, nenhum livro fica preso no
+     * persistence context até o fim da transação.
+     * 
+     * @param consumidor recebe cada livro, na ordem do id
      */
     @Transactional(readOnly = true)
+    public void exportar(Consumer<LivroResponse> consumidor) {
+        try (Stream<LivroResponse> livros = repository.streamTodos()) {
+            livros.forEach(consumidor);
+        }
+    }
+    
+    /**
+     * Converte "asc"/"desc" (qualquer caixa) em boolean.
+     */
+    private boolean lerDirecao(String direcao) {
+        if (direcao == null || direcao.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        if (direcao.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        throw new BadRequestException("Direção inválida: " + direcao + " (use asc ou desc)");
+    }
+    
+    /**
+     * READ - Buscar livro por ID.
+     * 
+     * ID que o FiltroIdsExistentes sabe que não existe → 404 sem tocar no
+     * cache nem no banco. Os outros saem do cache; só vai ao banco quando o
+     * livro não está lá (orElse(null): livro inexistente não é guardado).
+     * 
+     * Sem @Transactional de propósito: no acerto do cache nenhuma conexão é
+     * aberta, e na falta a consulta roda fora de transação readOnly. Com
+     * réplicas de leitura ela vai ao primário: o cache nunca guarda um livro
+     * lido numa réplica atrasada.
+     */
     public LivroResponse buscarPorId(Long id) {
-        Livro livro = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Livro", "id", id));
+        if (!idsExistentes.podeExistir(id)) {
+            throw new ResourceNotFoundException("Livro", "id", id);
+        }
+        LivroResponse livro = cache.obterOuCarregar(id, chave -> repository.buscarResponsePorId(chave)
+                .orElse(null));
+        
+        if (livro == null) {
+            throw new ResourceNotFoundException("Livro", "id", id);
+        }
+        return livro;
+    }
+    
+    /**
+     * READ - Buscar vários livros por ID de uma vez (evita N chamadas ao /{id}).
+     * 
+     * 0. Os que o FiltroIdsExistentes sabe que não existem já ficam de fora
+     * 1. Os que estão no cache do buscarPorId() saem dele
+     * 2. Os outros: "WHERE id IN (...)", em blocos de IDS_POR_CONSULTA
+     * 3. Resposta na ordem do pedido; os que não existem vão em naoEncontrados
+     * 
+     * Como o buscarPorId(), sem @Transactional: se tudo estiver no cache,
+     * nenhuma conexão é aberta (e o que vai para o cache vem do primário).
+     */
+    public BuscaPorIdsResponse buscarPorIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um ID");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestException("ID não pode ser nulo");
+        }
+        LinkedHashSet<Long> unicos = new LinkedHashSet<>(ids);
+        if (unicos.size() > tamanhoMultigetMaximo) {
+            throw new BadRequestException("Máximo de " + tamanhoMultigetMaximo + " IDs por busca");
+        }
         
-        return LivroResponse.fromEntity(livro);
+        List<Long> candidatos = unicos.stream().filter(idsExistentes::podeExistir).toList();
+        Map<Long, LivroResponse> encontrados = candidatos.isEmpty()
+                ? Map.of()
+                : cache.obterOuCarregarVarios(candidatos, this::carregarPorIds);
+        
+        List<LivroResponse> livros = new ArrayList<>(encontrados.size());
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long id : unicos) {
+            LivroResponse livro = encontrados.get(id);
+            if (livro != null) {
+                livros.add(livro);
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+        return new BuscaPorIdsResponse(livros, naoEncontrados);
+    }
+    
+    /**
+     * Carrega os livros em blocos de IDS_POR_CONSULTA IDs.
+     */
+    private Map<Long, LivroResponse> carregarPorIds(List<Long> ids) {
+        Map<Long, LivroResponse> livros = new HashMap<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_CONSULTA) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, ids.size()));
+            repository.buscarResponsesPorIds(bloco).forEach(livro -> livros.put(livro.getId(), livro));
+        }
+        return livros;
     }
     
     /**
      * READ - Buscar por autor.
+     * 
+     * Sempre no primário (com réplicas ligadas): o resultado fica no cache
+     * de consultas do Hibernate até a próxima escrita, então um resultado
+     * lido numa réplica atrasada ficaria velho por tempo indeterminado.
      */
     @Transactional(readOnly = true)
     public List<LivroResponse> buscarPorAutor(String autor) {
-        return repository.findByAutor(autor)
-                .stream()
-                .map(LivroResponse::fromEntity)
-                .collect(Collectors.toList());
+        return ConsistenciaLeitura.noPrimario(() -> repository.buscarResponsesPorAutor(autor));
+    }
+    
+    /**
+     * READ - Buscar por ano de publicação.
+     * 
+     * No primário pelo mesmo motivo do buscarPorAutor (cache de consultas).
+     */
+    @Transactional(readOnly = true)
+    public List<LivroResponse> buscarPorAno(Integer ano) {
+        return ConsistenciaLeitura.noPrimario(() -> repository.buscarResponsesPorAno(ano));
     }
     
     /**
-     * READ - Buscar por título (busca parcial).
+     * READ - Buscar por título (busca por palavras).
+     * 
+     * Usa o índice invertido em memória: acha os IDs sem varrer a tabela
+     * e depois carrega só esses livros pela chave primária.
+     * 
+     * Enquanto o índice não está pronto (inicialização), ou se a busca
+     * só tem stopwords (ex: "O"), cai no LIKE do banco.
      */
     @Transactional(readOnly = true)
     public List<LivroResponse> buscarPorTitulo(String titulo) {
-        return repository.findByTituloContainingIgnoreCase(titulo)
-                .stream()
-                .map(LivroResponse::fromEntity)
-                .collect(Collectors.toList());
+        return indice.buscar(titulo, Integer.MAX_VALUE, IndiceInvertido.Campo.TITULO)
+                .map(this::carregarNaOrdem)
+                .orElseGet(() -> repository.buscarResponsesPorTituloContendo(titulo));
+    }
+    
+    /**
+     * READ - Busca textual por título e autor, ordenada por relevância.
+     * 
+     * Exemplo: "machado dom" encontra "Dom Casmurro" (Machado de Assis)
+     * 
+     * @param consulta termos digitados (o último pode ser só o começo da palavra)
+     * @param limite   quantidade máxima de resultados
+     */
+    @Transactional(readOnly = true)
+    public List<LivroResponse> buscar(String consulta, int limite) {
+        if (limite < 1 || limite > tamanhoPaginaMaximo) {
+            throw new BadRequestException("O limite deve estar entre 1 e " + tamanhoPaginaMaximo);
+        }
+        return indice.buscar(consulta, limite, IndiceInvertido.Campo.TITULO, IndiceInvertido.Campo.AUTOR)
+                .map(this::carregarNaOrdem)
+                .orElseGet(List::of);
+    }
+    
+    /**
+     * READ - Autocompletar: títulos e autores que começam com o texto digitado.
+     * 
+     * Chamado a cada tecla. Responde só com o índice em memória,
+     * sem ir ao banco; as sugestões mais emprestadas vêm primeiro.
+     * 
+     * Enquanto o índice não está pronto (inicialização), devolve lista vazia.
+     */
+    public List<SugestaoResponse> autocompletar(String prefixo, int limite) {
+        if (limite < 1 || limite > limiteSugestoesMaximo) {
+            throw new BadRequestException("O limite deve estar entre 1 e " + limiteSugestoesMaximo);
+        }
+        return autocompletar.sugerir(prefixo, limite).orElseGet(List::of);
+    }
+    
+    /**
+     * READ - Estatísticas do catálogo: total, disponíveis x emprestados,
+     * livros por ano e os N autores/editoras com mais livros.
+     * 
+     * Responde com os contadores em memória, sem ir ao banco.
+     * 
+     * @param top quantos autores/editoras listar
+     */
+    public EstatisticasResponse estatisticas(int top) {
+        if (top < 1 || top > estatisticas.getTopMaximo()) {
+            throw new BadRequestException("O top deve estar entre 1 e " + estatisticas.getTopMaximo());
+        }
+        return estatisticas.estatisticas(top);
+    }
+    
+    /**
+     * Carrega os livros pelos IDs mantendo a ordem da lista (ranking do índice).
+     * 
+     * Em blocos de IDS_POR_CONSULTA: uma palavra comum no título pode casar
+     * com boa parte do catálogo, e tudo num IN só viraria um comando com
+     * milhares de parâmetros.
+     */
+    private List<LivroResponse> carregarNaOrdem(List<Long> ids) {
+        Map<Long, LivroResponse> livros = carregarPorIds(ids);
+        List<LivroResponse> naOrdem = new ArrayList<>(livros.size());
+        for (Long id : ids) {
+            LivroResponse livro = livros.get(id);
+            if (livro != null) {  // removido depois de o índice responder
+                naOrdem.add(livro);
+            }
+        }
+        return naOrdem;
     }
     
     /**
@@ -129,10 +503,7 @@ public class LivroService {
      */
     @Transactional(readOnly = true)
     public List<LivroResponse> listarDisponiveis() {
-        return repository.findByDisponivel(true)
-                .stream()
-                .map(LivroResponse::fromEntity)
-                .collect(Collectors.toList());
+        return repository.buscarResponsesPorDisponivel(true);
     }
     
     /**
@@ -148,6 +519,7 @@ public class LivroService {
         // Busca livro existente
         Livro livro = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Livro", "id", id));
+        LivroResponse anterior = LivroResponse.fromEntity(livro);
         
         // Atualiza campos
         livro.setTitulo(request.getTitulo());
@@ -157,9 +529,13 @@ public class LivroService {
         livro.setDisponivel(request.getDisponivel() != null ? request.getDisponivel() : true);
         
         // Salva (JPA detecta que já tem ID, faz UPDATE)
-        Livro atualizado = repository.save(livro);
+        // saveAndFlush: o UPDATE (com "WHERE versao = ?") executa agora,
+        // então um conflito de versão aparece aqui e a versão retornada já é a nova
+        Livro atualizado = repository.saveAndFlush(livro);
         
-        return LivroResponse.fromEntity(atualizado);
+        LivroResponse response = LivroResponse.fromEntity(atualizado);
+        eventos.publishEvent(LivroAlteradoEvent.atualizado(anterior, response));
+        return response;
     }
     
     /**
@@ -168,6 +544,7 @@ public class LivroService {
      * Regra de negócio:
      * - Marca o livro como indisponível (disponivel = false)
      * - Não altera outros campos
+     * - Livro já emprestado → 409 (Conflict)
      * 
      * PATCH vs PUT:
      * - PATCH: Atualiza parte (só o campo disponivel)
@@ -175,15 +552,9 @@ public class LivroService {
      */
     @Transactional
     public LivroResponse emprestar(Long id) {
-        Livro livro = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Livro", "id", id));
-        
-        // Regra de negócio: marcar como indisponível
-        livro.setDisponivel(false);
-        
-        Livro atualizado = repository.save(livro);
-        
-        return LivroResponse.fromEntity(atualizado);
+        LivroResponse response = alterarDisponibilidade(id, false);
+        eventos.publishEvent(LivroAlteradoEvent.de(TipoAlteracao.EMPRESTADO, response));
+        return response;
     }
     
     /**
@@ -191,33 +562,168 @@ public class LivroService {
      * 
      * Regra de negócio:
      * - Marca o livro como disponível (disponivel = true)
+     * - Livro que não está emprestado → 409 (Conflict)
      */
     @Transactional
     public LivroResponse devolver(Long id) {
-        Livro livro = repository.findById(id)
+        LivroResponse response = alterarDisponibilidade(id, true);
+        eventos.publishEvent(LivroAlteradoEvent.de(TipoAlteracao.DEVOLVIDO, response));
+        return response;
+    }
+    
+    /**
+     * Empréstimo/devolução com um UPDATE condicional (sem ler e depois gravar).
+     * 
+     * Antes: findById + save → dois usuários podiam ler "disponível" ao
+     * mesmo tempo e os dois "conseguiam" emprestar o mesmo livro.
+     * Agora: o próprio UPDATE só altera se o estado ainda for o esperado.
+     * 
+     * Caminho rápido: se o livro está no cache, o UPDATE exige também a
+     * versão do cache. Alterou 1 linha → o cache estava em dia e a resposta
+     * sai dele, com UM comando no banco. Senão, UPDATE + SELECT.
+     */
+    private LivroResponse alterarDisponibilidade(Long id, boolean disponivel) {
+        if (!idsExistentes.podeExistir(id)) {
+            throw new ResourceNotFoundException("Livro", "id", id);
+        }
+        
+        LivroResponse emCache = cache.obter(id);
+        if (emCache != null
+                && emCache.getDisponivel() != disponivel
+                && repository.alterarDisponibilidadeNaVersao(id, disponivel, emCache.getVersao()) == 1) {
+            return new LivroResponse(
+                    emCache.getId(),
+                    emCache.getTitulo(),
+                    emCache.getAutor(),
+                    emCache.getAno(),
+                    emCache.getEditora(),
+                    disponivel,
+                    emCache.getDataCadastro(),
+                    emCache.getVersao() + 1);
+        }
+        
+        if (repository.alterarDisponibilidade(id, disponivel) == 0) {
+            // Nenhuma linha: ou o livro não existe, ou já estava nesse estado
+            if (!repository.existsById(id)) {
+                throw new ResourceNotFoundException("Livro", "id", id);
+            }
+            throw new ConflictException(disponivel
+                    ? "Livro não está emprestado (id: " + id + ")"
+                    : "Livro já está emprestado (id: " + id + ")");
+        }
+        
+        return repository.buscarResponsePorId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Livro", "id", id));
+    }
+    
+    /**
+     * UPDATE PARCIAL EM LOTE - Emprestar vários livros em uma transação.
+     * 
+     * Mesma regra do emprestar(): livro inexistente ou já emprestado
+     * não é alterado. Cada ID recebe o próprio resultado.
+     */
+    @Transactional
+    public LoteResponse emprestarEmLote(LoteRequest request) {
+        return alterarDisponibilidadeEmLote(request, false, TipoAlteracao.EMPRESTADO);
+    }
+    
+    /**
+     * UPDATE PARCIAL EM LOTE - Devolver vários livros em uma transação.
+     * 
+     * Mesma regra do devolver(): livro inexistente ou que não está
+     * emprestado não é alterado.
+     */
+    @Transactional
+    public LoteResponse devolverEmLote(LoteRequest request) {
+        return alterarDisponibilidadeEmLote(request, true, TipoAlteracao.DEVOLVIDO);
+    }
+    
+    /**
+     * Lote com número fixo de comandos, qualquer que seja o tamanho da pilha.
+     * 
+     * Antes: 50 livros = 50 requisições, 50 transações, 100+ consultas.
+     * Agora, em UMA transação:
+     * 1. SELECT ... FOR UPDATE dos livros pedidos (trava as linhas)
+     * 2. Classifica cada ID: OK, NAO_ENCONTRADO, JA_EMPRESTADO, NAO_EMPRESTADO
+     * 3. Um UPDATE ... WHERE id IN (...) para todos os OK
+     * 4. Um SELECT (projeção) para devolver o estado novo
+     * 
+     * Como as linhas estão travadas desde o passo 1, nenhuma outra
+     * requisição muda o estado entre a classificação e o UPDATE.
+     * 
+     * tudoOuNada=true com alguma falha: nada é alterado (aplicado = false).
+     */
+    private LoteResponse alterarDisponibilidadeEmLote(LoteRequest request, boolean disponivel,
+                                                      TipoAlteracao tipo) {
+        // IDs sem repetição, na ordem do pedido
+        List<Long> ids = request.getIds().stream().distinct().toList();
+        if (ids.size() > tamanhoLoteMaximo) {
+            throw new BadRequestException("O lote pode ter no máximo " + tamanhoLoteMaximo + " livros");
+        }
+        
+        Map<Long, Boolean> disponibilidadeAtual = new HashMap<>();
+        for (Object[] linha : repository.travarDisponibilidade(ids)) {
+            disponibilidadeAtual.put((Long) linha[0], (Boolean) linha[1]);
+        }
+        
+        Map<Long, Situacao> situacoes = new LinkedHashMap<>();
+        List<Long> aplicaveis = new ArrayList<>();
+        for (Long id : ids) {
+            Boolean atual = disponibilidadeAtual.get(id);
+            if (atual == null) {
+                situacoes.put(id, Situacao.NAO_ENCONTRADO);
+            } else if (atual == disponivel) {
+                situacoes.put(id, disponivel ? Situacao.NAO_EMPRESTADO : Situacao.JA_EMPRESTADO);
+            } else {
+                situacoes.put(id, Situacao.OK);
+                aplicaveis.add(id);
+            }
+        }
+        int falhas = ids.size() - aplicaveis.size();
         
-        // Regra de negócio: marcar como disponível
-        livro.setDisponivel(true);
+        if (request.isTudoOuNada() && falhas > 0) {
+            List<Item> itens = ids.stream()
+                    .map(id -> new Item(id,
+                            situacoes.get(id) == Situacao.OK ? Situacao.NAO_APLICADO : situacoes.get(id),
+                            null))
+                    .toList();
+            return new LoteResponse(false, 0, falhas, itens);
+        }
         
-        Livro atualizado = repository.save(livro);
+        Map<Long, LivroResponse> alterados = new HashMap<>();
+        if (!aplicaveis.isEmpty()) {
+            repository.alterarDisponibilidadeEmLote(aplicaveis, disponivel);
+            for (LivroResponse livro : repository.buscarResponsesPorIds(aplicaveis)) {
+                alterados.put(livro.getId(), livro);
+                eventos.publishEvent(LivroAlteradoEvent.de(tipo, livro));
+            }
+        }
         
-        return LivroResponse.fromEntity(atualizado);
+        List<Item> itens = ids.stream()
+                .map(id -> new Item(id, situacoes.get(id), alterados.get(id)))
+                .toList();
+        return new LoteResponse(true, aplicaveis.size(), falhas, itens);
     }
     
     /**
      * DELETE - Deletar livro.
      * 
      * Lógica:
-     * 1. Verifica se existe (se não, lança exceção)
-     * 2. Deleta
+     * 1. ID que o FiltroIdsExistentes sabe que não existe → 404 sem ir ao banco
+     * 2. Lê o livro travando a linha (SELECT ... FOR UPDATE) e deleta na
+     *    mesma transação: o evento leva exatamente o que saiu do catálogo
+     *    (as estatísticas descontam o autor, a editora e o ano dele).
+     *    Livro inexistente → 404
      */
     @Transactional
     public void deletar(Long id) {
-        if (!repository.existsById(id)) {
+        if (!idsExistentes.podeExistir(id)) {
             throw new ResourceNotFoundException("Livro", "id", id);
         }
+        LivroResponse anterior = repository.travarResponsePorId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Livro", "id", id));
+        repository.removerPorId(id);
         
-        repository.deleteById(id);
+        eventos.publishEvent(LivroAlteradoEvent.removido(anterior));
     }
 }
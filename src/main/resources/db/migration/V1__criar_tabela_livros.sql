@@ -0,0 +1,18 @@
+-- ===========================
+-- V1 - Tabela de livros
+-- ===========================
+-- Mesma estrutura que o ddl-auto=update criava a partir da entidade Livro.
+
+-- IDs gerados pela sequence (INCREMENT BY 50 = allocationSize da entidade)
+CREATE SEQUENCE IF NOT EXISTS livros_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS livros (
+    id            BIGINT       NOT NULL,
+    titulo        VARCHAR(200) NOT NULL,
+    autor         VARCHAR(150) NOT NULL,
+    ano           INTEGER      NOT NULL,
+    editora       VARCHAR(100),
+    disponivel    BOOLEAN      NOT NULL,
+    data_cadastro TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_livros PRIMARY KEY (id)
+);
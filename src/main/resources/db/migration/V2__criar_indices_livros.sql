@@ -0,0 +1,18 @@
+-- ===========================
+-- V2 - Indices da tabela livros
+-- ===========================
+-- Sem indices, toda busca abaixo era uma varredura completa da tabela.
+-- O id no fim de cada indice atende tambem a paginacao por cursor
+-- (ORDER BY <coluna>, id) sem precisar ordenar em memoria.
+
+-- findByDisponivel, countByDisponivel, /disponiveis
+CREATE INDEX IF NOT EXISTS idx_livros_disponivel_id ON livros (disponivel, id);
+
+-- findByAutor, paginacao ordenada por autor
+CREATE INDEX IF NOT EXISTS idx_livros_autor_id ON livros (autor, id);
+
+-- findByAno, paginacao ordenada por ano
+CREATE INDEX IF NOT EXISTS idx_livros_ano_id ON livros (ano, id);
+
+-- existsByTitulo, paginacao ordenada por titulo
+CREATE INDEX IF NOT EXISTS idx_livros_titulo_id ON livros (titulo, id);
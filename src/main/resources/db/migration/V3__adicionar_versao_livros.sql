@@ -0,0 +1,6 @@
+-- ===========================
+-- V3 - Versao do livro (lock otimista)
+-- ===========================
+-- Incrementada a cada alteracao. Usada pelo @Version da entidade e pelos
+-- UPDATEs condicionais de emprestimo/devolucao.
+ALTER TABLE livros ADD COLUMN IF NOT EXISTS versao BIGINT DEFAULT 0 NOT NULL;
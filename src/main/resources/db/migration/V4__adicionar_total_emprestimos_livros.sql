@@ -0,0 +1,6 @@
+-- ===========================
+-- V4 - Total de emprestimos do livro
+-- ===========================
+-- Incrementado pelos proprios UPDATEs de emprestimo (sem consulta extra).
+-- Usado como popularidade no autocompletar (GET /api/livros/autocompletar).
+ALTER TABLE livros ADD COLUMN IF NOT EXISTS total_emprestimos BIGINT DEFAULT 0 NOT NULL;
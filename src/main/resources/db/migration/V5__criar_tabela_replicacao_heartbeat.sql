@@ -0,0 +1,13 @@
+-- ===========================
+-- V5 - Batimento (heartbeat) da replicacao
+-- ===========================
+-- Uma linha so. Com replicas ligadas, o primario grava o instante atual
+-- (epoch em ms) a cada poucos milissegundos; a replicacao leva a linha
+-- junto com os dados. O valor lido em cada replica diz ate que momento
+-- ela ja recebeu tudo do primario (usado para medir o atraso).
+CREATE TABLE IF NOT EXISTS replicacao_heartbeat (
+    id       INTEGER NOT NULL PRIMARY KEY,
+    instante BIGINT  NOT NULL
+);
+
+MERGE INTO replicacao_heartbeat KEY (id) VALUES (1, 0);
@@ -0,0 +1,16 @@
+-- ===========================
+-- V6 - Indices decrescentes da tabela livros
+-- ===========================
+-- O H2 nao percorre um indice de tras para frente: com ORDER BY ... DESC
+-- os indices da V2 nao servem, e a paginacao por cursor decrescente
+-- (?direcao=desc) lia a tabela inteira e ordenava a cada pagina.
+-- Um indice por chave de ordenacao, na mesma ordem do ORDER BY.
+
+-- paginacao por id decrescente (a chave primaria so serve para ASC)
+CREATE INDEX IF NOT EXISTS idx_livros_id_desc ON livros (id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_livros_titulo_id_desc ON livros (titulo DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_livros_autor_id_desc ON livros (autor DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_livros_ano_id_desc ON livros (ano DESC, id DESC);
@@ -0,0 +1,8 @@
+-- ===========================
+-- V7 - Remove o historico do migrador antigo
+-- ===========================
+-- Antes do Flyway, as versoes aplicadas ficavam em schema_historico. Bancos
+-- em arquivo criados naquela epoca passam pelo baseline (versao 0) e
+-- recebem V1..V6 de novo, sem efeito (IF NOT EXISTS); a tabela antiga
+-- deixa de ser usada.
+DROP TABLE IF EXISTS schema_historico;
@@ -0,0 +1,127 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.SugestaoResponse;
+import com.biblioteca.dto.SugestaoResponse.Tipo;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.biblioteca.repository.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sugestões do autocompletar (sem Spring, sem banco): prefixo de qualquer
+ * palavra, ordem por empréstimos e manutenção pelos eventos, inclusive
+ * durante a reconstrução.
+ */
+class IndiceAutocompletarTest {
+
+    private final LivroRepository repository = mock(LivroRepository.class);
+    private final IndiceAutocompletar indice = new IndiceAutocompletar(
+            repository, mock(PlatformTransactionManager.class), new SyncTaskExecutor());
+
+    @BeforeEach
+    void reconstruir() {
+        when(repository.streamParaAutocompletar()).thenAnswer(invocacao -> Stream.of(
+                linha(1L, "Dom Casmurro", "Machado de Assis", 10L),
+                linha(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", 5L),
+                linha(3L, "Dom Quixote", "Miguel de Cervantes", 20L)));
+        indice.reconstruir();
+    }
+
+    @Test
+    void antesDaReconstrucaoNaoResponde() {
+        IndiceAutocompletar vazio = new IndiceAutocompletar(
+                repository, mock(PlatformTransactionManager.class), new SyncTaskExecutor());
+
+        assertThat(vazio.sugerir("dom", 5)).isEmpty();
+    }
+
+    @Test
+    void maisEmprestadosPrimeiro() {
+        assertThat(sugerir("dom")).extracting(SugestaoResponse::getTexto, SugestaoResponse::getEmprestimos)
+                .containsExactly(tuple("Dom Quixote", 20L), tuple("Dom Casmurro", 10L));
+    }
+
+    @Test
+    void casaComOComecoDeQualquerPalavraSemAcento() {
+        assertThat(sugerir("casm")).extracting(SugestaoResponse::getTexto).containsExactly("Dom Casmurro");
+        assertThat(sugerir("POSTU")).extracting(SugestaoResponse::getTexto)
+                .containsExactly("Memórias Póstumas de Brás Cubas");
+        // Autor soma os empréstimos e os livros de todos os títulos dele
+        assertThat(sugerir("assis")).extracting(SugestaoResponse::getTipo, SugestaoResponse::getEmprestimos,
+                        SugestaoResponse::getLivros)
+                .containsExactly(tuple(Tipo.AUTOR, 15L, 2));
+    }
+
+    @Test
+    void emprestimoSobeNaOrdem() {
+        for (int i = 0; i < 11; i++) {
+            indice.aoAlterarLivro(LivroAlteradoEvent.de(TipoAlteracao.EMPRESTADO, livro(1L, "Dom Casmurro",
+                    "Machado de Assis")));
+        }
+
+        assertThat(sugerir("dom")).extracting(SugestaoResponse::getTexto)
+                .containsExactly("Dom Casmurro", "Dom Quixote");
+    }
+
+    @Test
+    void cadastroRenomeacaoERemocao() {
+        indice.aoAlterarLivro(LivroAlteradoEvent.de(TipoAlteracao.CRIADO,
+                livro(4L, "Dom Pedro II", "José Murilo de Carvalho")));
+        indice.aoAlterarLivro(LivroAlteradoEvent.atualizado(livro(3L, "Dom Quixote", "Miguel de Cervantes"),
+                livro(3L, "O Engenhoso Fidalgo", "Miguel de Cervantes")));
+        indice.aoAlterarLivro(LivroAlteradoEvent.removido(livro(1L, "Dom Casmurro", "Machado de Assis")));
+
+        assertThat(sugerir("dom")).extracting(SugestaoResponse::getTexto).containsExactly("Dom Pedro II");
+        // A renomeação leva os empréstimos junto
+        assertThat(sugerir("fidalgo")).extracting(SugestaoResponse::getEmprestimos).containsExactly(20L);
+        assertThat(sugerir("assis")).extracting(SugestaoResponse::getLivros).containsExactly(1);
+    }
+
+    /**
+     * O livro é alterado enquanto a reconstrução lê o banco, antes da linha
+     * dele: o título do evento vale, e os empréstimos vêm da linha do banco.
+     */
+    @Test
+    void alteracaoDuranteAReconstrucaoMantemOsEmprestimosDoBanco() {
+        LivroResponse anterior = livro(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+        LivroResponse renomeado = livro(2L, "Memorial de Aires", "Machado de Assis");
+        when(repository.streamParaAutocompletar()).thenAnswer(invocacao -> Stream.of(
+                        linha(1L, "Dom Casmurro", "Machado de Assis", 10L),
+                        linha(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", 5L))
+                .peek(linha -> {
+                    if ((Long) linha[0] == 1L) {
+                        indice.aoAlterarLivro(LivroAlteradoEvent.atualizado(anterior, renomeado));
+                    }
+                }));
+
+        indice.reconstruir();
+
+        assertThat(sugerir("memori")).extracting(SugestaoResponse::getTexto, SugestaoResponse::getEmprestimos)
+                .containsExactly(tuple("Memorial de Aires", 5L));
+    }
+
+    private List<SugestaoResponse> sugerir(String prefixo) {
+        return indice.sugerir(prefixo, 5).orElseThrow();
+    }
+
+    private static Object[] linha(Long id, String titulo, String autor, Long emprestimos) {
+        return new Object[] {id, titulo, autor, emprestimos};
+    }
+
+    private static LivroResponse livro(Long id, String titulo, String autor) {
+        return new LivroResponse(id, titulo, autor, 1900, null, true, LocalDateTime.now(), 0L);
+    }
+}
@@ -0,0 +1,116 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.busca.IndiceInvertido.Campo;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.biblioteca.repository.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Busca no índice invertido (sem Spring, sem banco): ranking, E lógico,
+ * prefixo no último termo e manutenção pelos eventos, inclusive durante
+ * a reconstrução.
+ */
+class IndiceInvertidoTest {
+
+    private final LivroRepository repository = mock(LivroRepository.class);
+    private final IndiceInvertido indice = new IndiceInvertido(repository, mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void reconstruir() {
+        when(repository.streamTodos()).thenAnswer(invocacao -> Stream.of(
+                livro(1L, "Dom Casmurro", "Machado de Assis"),
+                livro(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis"),
+                livro(3L, "A Hora da Estrela", "Clarice Lispector"),
+                livro(4L, "Machado: uma biografia", "Lira Neto")));
+        indice.reconstruir();
+    }
+
+    @Test
+    void antesDaReconstrucaoNaoResponde() {
+        IndiceInvertido vazio = new IndiceInvertido(repository, mock(PlatformTransactionManager.class));
+
+        assertThat(vazio.isPronto()).isFalse();
+        assertThat(vazio.buscar("casmurro", 10, Campo.TITULO)).isEmpty();
+    }
+
+    @Test
+    void termoNoTituloValeMaisQueNoAutor() {
+        assertThat(buscar("machado")).containsExactly(4L, 1L, 2L);
+    }
+
+    @Test
+    void todosOsTermosPrecisamAparecer() {
+        assertThat(buscar("machado casmurro")).containsExactly(1L);
+        assertThat(buscar("clarice casmurro")).isEmpty();
+    }
+
+    @Test
+    void ultimoTermoEPrefixoEAcentosNaoImportam() {
+        assertThat(buscar("dom casm")).containsExactly(1L);
+        assertThat(buscar("MEMORIAS postu")).containsExactly(2L);
+        // Prefixo curto demais só casa com o termo inteiro
+        assertThat(buscar("ho")).isEmpty();
+    }
+
+    @Test
+    void consultaSoComStopwordsVaiParaOBanco() {
+        assertThat(indice.buscar("de da do", 10, Campo.TITULO, Campo.AUTOR)).isEmpty();
+    }
+
+    @Test
+    void eventosAtualizamERemovem() {
+        indice.aoAlterarLivro(LivroAlteradoEvent.atualizado(
+                livro(1L, "Dom Casmurro", "Machado de Assis"), livro(1L, "Quincas Borba", "Machado de Assis")));
+        indice.aoAlterarLivro(LivroAlteradoEvent.removido(livro(3L, "A Hora da Estrela", "Clarice Lispector")));
+
+        assertThat(buscar("casmurro")).isEmpty();
+        assertThat(buscar("quincas")).containsExactly(1L);
+        assertThat(buscar("estrela")).isEmpty();
+        assertThat(buscar("clarice")).isEmpty();
+    }
+
+    /**
+     * O evento chega enquanto a reconstrução lê o banco, antes da linha do
+     * livro: a linha (lida antes do commit) não sobrescreve o evento.
+     */
+    @Test
+    void eventoDuranteAReconstrucaoNaoESobrescritoPelaLeituraAntiga() {
+        LivroResponse renomeado = livro(2L, "Memorial de Aires", "Machado de Assis");
+        when(repository.streamTodos()).thenAnswer(invocacao -> Stream.of(
+                        livro(1L, "Dom Casmurro", "Machado de Assis"),
+                        livro(2L, "Memórias Póstumas de Brás Cubas", "Machado de Assis"))
+                .peek(livro -> {
+                    if (livro.getId() == 1L) {
+                        indice.aoAlterarLivro(LivroAlteradoEvent.atualizado(livro, renomeado));
+                    }
+                }));
+
+        indice.reconstruir();
+
+        assertThat(buscar("memorial")).containsExactly(2L);
+        assertThat(buscar("postumas")).isEmpty();
+    }
+
+    private List<Long> buscar(String consulta) {
+        Optional<List<Long>> ids = indice.buscar(consulta, 10, Campo.TITULO, Campo.AUTOR);
+        assertThat(ids).isPresent();
+        return ids.get();
+    }
+
+    private static LivroResponse livro(Long id, String titulo, String autor) {
+        return new LivroResponse(id, titulo, autor, 1900, null, true, LocalDateTime.now(), 0L);
+    }
+}
@@ -0,0 +1,147 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dto.EstatisticasResponse;
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.biblioteca.repository.LivroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conferência das estatísticas com o banco: corrige o que mudou por fora
+ * da aplicação e não conta duas vezes uma escrita já confirmada no banco
+ * que ainda não passou pelo aoAlterarLivro. O "banco" é uma lista em
+ * memória atrás de um LivroRepository simulado.
+ */
+class EstatisticasCatalogoTest {
+
+    private final List<LivroResponse> banco = new CopyOnWriteArrayList<>();
+    private EstatisticasCatalogo estatisticas;
+
+    @BeforeEach
+    void montar() {
+        LivroRepository repository = mock(LivroRepository.class);
+        when(repository.count()).thenAnswer(invocacao -> (long) banco.size());
+        when(repository.countByDisponivel(true)).thenAnswer(invocacao ->
+                banco.stream().filter(LivroResponse::getDisponivel).count());
+        when(repository.contarPorAno()).thenAnswer(invocacao -> agrupar(LivroResponse::getAno));
+        when(repository.contarPorAutor()).thenAnswer(invocacao -> agrupar(LivroResponse::getAutor));
+        when(repository.contarPorEditora()).thenAnswer(invocacao -> agrupar(LivroResponse::getEditora));
+
+        estatisticas = new EstatisticasCatalogo(repository, 10, Duration.ZERO, Duration.ofMinutes(10));
+        banco.add(livro(1L, "Machado de Assis", 1899, true));
+        banco.add(livro(2L, "Machado de Assis", 1881, false));
+        banco.add(livro(3L, "Clarice Lispector", 1977, true));
+        estatisticas.conferir();
+    }
+
+    @AfterEach
+    void fechar() {
+        estatisticas.fechar();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void primeiraConferenciaMontaOsContadoresSemContarDivergencia() {
+        EstatisticasResponse resposta = estatisticas.estatisticas(10);
+
+        assertThat(estatisticas.isPronto()).isTrue();
+        assertThat(resposta.getTotal()).isEqualTo(3);
+        assertThat(resposta.getDisponiveis()).isEqualTo(2);
+        assertThat(resposta.getPorAno()).containsEntry(1899, 1L).containsEntry(1881, 1L);
+        assertThat(estatisticas.getDivergencias()).isZero();
+    }
+
+    @Test
+    void conferenciaCorrigeEscritasFeitasPorForaDaAplicacao() {
+        banco.add(livro(4L, "Jorge Amado", 1958, true));   // INSERT direto no banco
+        banco.removeIf(livro -> livro.getId() == 2L);      // DELETE direto no banco
+
+        estatisticas.conferir();
+
+        EstatisticasResponse resposta = estatisticas.estatisticas(10);
+        assertThat(resposta.getTotal()).isEqualTo(3);
+        assertThat(resposta.getDisponiveis()).isEqualTo(3);
+        assertThat(resposta.getPorAno()).containsEntry(1958, 1L).doesNotContainKey(1881);
+        assertThat(resposta.getAutores()).extracting(EstatisticasResponse.Contagem::nome)
+                .containsExactly("Clarice Lispector", "Jorge Amado", "Machado de Assis");
+        assertThat(estatisticas.getDivergencias()).isPositive();
+    }
+
+    /**
+     * Transação confirmada no banco, com o aoAlterarLivro ainda por rodar:
+     * o GROUP BY já conta o livro novo, a memória não. A conferência no
+     * meio disso não pode corrigir, senão o evento somaria o livro de novo.
+     */
+    @Test
+    void escritaConfirmadaAindaNaoAplicadaNaoEContadaDuasVezes() {
+        LivroResponse novo = livro(4L, "Jorge Amado", 1958, true);
+        LivroAlteradoEvent criado = LivroAlteradoEvent.de(TipoAlteracao.CRIADO, novo);
+        TransactionSynchronizationManager.initSynchronization();
+        estatisticas.aoPublicar(criado);   // dentro da transação
+        banco.add(novo);                   // commit
+
+        estatisticas.conferir();           // antes do afterCommit
+
+        assertThat(estatisticas.getTotal()).isEqualTo(3);
+
+        estatisticas.aoAlterarLivro(criado);  // afterCommit
+        terminarTransacao();
+        estatisticas.conferir();
+
+        assertThat(estatisticas.getTotal()).isEqualTo(4);
+        assertThat(estatisticas.getDisponiveis()).isEqualTo(3);
+        assertThat(estatisticas.estatisticas(10).getPorAno()).containsEntry(1958, 1L);
+        assertThat(estatisticas.getDivergencias()).isZero();
+    }
+
+    @Test
+    void alteracaoTiraOEstadoAnteriorESomaONovo() {
+        LivroResponse anterior = banco.get(0);
+        LivroResponse atualizado = livro(1L, "Machado de Assis", 1900, true);
+
+        estatisticas.aoAlterarLivro(LivroAlteradoEvent.atualizado(anterior, atualizado));
+
+        assertThat(estatisticas.estatisticas(10).getPorAno())
+                .doesNotContainKey(1899)
+                .containsEntry(1900, 1L);
+        assertThat(estatisticas.getTotal()).isEqualTo(3);
+    }
+
+    private static void terminarTransacao() {
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizacoes.forEach(sincronizacao ->
+                sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private List<Object[]> agrupar(Function<LivroResponse, Object> chave) {
+        Map<Object, Long> contagens = banco.stream()
+                .collect(Collectors.groupingBy(chave, Collectors.counting()));
+        return contagens.entrySet().stream()
+                .map(contagem -> new Object[] {contagem.getKey(), contagem.getValue()})
+                .toList();
+    }
+
+    private static LivroResponse livro(Long id, String autor, int ano, boolean disponivel) {
+        return new LivroResponse(id, "Livro " + id, autor, ano, "Editora", disponivel, LocalDateTime.now(), 0L);
+    }
+}
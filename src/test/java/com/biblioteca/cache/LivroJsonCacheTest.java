@@ -0,0 +1,100 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fragmentos JSON por id e versão: reaproveitados enquanto a versão é a
+ * mesma, nunca servidos para outra versão (sem Spring, sem banco).
+ */
+class LivroJsonCacheTest {
+
+    private static final LocalDateTime CADASTRO = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final LivroJsonCache cache = new LivroJsonCache(objectMapper, 100, Duration.ofMinutes(30));
+
+    @Test
+    void mesmaVersaoReaproveitaOFragmento() throws Exception {
+        byte[] primeiro = cache.json(livro(1L, "Dom Casmurro", 0L));
+        byte[] segundo = cache.json(livro(1L, "Dom Casmurro", 0L));
+
+        assertThat(segundo).isSameAs(primeiro);
+        assertThat(cache.estatisticas().acertos()).isEqualTo(1);
+    }
+
+    /**
+     * Leitura que chega depois da escrita, antes do evento pós-commit:
+     * a versão nova não pode receber o fragmento guardado da antiga.
+     */
+    @Test
+    void versaoNovaDescartaFragmentoAntigoMesmoSemEvento() throws Exception {
+        cache.json(livro(1L, "Dom Casmurro", 0L));
+
+        LivroResponse atualizado = livro(1L, "Dom Casmurro (2ª edição)", 1L);
+        byte[] json = cache.json(atualizado);
+
+        assertThat(texto(json)).isEqualTo(objectMapper.writeValueAsString(atualizado));
+        assertThat(cache.json(atualizado)).isSameAs(json);  // a versão nova passa a ser a guardada
+    }
+
+    /**
+     * A leitura atrasada de uma versão antiga recebe o próprio JSON, e a
+     * próxima leitura da versão nova continua recebendo o dela.
+     */
+    @Test
+    void leituraAtrasadaDaVersaoAntigaNaoServeAVersaoNova() throws Exception {
+        LivroResponse novo = livro(1L, "Título novo", 2L);
+        cache.json(novo);
+
+        assertThat(texto(cache.json(livro(1L, "Título antigo", 1L)))).contains("Título antigo");
+        assertThat(texto(cache.json(novo))).contains("Título novo");
+    }
+
+    @Test
+    void escritaConfirmadaRemoveOFragmento() throws Exception {
+        LivroResponse livro = livro(1L, "Dom Casmurro", 0L);
+        cache.json(livro);
+
+        cache.aoAlterarLivro(LivroAlteradoEvent.de(TipoAlteracao.EMPRESTADO, livro));
+
+        assertThat(cache.estatisticas().tamanho()).isZero();
+    }
+
+    @Test
+    void listaConcatenadaIgualAoJackson() throws Exception {
+        List<LivroResponse> livros = List.of(
+                livro(1L, "Dom Casmurro", 0L),
+                livro(2L, "Memórias \"Póstumas\"", 3L),
+                new LivroResponse(3L, "Sem versão", "Autor", 2000, null, false, CADASTRO, null));
+        cache.json(livros.get(0));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        cache.escreverLista(livros, saida);
+
+        assertThat(saida.toString(StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(livros));
+    }
+
+    private static LivroResponse livro(Long id, String titulo, Long versao) {
+        return new LivroResponse(id, titulo, "Machado de Assis", 1899, "Garnier", true, CADASTRO, versao);
+    }
+
+    private static String texto(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package com.biblioteca.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.exception.FlywayValidateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Scripts de db/migration aplicados pelo Flyway contra um H2 vazio (sem o
+ * contexto do Spring), com a mesma configuração do application.properties.
+ */
+class MigracoesTest {
+
+    private DriverManagerDataSource banco;
+    private Flyway flyway;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void criarBancoVazio() {
+        banco = new DriverManagerDataSource(
+                "jdbc:h2:mem:migracao_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        // spring.flyway.* do application.properties
+        flyway = Flyway.configure()
+                .dataSource(banco)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+        jdbc = new JdbcTemplate(banco);
+    }
+
+    @Test
+    void aplicaTodasAsVersoesEmOrdem() {
+        flyway.migrate();
+
+        assertThat(jdbc.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" "
+                        + "WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"",
+                String.class))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7");
+        assertThat(jdbc.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_name = 'LIVROS'",
+                String.class))
+                .contains("idx_livros_disponivel_id", "idx_livros_autor_id",
+                          "idx_livros_ano_id", "idx_livros_titulo_id", "idx_livros_id_desc",
+                          "idx_livros_titulo_id_desc", "idx_livros_autor_id_desc", "idx_livros_ano_id_desc");
+    }
+
+    @Test
+    void rodarDeNovoNaoReaplicaNada() {
+        flyway.migrate();
+
+        assertThat(flyway.migrate().migrationsExecuted).isZero();
+    }
+
+    /**
+     * Um script que falha no meio deixa parte aplicada (o H2 confirma cada
+     * DDL sozinho) e roda de novo do começo na próxima subida.
+     */
+    @Test
+    void todosOsScriptsPodemRodarDuasVezes() throws Exception {
+        for (Resource script : scripts()) {
+            ResourceDatabasePopulator populador = new ResourceDatabasePopulator(script);
+            populador.execute(banco);
+            populador.execute(banco);
+        }
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM replicacao_heartbeat", Integer.class)).isEqualTo(1);
+    }
+
+    /**
+     * Banco em arquivo criado pelo migrador anterior ao Flyway: tabelas de
+     * V1..V6 já existem, com o histórico em schema_historico.
+     */
+    @Test
+    void assumeBancoCriadoAntesDoFlywaySemPerderDados() throws Exception {
+        for (Resource script : scripts()) {
+            if (!script.getFilename().startsWith("V7")) {
+                new ResourceDatabasePopulator(script).execute(banco);
+            }
+        }
+        jdbc.execute("CREATE TABLE schema_historico (versao INTEGER PRIMARY KEY, descricao VARCHAR(200), "
+                + "checksum BIGINT, executado_em TIMESTAMP)");
+        jdbc.update("INSERT INTO livros (id, titulo, autor, ano, disponivel, data_cadastro) "
+                + "VALUES (1, 'Dom Casmurro', 'Machado de Assis', 1899, TRUE, CURRENT_TIMESTAMP)");
+
+        flyway.migrate();
+
+        assertThat(jdbc.queryForObject("SELECT titulo FROM livros WHERE id = 1", String.class))
+                .isEqualTo("Dom Casmurro");
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'SCHEMA_HISTORICO'",
+                Integer.class)).isZero();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("7");
+    }
+
+    @Test
+    void recusaMigracaoAlteradaDepoisDeAplicada() {
+        flyway.migrate();
+        jdbc.update("UPDATE \"flyway_schema_history\" SET \"checksum\" = \"checksum\" + 1 WHERE \"version\" = '2'");
+
+        assertThatThrownBy(flyway::migrate)
+                .isInstanceOf(FlywayValidateException.class)
+                .hasMessageContaining("2");
+    }
+
+    private static Resource[] scripts() throws Exception {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(scripts, Comparator.comparingInt(
+                (Resource script) -> Integer.parseInt(script.getFilename().replaceAll("^V(\\d+)__.*", "$1"))));
+        return scripts;
+    }
+}
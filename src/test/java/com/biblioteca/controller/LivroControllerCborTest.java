@@ -0,0 +1,103 @@
+package com.biblioteca.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ida e volta das respostas em CBOR: lidas por um CBORMapper, trazem os
+ * mesmos campos e valores do JSON da mesma URL.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:controller_cbor;LAZY_QUERY_EXECUTION=1",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+class LivroControllerCborTest {
+
+    private final CBORMapper cbor = new CBORMapper();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long id;
+
+    @BeforeEach
+    void cadastrarLivro() throws Exception {
+        MvcResult criado = mvc.perform(post("/api/livros")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\": \"Memórias Póstumas\", \"autor\": \"Machado de Assis\", "
+                                + "\"ano\": 1881, \"editora\": \"Garnier\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        id = objectMapper.readTree(criado.getResponse().getContentAsByteArray()).get("id").asLong();
+    }
+
+    @Test
+    void livroEmCborTemOsMesmosCamposDoJson() throws Exception {
+        JsonNode json = emJson("/api/livros/" + id);
+        JsonNode livro = emCbor("/api/livros/" + id);
+
+        assertThat(livro).isEqualTo(json);
+        assertThat(livro.get("titulo").textValue()).isEqualTo("Memórias Póstumas");
+        assertThat(livro.get("dataCadastro").isTextual()).isTrue();  // ISO, como no JSON
+    }
+
+    @Test
+    void listaEPaginaEmCborTemOsMesmosValoresDoJson() throws Exception {
+        assertThat(emCbor("/api/livros")).isEqualTo(emJson("/api/livros"));
+        assertThat(emCbor("/api/livros/pagina?tamanho=5")).isEqualTo(emJson("/api/livros/pagina?tamanho=5"));
+    }
+
+    @Test
+    void erroTambemSaiEmCbor() throws Exception {
+        MvcResult resposta = mvc.perform(get("/api/livros/999999").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertThat(cbor.readTree(resposta.getResponse().getContentAsByteArray()).get("status").intValue())
+                .isEqualTo(404);
+    }
+
+    @Test
+    void semAcceptOuComQualquerTipoContinuaJson() throws Exception {
+        mvc.perform(get("/api/livros/" + id))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mvc.perform(get("/api/livros/" + id).header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private JsonNode emJson(String url) throws Exception {
+        MvcResult resposta = mvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(resposta.getResponse().getContentAsByteArray());
+    }
+
+    private JsonNode emCbor(String url) throws Exception {
+        MvcResult resposta = mvc.perform(get(url).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        return cbor.readTree(resposta.getResponse().getContentAsByteArray());
+    }
+}
@@ -0,0 +1,92 @@
+package com.biblioteca.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Erros do cliente (parâmetro faltando, corpo mal formado, Content-Type
+ * não aceito) respondem 4xx com o mesmo corpo do BadRequestException,
+ * nunca 500.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:controller_erros;LAZY_QUERY_EXECUTION=1",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+class LivroControllerErrosTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void loteSemIdsResponde400() throws Exception {
+        mvc.perform(get("/api/livros/lote"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(containsString("ids")));
+    }
+
+    @Test
+    void loteComIdNaoNumericoNoCorpoResponde400() throws Exception {
+        mvc.perform(post("/api/livros/lote/buscar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,\"x\"]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void emprestimoEmLoteComJsonMalFormadoResponde400() throws Exception {
+        mvc.perform(patch("/api/livros/lote/emprestar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        mvc.perform(patch("/api/livros/lote/devolver")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": \"um\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void autocompletarSemTextoResponde400() throws Exception {
+        mvc.perform(get("/api/livros/autocompletar"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("q")));
+    }
+
+    @Test
+    void buscaSemTermosResponde400() throws Exception {
+        mvc.perform(get("/api/livros/busca"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("q")));
+    }
+
+    @Test
+    void importacaoComTipoNaoSuportadoResponde415ComOsTiposAceitos() throws Exception {
+        mvc.perform(post("/api/livros/importar")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("titulo,autor,ano"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.status").value(415))
+                .andExpect(jsonPath("$.message").value(allOf(
+                        containsString("application/json"),
+                        containsString("application/x-ndjson"),
+                        containsString("text/csv"))));
+    }
+}
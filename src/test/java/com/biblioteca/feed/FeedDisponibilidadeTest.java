@@ -0,0 +1,212 @@
+package com.biblioteca.feed;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.event.LivroAlteradoEvent;
+import com.biblioteca.event.LivroAlteradoEvent.TipoAlteracao;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Retomada por Last-Event-ID (dentro e fora do buffer) e descarte do
+ * cliente que para de ler, com buffer de 4 alterações e limite de envio
+ * de 300ms. As alterações são publicadas direto no feed, sem banco.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feed;LAZY_QUERY_EXECUTION=1",
+        "logging.level.root=WARN",
+        "biblioteca.feed.tamanho-buffer=4",
+        "biblioteca.feed.heartbeat=100ms",
+        "biblioteca.feed.limite-envio=300ms"
+})
+class FeedDisponibilidadeTest {
+
+    private static final String URL = "/api/livros/disponiveis/eventos";
+    private static final String CLIENTE_LENTO = "X-Cliente-Lento";
+    private static final AtomicLong IDS = new AtomicLong(1000);
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    @Autowired
+    private FeedDisponibilidade feed;
+
+    private MockMvc mvc;
+    private volatile CountDownLatch leituraDoClienteLento;
+
+    @BeforeEach
+    void montarMockMvc() {
+        leituraDoClienteLento = null;
+        mvc = MockMvcBuilders.webAppContextSetup(contexto).addFilters(clienteLento()).build();
+    }
+
+    @AfterEach
+    void liberarClienteLento() {
+        CountDownLatch leitura = leituraDoClienteLento;
+        if (leitura != null) {
+            leitura.countDown();
+        }
+    }
+
+    @Test
+    void retomaDentroDoBufferSoComOQueFaltou() throws Exception {
+        MockHttpServletResponse primeiro = assinar(get(URL));
+        publicar(3);
+        esperar(() -> ids(primeiro).size() == 3);
+        List<String> recebidos = ids(primeiro);
+
+        MockHttpServletResponse retomada = assinar(get(URL).header("Last-Event-ID", recebidos.get(0)));
+
+        esperar(() -> ids(retomada).size() == 2);
+        assertThat(ids(retomada)).containsExactlyElementsOf(recebidos.subList(1, 3));
+        assertThat(conteudo(retomada)).doesNotContain("event:reiniciar");
+    }
+
+    @Test
+    void retomadaForaDoBufferPedeParaRecarregar() throws Exception {
+        MockHttpServletResponse primeiro = assinar(get(URL));
+        publicar(1);
+        esperar(() -> ids(primeiro).size() == 1);
+        String antigo = ids(primeiro).get(0);
+        publicar(5);  // mais que o buffer: o seguinte ao "antigo" foi sobrescrito
+
+        MockHttpServletResponse retomada = assinar(get(URL).header("Last-Event-ID", antigo));
+        MockHttpServletResponse outraExecucao = assinar(get(URL).header("Last-Event-ID", "execucao-anterior-1"));
+
+        esperar(() -> conteudo(retomada).contains("event:reiniciar"));
+        esperar(() -> conteudo(outraExecucao).contains("event:reiniciar"));
+        // O id do "reiniciar" é a última alteração: nada do buffer é reenviado depois dele
+        String inicio = antigo.substring(0, antigo.lastIndexOf('-') + 1);
+        long ultima = Long.parseLong(antigo.substring(inicio.length())) + 5;
+        assertThat(ids(retomada)).containsExactly(inicio + ultima);
+    }
+
+    @Test
+    void clienteQueParaDeLerEDesconectadoSemTravarOsOutros() throws Exception {
+        assinar(get(URL).header(CLIENTE_LENTO, "sim"));
+        MockHttpServletResponse rapido = assinar(get(URL));
+        int conectados = feed.getAssinantes();
+        leituraDoClienteLento = new CountDownLatch(1);  // janela TCP cheia a partir daqui
+
+        publicar(1);
+
+        esperar(() -> feed.getAssinantes() == conectados - 1);
+        esperar(() -> ids(rapido).size() == 1);
+        publicar(1);
+        esperar(() -> ids(rapido).size() == 2);
+    }
+
+    private MockHttpServletResponse assinar(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return mvc.perform(requisicao).andReturn().getResponse();
+    }
+
+    private void publicar(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            long id = IDS.incrementAndGet();
+            feed.aoAlterarLivro(LivroAlteradoEvent.de(TipoAlteracao.EMPRESTADO, new LivroResponse(
+                    id, "Livro " + id, "Autor", 2000, null, false, LocalDateTime.now(), 1L)));
+        }
+    }
+
+    private static List<String> ids(MockHttpServletResponse resposta) {
+        return conteudo(resposta).lines()
+                .filter(linha -> linha.startsWith("id:"))
+                .map(linha -> linha.substring(3))
+                .toList();
+    }
+
+    private static String conteudo(MockHttpServletResponse resposta) {
+        try {
+            return resposta.getContentAsString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo esgotado esperando o feed").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Nas requisições com X-Cliente-Lento, a escrita trava enquanto
+     * leituraDoClienteLento estiver armada, como um cliente que parou de
+     * ler e deixou a janela TCP encher.
+     */
+    private Filter clienteLento() {
+        return (request, response, chain) -> {
+            if (((HttpServletRequest) request).getHeader(CLIENTE_LENTO) == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            HttpServletResponse original = (HttpServletResponse) response;
+            ServletOutputStream saida = original.getOutputStream();
+            chain.doFilter(request, new HttpServletResponseWrapper(original) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return new ServletOutputStream() {
+                        @Override
+                        public void write(int b) throws IOException {
+                            aguardarLeitura();
+                            saida.write(b);
+                        }
+
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                            aguardarLeitura();
+                            saida.write(b, off, len);
+                        }
+
+                        @Override
+                        public boolean isReady() {
+                            return true;
+                        }
+
+                        @Override
+                        public void setWriteListener(WriteListener listener) {
+                        }
+                    };
+                }
+            });
+        };
+    }
+
+    private void aguardarLeitura() throws IOException {
+        CountDownLatch leitura = leituraDoClienteLento;
+        if (leitura != null) {
+            try {
+                leitura.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.biblioteca.metricas;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /actuator/prometheus traz os histogramas de latência (rota e
+ * repository), o pool de conexões e os medidores da aplicação.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricas;LAZY_QUERY_EXECUTION=1",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void expoeHistogramasEMedidores() throws Exception {
+        mvc.perform(get("/api/livros/pagina")).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/api/livros/pagina\""),
+                        containsString("repositorio_consultas_seconds_bucket{"),
+                        containsString("repository=\"LivroRepository\""),
+                        containsString("hikaricp_connections_active"),
+                        containsString("cache_livros_acertos_total"),
+                        containsString("catalogo_livros{estado=\"disponivel\""),
+                        containsString("feed_assinantes"))));
+    }
+}
@@ -0,0 +1,145 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.config.ReconstrucaoInicial;
+import com.biblioteca.dto.FiltroLivro;
+import com.biblioteca.dto.OrdenacaoLivro;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere, com o EXPLAIN do H2, que as consultas do LivroRepository usam os
+ * índices das migrações V2 e V6 (idx_livros_*_id) em vez de varrer a tabela.
+ *
+ * O SQL testado é o que o Hibernate gera de verdade (capturado pelo
+ * RegistroSql), não uma cópia escrita à mão: se alguém mudar a JPQL de um
+ * jeito que o índice deixe de servir, o teste quebra.
+ *
+ * No plano do H2:
+ * - "PUBLIC.IDX_LIVROS_AUTOR_ID: AUTOR = ?1" - busca pelo índice (logarítmica)
+ * - "PUBLIC.LIVROS.tableScan"                - varredura completa
+ * - "PUBLIC.IDX_LIVROS_TITULO_ID" (sem faixa) - percorre o índice inteiro
+ * - "index sorted"                           - o ORDER BY sai pronto do índice
+ *
+ * Cache de consultas desligado: toda chamada precisa gerar o SQL.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:plano_consultas;LAZY_QUERY_EXECUTION=1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.biblioteca.repository.RegistroSql",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "logging.level.root=WARN"
+})
+class PlanoConsultasTest {
+
+    private static final int LIVROS = 20_000;
+
+    @Autowired
+    private LivroRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    /**
+     * 20 mil livros de 200 autores, 10% disponíveis, anos de 1900 a 2019.
+     * ANALYZE atualiza a seletividade das colunas que o otimizador usa.
+     */
+    @BeforeAll
+    static void popular(@Autowired ReconstrucaoInicial reconstrucao, @Autowired JdbcTemplate jdbc) {
+        reconstrucao.aguardar();
+        jdbc.update("""
+                INSERT INTO livros (id, titulo, autor, ano, editora, disponivel, data_cadastro, versao,
+                                    total_emprestimos)
+                SELECT X, 'Livro ' || X, 'Autor ' || MOD(X, 200), 1900 + MOD(X, 120), 'Editora',
+                       MOD(X, 10) = 0, CURRENT_TIMESTAMP, 0, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, LIVROS);
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void buscaPorAutorUsaIndiceDoAutor() {
+        String plano = plano(() -> repository.buscarResponsesPorAutor("Autor 7"));
+
+        assertThat(plano).contains("IDX_LIVROS_AUTOR_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void buscaPorAnoUsaIndiceDoAno() {
+        String plano = plano(() -> repository.buscarResponsesPorAno(1950));
+
+        assertThat(plano).contains("IDX_LIVROS_ANO_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void listagemDeDisponiveisUsaIndiceDaDisponibilidade() {
+        String plano = plano(() -> repository.buscarResponsesPorDisponivel(true));
+
+        assertThat(plano).contains("IDX_LIVROS_DISPONIVEL_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void contagemDeDisponiveisUsaIndiceDaDisponibilidade() {
+        String plano = plano(() -> repository.countByDisponivel(true));
+
+        assertThat(plano).contains("IDX_LIVROS_DISPONIVEL_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void paginaSeguintePorTituloBuscaNoIndiceJaOrdenada() {
+        String plano = plano(() -> repository.buscarPaginaKeyset(
+                FiltroLivro.nenhum(), OrdenacaoLivro.TITULO, true, "Livro 500", 500L, 21));
+
+        // Faixa no índice (TITULO >= ?), não leitura desde o começo
+        assertThat(plano).contains("IDX_LIVROS_TITULO_ID: TITULO >=").contains("index sorted");
+    }
+
+    @Test
+    void paginaSeguintePorAnoDecrescenteBuscaNoIndiceJaOrdenada() {
+        String plano = plano(() -> repository.buscarPaginaKeyset(
+                FiltroLivro.nenhum(), OrdenacaoLivro.ANO, false, 1950, 9050L, 21));
+
+        // O H2 não lê índice de trás para frente: usa o decrescente da V6
+        assertThat(plano).contains("IDX_LIVROS_ANO_ID_DESC: ANO <=").contains("index sorted");
+    }
+
+    @Test
+    void paginaFiltradaPorAutorUsaIndiceDoAutor() {
+        FiltroLivro filtro = new FiltroLivro("Autor 7", null, null, null, null, null);
+
+        String plano = plano(() -> repository.buscarPaginaKeyset(
+                filtro, OrdenacaoLivro.ID, true, null, 1007L, 21));
+
+        assertThat(plano).contains("IDX_LIVROS_AUTOR_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void leituraAntesDaRemocaoTravaSoALinhaPelaChavePrimaria() {
+        transacao.executeWithoutResult(status -> {
+            RegistroSql.limpar();
+            assertThat(repository.travarResponsePorId(5L)).isPresent();
+            String sql = RegistroSql.ultimo();
+
+            // SQL portável (sem OLD TABLE do H2), e a busca é pela chave primária
+            assertThat(sql.toLowerCase()).contains("for update");
+            assertThat(jdbc.queryForObject("EXPLAIN " + sql, String.class))
+                    .contains("PRIMARY_KEY").doesNotContain("tableScan");
+        });
+    }
+
+    /**
+     * Executa a consulta e devolve o EXPLAIN do SQL que ela gerou.
+     */
+    private String plano(Runnable consulta) {
+        RegistroSql.limpar();
+        consulta.run();
+        return jdbc.queryForObject("EXPLAIN " + RegistroSql.ultimo(), String.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.biblioteca.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda o SQL que o Hibernate gera, para o teste rodar EXPLAIN nele.
+ *
+ * Registrado em hibernate.session_factory.statement_inspector: o Hibernate
+ * cria a instância pelo nome da classe, por isso a lista é estática.
+ */
+public class RegistroSql implements StatementInspector {
+
+    private static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        comandos.add(sql);
+        return sql;
+    }
+
+    static void limpar() {
+        comandos.clear();
+    }
+
+    /**
+     * Último comando gerado (falha se nenhum foi gerado).
+     */
+    static String ultimo() {
+        if (comandos.isEmpty()) {
+            throw new IllegalStateException("Nenhum comando SQL foi gerado");
+        }
+        return comandos.get(comandos.size() - 1);
+    }
+}
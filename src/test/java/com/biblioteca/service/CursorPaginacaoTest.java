@@ -0,0 +1,70 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dto.LivroResponse;
+import com.biblioteca.dto.OrdenacaoLivro;
+import com.biblioteca.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Codificação do cursor da paginação por keyset (sem banco).
+ */
+class CursorPaginacaoTest {
+
+    private static final LivroResponse LIVRO = new LivroResponse(42L, "A | B, com separador", "Machado de Assis",
+            1899, "Garnier", true, LocalDateTime.now(), 3L);
+
+    @Test
+    void idaEVoltaEmTodasAsOrdensEDirecoes() {
+        for (OrdenacaoLivro ordem : OrdenacaoLivro.values()) {
+            for (boolean crescente : new boolean[] {true, false}) {
+                CursorPaginacao cursor = CursorPaginacao.depoisDe(LIVRO, ordem, crescente);
+
+                assertThat(CursorPaginacao.decodificar(cursor.codificar())).isEqualTo(cursor);
+            }
+        }
+    }
+
+    @Test
+    void tituloComOSeparadorVoltaInteiro() {
+        CursorPaginacao cursor = CursorPaginacao.depoisDe(LIVRO, OrdenacaoLivro.TITULO, true);
+
+        assertThat(CursorPaginacao.decodificar(cursor.codificar()).ultimoValor())
+                .isEqualTo("A | B, com separador");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "v1|ID|XYZ|42|",        // direção desconhecida
+            "v1|ID|asc|42|",        // direção em minúsculas (o cursor sempre grava ASC/DESC)
+            "v1|ID||42|",           // direção vazia
+            "v2|ID|ASC|42|",        // outra versão
+            "v1|ID|ASC|42",         // faltando parte
+            "v1|PRECO|ASC|42|",     // ordem desconhecida
+            "v1|ID|ASC|x|",         // id não numérico
+            "v1|ANO|DESC|42|mil"    // ano não numérico
+    })
+    void recusaCursorMalFormado(String texto) {
+        assertThatThrownBy(() -> CursorPaginacao.decodificar(base64(texto)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor de paginação inválido");
+    }
+
+    @Test
+    void recusaBase64Invalido() {
+        assertThatThrownBy(() -> CursorPaginacao.decodificar("não é base64!"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}